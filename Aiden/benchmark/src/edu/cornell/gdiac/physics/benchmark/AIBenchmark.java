@@ -0,0 +1,103 @@
+/*
+ * AIBenchmark.java
+ *
+ * Times the navigation and sight queries the water guards make.
+ */
+package edu.cornell.gdiac.physics.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.badlogic.gdx.math.Vector2;
+
+import edu.cornell.gdiac.physics.ai.NavBoard;
+import edu.cornell.gdiac.physics.ai.PathFinder;
+import edu.cornell.gdiac.physics.ai.SightDetector;
+import edu.cornell.gdiac.physics.ai.SightDetector.IntersectionRecord;
+import edu.cornell.gdiac.physics.ai.SpatialGrid;
+import edu.cornell.gdiac.physics.character.CharacterModel;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.physics.scene.Scene;
+
+/**
+ * NavBoard.setupBoard, PathFinder.findPath and
+ * SightDetector.detectObjectInSight on every level.
+ *
+ * The board and grid are made the way AIController makes them. Paths are
+ * searched from each water guard to Aiden, and sight is cast from each
+ * guard; a level with no guards uses Aiden's own position and eyes, so
+ * every level still measures something.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AIBenchmark {
+	/** Board cell size, as in AidenController */
+	private static final float UNIT = 1f;
+	/** Sight grid cell size, as in AIController */
+	private static final float SIGHT_CELL_SIZE = 2f;
+
+	private Iterable<Obstacle> objects;
+	private NavBoard board;
+	private PathFinder finder = new PathFinder();
+	private SightDetector detector = new SightDetector();
+	private SpatialGrid grid;
+	private ArrayList<CharacterModel> eyes = new ArrayList<CharacterModel>();
+	private Vector2[] sources;
+	private Vector2 step = new Vector2();
+	private ArrayList<IntersectionRecord> seen = new ArrayList<IntersectionRecord>();
+
+	@Setup
+	public void setup(LevelState state) {
+		Scene scene = state.probe.getScene();
+		objects = state.probe.getObjects();
+		board = new NavBoard(0, 0, scene.getWidth(), scene.getHeight(), UNIT, UNIT);
+		board.setupBoard(objects);
+
+		eyes.addAll(scene.getGuards());
+		if (eyes.isEmpty()) {
+			eyes.add(state.probe.getAvatar());
+		}
+		sources = new Vector2[eyes.size()];
+		for (int ii = 0; ii < sources.length; ii++) {
+			sources[ii] = new Vector2(eyes.get(ii).getPosition());
+		}
+
+		Vector2 target = state.probe.getAvatar().getPosition();
+		board.resetSearch();
+		board.markTarget(board.castAround((int) (target.x / UNIT), (int) (target.y / UNIT)));
+
+		grid = new SpatialGrid(0, 0, scene.getWidth(), scene.getHeight(), SIGHT_CELL_SIZE);
+		SightDetector.fillGrid(grid, objects);
+	}
+
+	@Benchmark
+	public NavBoard setupBoard() {
+		board.setupBoard(objects);
+		return board;
+	}
+
+	@Benchmark
+	public void findPath(Blackhole bh) {
+		for (int ii = 0; ii < sources.length; ii++) {
+			bh.consume(finder.findPath(board, sources[ii], step));
+		}
+	}
+
+	@Benchmark
+	public void detectObjectInSight(Blackhole bh) {
+		for (int ii = 0; ii < eyes.size(); ii++) {
+			detector.detectObjectInSight(eyes.get(ii), SightDetector.FOV, grid, seen);
+			bh.consume(seen.size());
+		}
+	}
+}
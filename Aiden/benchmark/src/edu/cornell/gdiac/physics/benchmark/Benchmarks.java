@@ -0,0 +1,101 @@
+/*
+ * Benchmarks.java
+ *
+ * Runs the JMH benchmarks with allocation profiling on.  Run with the jmh
+ * task.
+ */
+package edu.cornell.gdiac.physics.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import edu.cornell.gdiac.physics.scene.LevelCompiler;
+
+/**
+ * Benchmark launcher.
+ *
+ * Takes the usual JMH command line (e.g. "AIBenchmark -p level=json/Tut1.json")
+ * and always adds the GC profiler, so every result comes with its allocation
+ * rate. Unless levels are given with -p, every file in LEVEL_DIR that
+ * LevelCompiler.isLevel accepts is benchmarked. The working directory must
+ * hold the game assets.
+ */
+public class Benchmarks {
+	/** Directory scanned for levels, relative to the working directory */
+	public static final String LEVEL_DIR = "json";
+	/**
+	 * Runs the benchmarks matching the command line.
+	 *
+	 * @param arg Command line arguments
+	 */
+	public static void main(String[] arg) throws RunnerException {
+		CommandLineOptions cmd;
+		try {
+			cmd = new CommandLineOptions(arg);
+		} catch (CommandLineOptionException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+			return;
+		}
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(cmd).addProfiler(GCProfiler.class);
+		if (!cmd.getParameter("level").hasValue()) {
+			String[] levels = findLevels(LEVEL_DIR);
+			if (levels.length == 0) {
+				System.err.println("No levels in " + LEVEL_DIR);
+				System.exit(1);
+				return;
+			}
+			builder.param("level", levels);
+		}
+		Options opts = builder.build();
+		new Runner(opts).run();
+	}
+
+	/**
+	 * Returns the paths of the level files in a directory, sorted.
+	 *
+	 * JSON files that are not levels (messages, saves, the schema) are
+	 * skipped, as LevelCompiler skips them.
+	 *
+	 * @param dir the directory
+	 *
+	 * @return the paths of the level files in a directory
+	 */
+	private static String[] findLevels(String dir) {
+		ArrayList<String> levels = new ArrayList<String>();
+		File[] files = new File(dir).listFiles();
+		if (files != null) {
+			JsonReader reader = new JsonReader();
+			for (File f : files) {
+				if (!f.getName().endsWith(".json")) {
+					continue;
+				}
+				JsonValue jv;
+				try {
+					jv = reader.parse(new FileHandle(f));
+				} catch (RuntimeException e) {
+					continue;
+				}
+				if (LevelCompiler.isLevel(jv)) {
+					levels.add(dir + "/" + f.getName());
+				}
+			}
+		}
+		Collections.sort(levels);
+		return levels.toArray(new String[levels.size()]);
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * LevelProbe.java
+ *
+ * A level controller that shows the benchmarks what it is made of.
+ */
+package edu.cornell.gdiac.physics.benchmark;
+
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+
+import edu.cornell.gdiac.physics.AidenController;
+import edu.cornell.gdiac.physics.blocks.FlammableBlock;
+import edu.cornell.gdiac.physics.blocks.FuelBlock;
+import edu.cornell.gdiac.physics.character.AidenModel;
+import edu.cornell.gdiac.physics.scene.Scene;
+import edu.cornell.gdiac.util.PooledList;
+
+/**
+ * An AidenController that exposes the state the benchmarked code works on.
+ *
+ * It plays exactly like the game's controller; it only adds getters.
+ */
+class LevelProbe extends AidenController {
+	/** Checkpoints of the level, in the order the save file counts them */
+	private Array<FuelBlock> checkpoints = new Array<FuelBlock>();
+
+	LevelProbe() {
+		super(0);
+	}
+
+	World getWorld() {
+		return world;
+	}
+
+	Scene getScene() {
+		return scene;
+	}
+
+	AidenModel getAvatar() {
+		return avatar;
+	}
+
+	PooledList<FlammableBlock> getFlammables() {
+		return flammables;
+	}
+
+	Array<FuelBlock> getCheckpoints() {
+		checkpoints.clear();
+		for (FuelBlock fb : scene.getFuelBlocks()) {
+			if (fb.isCheckpoint()) {
+				checkpoints.add(fb);
+			}
+		}
+		return checkpoints;
+	}
+}
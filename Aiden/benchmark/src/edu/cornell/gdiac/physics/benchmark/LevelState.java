@@ -0,0 +1,79 @@
+/*
+ * LevelState.java
+ *
+ * A shipped level, built and played for a moment, shared by the benchmarks.
+ */
+package edu.cornell.gdiac.physics.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.badlogic.gdx.Screen;
+
+import edu.cornell.gdiac.physics.headless.HeadlessGame;
+import edu.cornell.gdiac.util.ScreenListener;
+
+/**
+ * One level of desktop/json, built the way the game builds it.
+ *
+ * The level is stepped for a second with no input before any measurement, so
+ * the bodies have settled and Aiden is touching the ground, as in play.
+ * Benchmarks.main fills in every level it finds in desktop/json; pass
+ * "-p level=json/Tut1.json" to run just one. The default here is only for
+ * runs that bypass Benchmarks.main.
+ */
+@State(Scope.Benchmark)
+public class LevelState implements ScreenListener {
+	/** Steps played before measuring */
+	private static final int SETTLE_STEPS = 60;
+
+	@Param({ "json/Tut1.json" })
+	public String level;
+
+	/** The shared assets, loaded once per benchmark run */
+	private static HeadlessGame game;
+
+	/** The level being measured */
+	public LevelProbe probe;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		if (game == null) {
+			HeadlessGame.init();
+			game = new HeadlessGame();
+		}
+		probe = new LevelProbe();
+		probe.setLevelFile(level);
+		game.start(probe, this);
+		for (int ii = 0; ii < SETTLE_STEPS; ii++) {
+			HeadlessGame.step(probe);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		probe.dispose();
+		probe = null;
+	}
+
+	public void exitScreen(Screen screen, int exitCode) {
+	}
+
+	public void setMuted() {
+	}
+
+	public void setSound() {
+	}
+
+	public boolean getMuted() {
+		return true;
+	}
+
+	public boolean getSound() {
+		return true;
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * PhysicsBenchmark.java
+ *
+ * Times the per-frame contact and fire bookkeeping.
+ */
+package edu.cornell.gdiac.physics.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+
+import edu.cornell.gdiac.physics.BurnController;
+import edu.cornell.gdiac.physics.CollisionController;
+import edu.cornell.gdiac.physics.blocks.FlammableBlock;
+import edu.cornell.gdiac.physics.blocks.FuelBlock;
+import edu.cornell.gdiac.physics.character.AidenModel;
+import edu.cornell.gdiac.physics.headless.HeadlessGame;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.physics.scene.AssetFile;
+import edu.cornell.gdiac.physics.scene.GameSave;
+import edu.cornell.gdiac.util.PooledList;
+
+/**
+ * CollisionController.getCollisions and BurnController on every level.
+ *
+ * Collisions are checked against the contact list of the settled level, as
+ * AidenController.update does each frame. Before every invocation of the
+ * fire benchmark, its burn controller is rebuilt from the level's contacts
+ * and every flammable block is lit again from a full timer, the worst case
+ * for the burn bookkeeping; the invocation then advances the fires by one
+ * real frame step, so the timers tick and any deadline due in that frame
+ * fires, and every invocation does the same work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhysicsBenchmark {
+	private World world;
+	private AidenModel avatar;
+	private Array<FuelBlock> checkpoints;
+	private PooledList<FlammableBlock> flammables;
+	private PooledList<Obstacle> objects;
+	private AssetFile af;
+	private GameSave save;
+	private BurnController burn;
+	private Array<Contact> contacts;
+
+	@Setup
+	public void setup(LevelState state) {
+		LevelProbe probe = state.probe;
+		world = probe.getWorld();
+		avatar = probe.getAvatar();
+		checkpoints = probe.getCheckpoints();
+		flammables = probe.getFlammables();
+		objects = probe.getObjects();
+		af = probe.af;
+		contacts = world.getContactList();
+
+		save = new GameSave("savedGame.json");
+		save.setPersistent(false);
+
+		burn = new BurnController();
+		light(burn, flammables, contacts);
+	}
+
+	/** The fires of the level, lit afresh before every invocation */
+	@State(Scope.Thread)
+	public static class Fires {
+		private BurnController burn = new BurnController();
+
+		@Setup(Level.Invocation)
+		public void setup(LevelState state) {
+			LevelProbe probe = state.probe;
+			light(burn, probe.getFlammables(), probe.getWorld().getContactList());
+		}
+	}
+
+	/**
+	 * Puts every fire out, then lights every flammable block from a full timer.
+	 *
+	 * Touching blocks are linked from the contact list, as beginContact would
+	 * have linked them during play.
+	 */
+	private static void light(BurnController burn,
+			PooledList<FlammableBlock> flammables, Array<Contact> contacts) {
+		burn.clear();
+		for (FlammableBlock fb : flammables) {
+			fb.stopBurnTimer();
+			fb.resetBurnTimer();
+			fb.resetSpreadTimer();
+			burn.register(fb);
+		}
+		for (int ii = 0; ii < contacts.size; ii++) {
+			Contact c = contacts.get(ii);
+			if (c.isTouching()) {
+				burn.beginContact(c.getFixtureA().getBody().getUserData(),
+						c.getFixtureB().getBody().getUserData());
+			}
+		}
+		for (FlammableBlock fb : flammables) {
+			burn.ignite(fb);
+		}
+	}
+
+	@Benchmark
+	public boolean getCollisions() {
+		// A new controller each frame, as in AidenController.update
+		CollisionController collisions = new CollisionController();
+		return collisions.getCollisions(contacts, avatar, save, checkpoints, af, burn);
+	}
+
+	@Benchmark
+	public boolean burnUpdate(Fires fires) {
+		fires.burn.update(flammables, objects, HeadlessGame.STEP, world, af);
+		return fires.burn.isBurning();
+	}
+}
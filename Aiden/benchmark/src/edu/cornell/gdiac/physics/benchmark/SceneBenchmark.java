@@ -0,0 +1,45 @@
+/*
+ * SceneBenchmark.java
+ *
+ * Times building a level's obstacles from its parsed data.
+ */
+package edu.cornell.gdiac.physics.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.cornell.gdiac.physics.scene.LevelData;
+import edu.cornell.gdiac.physics.scene.Scene;
+
+/**
+ * Scene construction on every level.
+ *
+ * The level is parsed once in setup (LevelLoadBenchmark times parsing), so
+ * this is only the work createScenes does on every reset. The characters'
+ * particle effects are given back each time, as resetting a level does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SceneBenchmark {
+	private LevelData data;
+
+	@Setup
+	public void setup(LevelState state) {
+		data = LevelData.get(state.level);
+	}
+
+	@Benchmark
+	public Scene construct() {
+		Scene scene = new Scene(data);
+		scene.releaseCharacters();
+		return scene;
+	}
+}
@@ -29,6 +29,8 @@ import edu.cornell.gdiac.physics.obstacle.*;
 import edu.cornell.gdiac.physics.scene.AssetFile;
 import edu.cornell.gdiac.physics.scene.GameSave;
 import edu.cornell.gdiac.physics.scene.JSONParser;
+import edu.cornell.gdiac.physics.scene.LevelManifest;
+import edu.cornell.gdiac.physics.scene.ParticleRegistry;
 import edu.cornell.gdiac.physics.scene.Scene;
 import edu.cornell.gdiac.physics.character.*;
 import edu.cornell.gdiac.physics.character.CharacterModel.CharacterType;
@@ -101,6 +103,8 @@ public class AidenController extends WorldController
 	// Blocks
 	/** Flammable Objects */
 	protected PooledList<FlammableBlock> flammables = new PooledList<FlammableBlock>();
+	/** Blocks that only move vertically, see preStep() */
+	protected Array<BlockAbstract> lockedBlocks = new Array<BlockAbstract>();
 	// Ropes
 	protected PooledList<ComplexObstacle> ropes = new PooledList<ComplexObstacle>();
 	// Exit
@@ -118,6 +122,10 @@ public class AidenController extends WorldController
 
 	// Controllers for the game
 	private AIController aiController;
+	private BurnController burnControl = new BurnController();
+	/** The level's blocks as populated, to restart without a new world */
+	private LevelSnapshot snapshot;
+	private ContactTable contacts = new ContactTable();
 	// // Temp
 	// private NavBoard board;
 
@@ -191,6 +199,7 @@ public class AidenController extends WorldController
 		contactFixtures = new ObjectSet<Fixture>();
 		this.level = level;
 		spirit = true;
+		registerContacts();
 	}
 
 	/**
@@ -228,6 +237,14 @@ public class AidenController extends WorldController
 		gs = s;
 	}
 
+	/** Level file to play instead of the one in the manifest, or null */
+	private String levelFile;
+
+	/** Plays the given level file instead of the level's own (null to undo) */
+	public void setLevelFile(String file) {
+		levelFile = file;
+	}
+
 	/**
 	 * Resets the status of the game so that we can play again.
 	 *
@@ -236,6 +253,7 @@ public class AidenController extends WorldController
 	public void reset() {
 		af.bgm.stop();
 		resetPos();
+		RandomController.reseed();
 
 		Vector2 gravity = new Vector2(world.getGravity());
 		beginCamFrame = 0;
@@ -248,13 +266,19 @@ public class AidenController extends WorldController
 		}
 		objects.clear();
 		flammables.clear();
+		lockedBlocks.clear();
+		ropes.clear();
+		burnControl.clear();
 		addQueue.clear();
 		npcs.clear();
 		checkpoints.clear();
+		snapshot = null;
 
 		world.dispose();
 		world = new World(gravity, false);
+		world.setAutoClearForces(false);
 		world.setContactListener(this);
+		accumulator = 0;
 		setComplete(false);
 		setFailure(false);
 
@@ -265,10 +289,68 @@ public class AidenController extends WorldController
 			bgm.dispose();
 		}
 		populateLevel();
+		culler.reset(scene.getWidth(), scene.getHeight());
+		snapshot = new LevelSnapshot(objects, flammables);
+		beginLevel();
+	}
+
+	/**
+	 * Restarts the level, rewinding the blocks in the current world.
+	 *
+	 * Blocks are put back where they were after populateLevel, and only the
+	 * ones destroyed by fire are made again. Aiden and the guards are made
+	 * new. This falls back to reset() if the level was never populated.
+	 */
+	@Override
+	public void softReset() {
+		if (snapshot == null) {
+			reset();
+			return;
+		}
+		af.bgm.stop();
+		resetPos();
+		RandomController.reseed();
+		beginCamFrame = 0;
+
+		avatar.deactivatePhysics(world);
+		for (CharacterModel npc : npcs) {
+			npc.deactivatePhysics(world);
+		}
+		npcs.clear();
+		addQueue.clear();
+
+		Array<Obstacle> rebuilt = snapshot.restore(world, objects, flammables);
+		burnControl.clear();
+		for (Obstacle obj : rebuilt) {
+			activateObject(obj);
+			if (obj instanceof Rope) {
+				((Rope) obj).setTexture(af.ropeTexture, af.nailTexture);
+			} else if (obj instanceof TrapDoor) {
+				((TrapDoor) obj).setChildrenTexture(af.trapDoor,
+						af.ropeLongTexture, af.nailTexture);
+			}
+		}
+		for (FlammableBlock fb : flammables) {
+			burnControl.register(fb);
+		}
+		world.clearForces();
+		accumulator = 0;
+		setComplete(false);
+		setFailure(false);
+
+		scene.resetCharacters();
+		populateCharacters();
+		snapshot.placeCharacters(objects);
+		this.aiController = new AIController(scene, 0, 0, scene.getWidth(),
+				scene.getHeight(), 1f, 1f, objects);
+		beginLevel();
+	}
+
+	/** Sound, effects and menu state shared by reset() and softReset() */
+	private void beginLevel() {
 		af.yay.stop();
-		confeti = new ParticleEffect();
-		confeti.load(Gdx.files.internal("platform/confetti.p"),
-				Gdx.files.internal("platform"));
+		ParticleRegistry.getInstance().free(confeti);
+		confeti = ParticleRegistry.getInstance().obtain(ParticleRegistry.CONFETTI);
 		Vector2 pos = canvas.relativeVector(-1000, -1000);
 		confeti.setPosition(pos.x, pos.y);
 		if (listener.getMuted()) {
@@ -370,8 +452,11 @@ public class AidenController extends WorldController
 			box.setTexture(texture);
 			box.setBurningTexture(
 					af.burningTexture[ii % af.burningTexture.length], 2);
+			box.setHorizontalLock(true);
 			addObject(box);
 			flammables.add(box);
+			lockedBlocks.add(box);
+			burnControl.register(box);
 		}
 
 		// Adding stone boxes
@@ -387,7 +472,9 @@ public class AidenController extends WorldController
 			box.setName("stone_box" + ii);
 			box.setDrawScale(scale);
 			box.setTexture(af.stoneTexture);
+			box.setHorizontalLock(true);
 			addObject(box);
+			lockedBlocks.add(box);
 		}
 
 		// Adding fuel boxes
@@ -405,6 +492,7 @@ public class AidenController extends WorldController
 			box.ratio = new Vector2(1f, 1f);
 			addObject(box);
 			flammables.add(box);
+			burnControl.register(box);
 			if (box.isCheckpoint()) {
 				checkpoints.add(box);
 			}
@@ -426,6 +514,7 @@ public class AidenController extends WorldController
 			bp.setDrawScale(scale);
 			addObject(bp);
 			flammables.add(bp.getPlatform());
+			burnControl.register(bp.getPlatform());
 		}
 		// Adding ropes
 		for (int ii = 0; ii < scene.getRopes().size(); ii++) {
@@ -436,9 +525,36 @@ public class AidenController extends WorldController
 			ropes.add(r);
 		}
 
+		populateCharacters();
+
+		// bgm = Gdx.audio.newSound(Gdx.files.internal("music/bgm.mp3"));
+		// jump = Gdx.audio.newSound(Gdx.files.internal("music/jump.mp3"));
+
+		int ii = 0;
+		for (TrapDoor td : scene.getTrapDoors()) {
+			td.setDrawScale(scale);
+			addObject(td);
+			td.createJoints(world);
+			ropes.add(td);
+			td.setChildrenTexture(af.trapDoor, af.ropeLongTexture,
+					af.nailTexture);
+			td.setDensity(HEAVY_DENSITY);
+			td.setFriction(0);
+			td.setRestitution(BASIC_RESTITUTION);
+			td.setMass(1000f);
+			td.setName("trapdoor" + ii);
+			ii++;
+		}
+
+		this.aiController = new AIController(scene, 0, 0, scene.getWidth(),
+				scene.getHeight(), 1f, 1f, objects);
+	}
+
+	/** Adds the scene's Aiden and water guards to the level */
+	private void populateCharacters() {
 		// Create Aiden
-		dwidth = af.avatarTexture.getRegionWidth() / scale.x;
-		dheight = af.avatarTexture.getRegionHeight() / scale.y;
+		float dwidth = af.avatarTexture.getRegionWidth() / scale.x;
+		float dheight = af.avatarTexture.getRegionHeight() / scale.y;
 		avatar = scene.getAidenModel();
 		avatar.setMass(0);
 		avatar.setDensity(0);
@@ -480,28 +596,6 @@ public class AidenController extends WorldController
 					af.WaterWalkTextures[ii % (af.WaterWalkTextures.length)]);
 			addObject(ch1);
 		}
-
-		// bgm = Gdx.audio.newSound(Gdx.files.internal("music/bgm.mp3"));
-		// jump = Gdx.audio.newSound(Gdx.files.internal("music/jump.mp3"));
-
-		int ii = 0;
-		for (TrapDoor td : scene.getTrapDoors()) {
-			td.setDrawScale(scale);
-			addObject(td);
-			td.createJoints(world);
-			ropes.add(td);
-			td.setChildrenTexture(af.trapDoor, af.ropeLongTexture,
-					af.nailTexture);
-			td.setDensity(HEAVY_DENSITY);
-			td.setFriction(0);
-			td.setRestitution(BASIC_RESTITUTION);
-			td.setMass(1000f);
-			td.setName("trapdoor" + ii);
-			ii++;
-		}
-
-		this.aiController = new AIController(scene, 0, 0, scene.getWidth(),
-				scene.getHeight(), 1f, 1f, objects);
 	}
 
 	/**
@@ -747,7 +841,7 @@ public class AidenController extends WorldController
 				rstColor = Color.GRAY;
 				boolean isPressed = InputController.getInstance().didTertiary();
 				if (isPressed) {
-					this.reset();
+					this.softReset();
 				}
 			} else {
 				rstColor = Color.WHITE;
@@ -784,10 +878,14 @@ public class AidenController extends WorldController
 		avatar.setClimbing(false);
 		avatar.setGravityScale(1);
 		avatar.setSpiriting(false);
+		Profiler profiler = Profiler.getInstance();
+		profiler.begin(Profiler.AI);
 		aiController.nextMove(npcs);
+		profiler.end(Profiler.AI);
 
 		// whether or not ropes and trapdoor ropes are burning
 		boolean ropeburn = false;
+		profiler.begin(Profiler.ROPES);
 		for (ComplexObstacle co : ropes) {
 			co.updateParts(world);
 			for (Obstacle b : co.getBodies()) {
@@ -799,11 +897,14 @@ public class AidenController extends WorldController
 			}
 
 		}
+		profiler.end(Profiler.ROPES);
 
+		profiler.begin(Profiler.COLLISION);
 		Array<Contact> cList = world.getContactList();
 		CollisionController CollControl = new CollisionController();
 		boolean notFailure = CollControl.getCollisions(cList, avatar, gs,
-				checkpoints, af);
+				checkpoints, af, burnControl);
+		profiler.end(Profiler.COLLISION);
 		if (CollControl.getCheckpoint() != -1) {
 			gs.setCheckpoint(CollControl.getCheckpoint());
 			gs.exportToJson();
@@ -866,12 +967,7 @@ public class AidenController extends WorldController
 			af.madwater.stop();
 		}
 
-		burning = false;
-		for (FlammableBlock f : flammables) {
-			if (f.isBurning()) {
-				burning = true;
-			}
-		}
+		burning = burnControl.isBurning();
 
 		if (burning || ropeburn) {
 			af.burn.play();
@@ -880,8 +976,9 @@ public class AidenController extends WorldController
 			af.burn.stop();
 		}
 
-		BurnController BurnControl = new BurnController();
-		BurnControl.getBurning(flammables, objects, dt, world);
+		profiler.begin(Profiler.BURN);
+		burnControl.update(flammables, objects, dt, world, af);
+		profiler.end(Profiler.BURN);
 
 		// If we use sound, we must remember this.
 		SoundController.getInstance().update();
@@ -898,8 +995,24 @@ public class AidenController extends WorldController
 			beginCamFrame = 400;
 		}
 
+		// Final message
+		if (isComplete() && !isFailure()) {
+			avatar.setComplete(true);
+		} else if (avatar.canDrawFail()) {
+			avatar.setComplete(true);
+		}
+
+	}
+
+	/**
+	 * Moves the camera towards Aiden, or pans over the level at the start.
+	 *
+	 * This is called once per frame from draw(), so the camera follows the
+	 * interpolated position Aiden is drawn at, not the last physics step.
+	 */
+	private void updateCamera() {
 		if (beginCamFrame == 0) {
-			canvas.setCamPos(avatar.getX(), avatar.getY());
+			canvas.setCamPos(avatar.getDrawX(), avatar.getDrawY());
 		}
 
 		if (beginCamFrame < 200) {
@@ -912,8 +1025,8 @@ public class AidenController extends WorldController
 
 		if (beginCamFrame > 300) {
 			canvas.updateCam(1f);
-			canvas.translate(avatar.getX(), avatar.getY(), scene.getWidth(),
-					scene.getHeight());
+			canvas.translate(avatar.getDrawX(), avatar.getDrawY(),
+					scene.getWidth(), scene.getHeight());
 		}
 		if (beginCamFrame < 300) {
 			beginCamFrame++;
@@ -922,112 +1035,216 @@ public class AidenController extends WorldController
 	}
 
 	/**
-	 * Callback method for the start of a collision
+	 * Registers the contact handlers and the ignored pairs.
 	 *
-	 * This method is called when we first get a collision between two objects.
-	 * We use this method to test if it is the "right" kind of collision. In
-	 * particular, we use it to test if we made it to the win door.
-	 *
-	 * @param contact
-	 *            The two bodies that collided
+	 * Pairs that never interact are filtered by Box2D; pairs that interact
+	 * but must pass through each other are disabled in preSolve.
 	 */
-	public void beginContact(Contact contact) {
-		Fixture fix1 = contact.getFixtureA();
-		Fixture fix2 = contact.getFixtureB();
-
-		Body body1 = fix1.getBody();
-		Body body2 = fix2.getBody();
-
-		Object fd1 = fix1.getUserData();
-		Object fd2 = fix2.getUserData();
-
-		try {
-			Obstacle bd1 = (Obstacle) body1.getUserData();
-			Obstacle bd2 = (Obstacle) body2.getUserData();
-
-			if ((bd1 instanceof BlockAbstract && !(bd1 instanceof RopePart))
-					&& (bd2 instanceof BlockAbstract
-							&& !(bd2 instanceof RopePart))) {
-				if ((bd1.getVY() <= -1 || bd2.getVY() <= -1)
-						&& (bd1.getVY() != bd2.getVY())) {
-					af.thump.play();
-				}
-			}
-
-			// See if we have landed on the ground.
-			if ((avatar.getSensorName().equals(fd2) && avatar != bd1) ||
-					(avatar.getSensorName().equals(fd1) && avatar != bd2)) {
-				avatar.setGrounded(true);
-				sensorFixtures.add(avatar == bd1 ? fix2 : fix1);
-			}
-
-			// Check for win condition
-			if ((bd1 == avatar && bd2 == goalDoor) ||
-					(bd1 == goalDoor && bd2 == avatar)) {
-				setComplete(true);
-				confeti.start();
-				af.clap.play();
-				avatar.setComplete(true);
+	private void registerContacts() {
+		// Passes through, and nothing happens on contact
+		contacts.ignore(ContactTable.AIDEN, ContactTable.WHEEL);
+		contacts.ignore(ContactTable.NPC, ContactTable.GOAL | ContactTable.ROPE);
+		contacts.ignore(ContactTable.FUEL, ContactTable.NPC | ContactTable.STONES
+				| ContactTable.WHEEL);
+		contacts.ignore(ContactTable.WATER, ContactTable.CHARACTERS
+				| ContactTable.WHEEL);
+
+		// Passes through, but still burns
+		contacts.register(ContactTable.FUEL, ContactTable.ALL,
+				new ContactTable.Handler() {
+					public void preSolve(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						contact.setEnabled(false);
+					}
+				});
+		// Blocks fall through water
+		contacts.register(ContactTable.WATER, ContactTable.ALL,
+				new ContactTable.Handler() {
+					public void preSolve(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						contact.setEnabled(false);
+					}
+				});
+		// Spirit mode passes through flammables
+		contacts.register(ContactTable.AIDEN, ContactTable.WOOD
+				| ContactTable.ROPE, new ContactTable.Handler() {
+					public void preSolve(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						if (spirit) {
+							contact.setEnabled(false);
+						}
+					}
+				});
+
+		// Falling blocks make a sound
+		contacts.register(ContactTable.BLOCKS & ~ContactTable.ROPE,
+				ContactTable.BLOCKS & ~ContactTable.ROPE,
+				new ContactTable.Handler() {
+					public void beginContact(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						if ((bdA.getVY() <= -1 || bdB.getVY() <= -1)
+								&& (bdA.getVY() != bdB.getVY())) {
+							af.thump.play();
+						}
+					}
+				});
+
+		// Fire spreads between touching flammables
+		contacts.register(ContactTable.FLAMMABLE, ContactTable.FLAMMABLE,
+				new ContactTable.Handler() {
+					public void beginContact(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						burnControl.beginContact(bdA, bdB);
+					}
 
-			}
+					public void endContact(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						burnControl.endContact(bdA, bdB);
+					}
+				});
+
+		// See if we have landed on the ground.
+		contacts.register(ContactTable.AIDEN, ContactTable.ALL,
+				new ContactTable.Handler() {
+					public void beginContact(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						if (fixA.getUserData() == avatar.getSensorName()) {
+							avatar.setGrounded(true);
+							sensorFixtures.add(fixB);
+						}
+					}
 
-			// Check for aiden top
-			if ((avatar.getTopName().equals(fd2) && avatar != bd1
-					&& bd1 instanceof StoneBlock)) {
-				if (Math.abs(bd1.getVY()) >= 1 && !avatar.isSpiriting()) {
-					if (!isComplete()) {
-						setFailure(true);
-						af.extinguish.play();
+					public void endContact(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						if (fixA.getUserData() == avatar.getSensorName()) {
+							sensorFixtures.remove(fixB);
+							if (sensorFixtures.size == 0) {
+								avatar.setGrounded(false);
+							}
+						}
 					}
-				}
-			}
-			if ((avatar.getTopName().equals(fd1) && avatar != bd2
-					&& bd2 instanceof StoneBlock)) {
-				if (Math.abs(bd2.getVY()) >= 1 && !avatar.isSpiriting()) {
-					if (!isComplete()) {
-						setFailure(true);
-						af.extinguish.play();
+				});
+
+		// Check for win condition
+		contacts.register(ContactTable.AIDEN, ContactTable.GOAL,
+				new ContactTable.Handler() {
+					public void beginContact(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						if (bdB == goalDoor) {
+							setComplete(true);
+							confeti.start();
+							af.clap.play();
+							avatar.setComplete(true);
+						}
 					}
-				}
-			}
+				});
+
+		// Check for aiden top
+		contacts.register(ContactTable.AIDEN, ContactTable.STONES,
+				new ContactTable.Handler() {
+					public void beginContact(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						if (fixA.getUserData() == avatar.getTopName()
+								&& Math.abs(bdB.getVY()) >= 1
+								&& !avatar.isSpiriting() && !isComplete()) {
+							setFailure(true);
+							af.extinguish.play();
+						}
+					}
+				});
+
+		// Check for aiden down water top
+		contacts.register(ContactTable.AIDEN, ContactTable.NPC,
+				new ContactTable.Handler() {
+					public void beginContact(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						if (fixA.getUserData() == avatar.getTopName()
+								&& !isComplete()
+								&& !((WaterGuard) bdB).isDead()) {
+							setFailure(true);
+							af.extinguish.play();
+						}
+					}
+				});
+
+		// Check for water top
+		contacts.register(ContactTable.NPC, ContactTable.STONES,
+				new ContactTable.Handler() {
+					public void beginContact(Contact contact, Fixture fixA,
+							Obstacle bdA, Fixture fixB, Obstacle bdB) {
+						WaterGuard w = (WaterGuard) bdA;
+						if (fixA.getUserData() == w.getTopName()
+								&& bdB.getVY() <= -2) {
+							w.setDead(true);
+							af.splash.play();
+						}
+					}
+				});
+	}
 
-			// Check for aiden down water top
-			if (avatar.getTopName().equals(fd2) && avatar != bd1
-					&& bd1 instanceof WaterGuard) {
-				if ((!isComplete()) && (!((WaterGuard) bd1).isDead())) {
-					setFailure(true);
-					af.extinguish.play();
-				}
-			}
-			if (avatar.getTopName().equals(fd1) && avatar != bd2
-					&& bd2 instanceof WaterGuard) {
-				if ((!isComplete()) && (!((WaterGuard) bd2).isDead())) {
-					setFailure(true);
-					af.extinguish.play();
-				}
-			}
+	/**
+	 * Immediately adds the object to the physics world
+	 *
+	 * The object is given its collision category before it makes its fixtures.
+	 *
+	 * @param obj
+	 *            The object to add
+	 */
+	@Override
+	protected void addObject(Obstacle obj) {
+		contacts.categorize(obj);
+		super.addObject(obj);
+		if (obj instanceof ComplexObstacle) {
+			contacts.categorizeAnchors((ComplexObstacle) obj);
+		}
+	}
 
-			// Check for water top
-			for (CharacterModel wg : npcs) {
-				WaterGuard w = (WaterGuard) wg;
-				if (w.getTopName().equals(fd2) && w != bd1
-						&& bd1 instanceof StoneBlock &&
-						bd1.getVY() <= -2) {
-					w.setDead(true);
-					af.splash.play();
-				}
-				if (w.getTopName().equals(fd1) && w != bd2
-						&& bd2 instanceof StoneBlock &&
-						bd2.getVY() <= -2) {
-					w.setDead(true);
-					af.splash.play();
-				}
-			}
+	/**
+	 * Adds an object already in the objects list to the physics world
+	 *
+	 * This is addObject() without the add, for objects a LevelSnapshot put
+	 * back in their old place.
+	 *
+	 * @param obj
+	 *            The object to activate
+	 */
+	private void activateObject(Obstacle obj) {
+		contacts.categorize(obj);
+		obj.activatePhysics(world);
+		if (obj instanceof ComplexObstacle) {
+			contacts.categorizeAnchors((ComplexObstacle) obj);
+		}
+	}
 
+	/** Blocks only move vertically */
+	@Override
+	protected void preStep() {
+		for (int ii = 0; ii < lockedBlocks.size; ii++) {
+			lockedBlocks.get(ii).lockHorizontal();
+		}
+	}
+
+	@Override
+	protected void postStep() {
+		preStep();
+	}
+
+	/**
+	 * Callback method for the start of a collision
+	 *
+	 * This method is called when we first get a collision between two objects.
+	 * The handlers registered in registerContacts() for the categories of the
+	 * two objects are called.
+	 *
+	 * @param contact
+	 *            The two bodies that collided
+	 */
+	public void beginContact(Contact contact) {
+		try {
+			contacts.beginContact(contact);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
-
 	}
 
 	/**
@@ -1038,112 +1255,24 @@ public class AidenController extends WorldController
 	 * is how we prevent double jumping.
 	 */
 	public void endContact(Contact contact) {
-		Fixture fix1 = contact.getFixtureA();
-		Fixture fix2 = contact.getFixtureB();
-
-		Body body1 = fix1.getBody();
-		Body body2 = fix2.getBody();
-
-		Object fd1 = fix1.getUserData();
-		Object fd2 = fix2.getUserData();
-
-		Object bd1 = body1.getUserData();
-		Object bd2 = body2.getUserData();
-
-		if ((avatar.getSensorName().equals(fd2) && avatar != bd1) ||
-				(avatar.getSensorName().equals(fd1) && avatar != bd2)) {
-			sensorFixtures.remove(avatar == bd1 ? fix2 : fix1);
-			if (sensorFixtures.size == 0) {
-				avatar.setGrounded(false);
-			}
-		}
+		contacts.endContact(contact);
 	}
 
 	/** Unused ContactListener method */
 	public void postSolve(Contact contact, ContactImpulse impulse) {
-		Fixture fix1 = contact.getFixtureA();
-		Fixture fix2 = contact.getFixtureB();
-
-		Body body1 = fix1.getBody();
-		Body body2 = fix2.getBody();
-
-		Object bd1 = body1.getUserData();
-		Object bd2 = body2.getUserData();
-
-		if (bd1 instanceof BlockAbstract) {
-			Vector2 velocity = ((BlockAbstract) bd1).getLinearVelocity();
-			((BlockAbstract) bd1).setLinearVelocity(new Vector2(0, velocity.y));
-		}
-		if (bd2 instanceof BlockAbstract) {
-			Vector2 velocity = ((BlockAbstract) bd2).getLinearVelocity();
-			((BlockAbstract) bd2).setLinearVelocity(new Vector2(0, velocity.y));
-		}
+		contacts.postSolve(contact);
 	}
 
 	/**
-	 * ContactListener method, lets Aiden pass through ladders. Also passes
+	 * ContactListener method, lets Aiden pass through fire balls. Also passes
 	 * through burning blocks if spirit mode is enabled.
 	 */
 	public void preSolve(Contact contact, Manifold oldManifold) {
-		Fixture fix1 = contact.getFixtureA();
-		Fixture fix2 = contact.getFixtureB();
-
-		Body body1 = fix1.getBody();
-		Body body2 = fix2.getBody();
-
-		Object bd1 = body1.getUserData();
-		Object bd2 = body2.getUserData();
-
-		if (bd1 == avatar && bd2 instanceof WheelObstacle
-				|| bd2 == avatar && bd1 instanceof WheelObstacle) {
-			contact.setEnabled(false);
-		}
-		// Disable collision between goal door and NPCs
-		if (bd1 instanceof CharacterModel && bd2 instanceof GoalDoor
-				|| bd2 instanceof CharacterModel && bd1 instanceof GoalDoor) {
-			contact.setEnabled(false);
-		}
-		// Disable collision between fire balls and NPCs
-		if (bd1 instanceof FuelBlock || bd2 instanceof FuelBlock) {
-			contact.setEnabled(false);
-		}
-
-		// Disable collision between fire balls and NPCs
-		if ((bd1 instanceof RopePart || bd2 instanceof RopePart)
-				&& (bd1 instanceof WaterGuard || bd2 instanceof WaterGuard)) {
-			contact.setEnabled(false);
-		}
-
-		// Disable collision between water platform and NPCs
-		if (bd1 instanceof WaterPlatform || bd2 instanceof WaterPlatform) {
-			contact.setEnabled(false);
-		}
-
-		if (spirit) {
-			if ((bd1 == avatar && bd2 instanceof FlammableBlock &&
-					!(bd2 instanceof FlamePlatform))
-					|| (bd2 == avatar && bd1 instanceof FlammableBlock
-							&& !(bd1 instanceof FlamePlatform))) {
-				contact.setEnabled(false);
-			}
-			if ((bd1 == avatar && bd2 instanceof BurnablePlatform)
-					|| (bd2 == avatar && bd1 instanceof BurnablePlatform)) {
-				contact.setEnabled(true);
-			}
-		}
-
-		if (bd1 instanceof BlockAbstract) {
-			Vector2 velocity = ((BlockAbstract) bd1).getLinearVelocity();
-			((BlockAbstract) bd1).setLinearVelocity(new Vector2(0, velocity.y));
-		}
-		if (bd2 instanceof BlockAbstract) {
-			Vector2 velocity = ((BlockAbstract) bd2).getLinearVelocity();
-			((BlockAbstract) bd2).setLinearVelocity(new Vector2(0, velocity.y));
-		}
-
+		contacts.preSolve(contact);
 	}
 
 	// ---------------------------------confetti-------------------------------//
+	/** Borrowed from the ParticleRegistry at each level start */
 	public ParticleEffect confeti;
 
 	// -------------------------------------------------------------------------//
@@ -1225,7 +1354,10 @@ public class AidenController extends WorldController
 	public void draw(float delta) {
 		float zoom = canvas.getZoom();
 		canvas.clear();
-		canvas.begin(avatar.getX(), avatar.getY(), scene.getWidth(),
+		if (!pause) {
+			updateCamera();
+		}
+		canvas.begin(avatar.getDrawX(), avatar.getDrawY(), scene.getWidth(),
 				scene.getHeight(), beginCamFrame);
 		// canvas.draw(backGround, 0, 0);
 
@@ -1238,11 +1370,13 @@ public class AidenController extends WorldController
 			for (FuelBlock fb : checkpoints) {
 				canvas.draw(af.checkpointTexture, Color.WHITE, origin.x,
 						origin.y,
-						fb.getX() * scale.x,
-						(fb.getY() + fb.getHeight() / 2f) * scale.y, 0f,
+						fb.getDrawX() * scale.x,
+						(fb.getDrawY() + fb.getHeight() / 2f) * scale.y, 0f,
 						0.4f, 0.4f);
 			}
 
+			culler.begin((OrthographicCamera) canvas.getCamera(), scale,
+					objects);
 			for (Obstacle obj : objects) {
 				if (obj == avatar) {
 					if (!isFailure()) {
@@ -1250,6 +1384,8 @@ public class AidenController extends WorldController
 					} else {
 						avatar.drawDead(canvas);
 					}
+				} else if (!culler.isVisible(obj)) {
+					continue;
 				} else if (obj instanceof WaterGuard
 						&& ((WaterGuard) obj).isDead()) {
 					((WaterGuard) obj).drawDead(canvas);
@@ -1323,8 +1459,8 @@ public class AidenController extends WorldController
 					if (this instanceof TutorialController &&
 							((TutorialController) this).tutpause) {
 						posTemp = canvas.relativeVector(canvas.getWidth()/2, canvas.getHeight()/2);
-						TextureRegion instruction = af.tutorialInstructions[((TutorialController) this)
-						            										.getMsgString()];
+						TextureRegion instruction = af.getInstruction(((TutorialController) this)
+						            										.getMsgString());
 						if(((TutorialController) this).getMsgString()==19){
 							canvas.draw(instruction, Color.WHITE, instruction.getRegionWidth()/2 ,
 									instruction.getRegionHeight()/2,
@@ -1423,10 +1559,10 @@ public class AidenController extends WorldController
 							light_radius[i] = 0.1f;
 						} else {
 							c = Color.WHITE;
-							if (RandomController.rollFloat(0, 1) > 0.85f) {
+							if (RandomController.rollCosmeticFloat(0, 1) > 0.85f) {
 								light_radius[i] = Math.min(0.3f, Math.max(0.15f,
 										light_radius[i] + RandomController
-												.rollFloat(-0.02f, 0.02f)));
+												.rollCosmeticFloat(-0.02f, 0.02f)));
 								// light_alpha[i]=Math.max(0.5f, Math.min(1,
 								// light_alpha[i]+RandomController.rollFloat(-0.025f,
 								// 0.025f)));
@@ -1552,23 +1688,36 @@ public class AidenController extends WorldController
 			confeti.setPosition(pos.x, pos.y);
 			canvas.drawParticle(confeti);
 		}
+		if (Profiler.getInstance().isEnabled()) {
+			Vector2 pos = canvas.relativeVector(canvas.getWidth() * 0.02f,
+					canvas.getHeight() * 0.8f);
+			// The font is shared, so put its scale back afterwards
+			float fontX = af.displayFont.getData().scaleX;
+			float fontY = af.displayFont.getData().scaleY;
+			af.displayFont.getData().setScale(zoom / 3, zoom / 3);
+			Profiler.getInstance().drawOverlay(canvas, af.displayFont, pos.x,
+					pos.y);
+			af.displayFont.getData().setScale(fontX, fontY);
+		}
+		if (debug) {
+			Vector2 pos = canvas.relativeVector(canvas.getWidth() * 0.02f,
+					canvas.getHeight() * 0.1f);
+			af.displayFont.getData().setScale(zoom / 3, zoom / 3);
+			canvas.drawText("drawn " + culler.getDrawn() + "  culled "
+					+ culler.getCulled(), af.displayFont, pos.x, pos.y);
+		}
 		canvas.end();
 		if (debug) {
 			canvas.beginDebug(1, 1);
 			for (Obstacle obj : objects) {
-				obj.drawDebug(canvas);
+				if (obj == avatar || culler.isVisible(obj)) {
+					obj.drawDebug(canvas);
+				}
 			}
 			aiController.drawDebug(canvas, scale, npcs);
 			canvas.endDebug();
 		}
 
-		// Final message
-		if (isComplete() && !isFailure()) {
-			avatar.setComplete(true);
-		} else if (avatar.canDrawFail()) {
-			avatar.setComplete(true);
-		}
-
 	}
 
 	@Override
@@ -1614,130 +1763,26 @@ public class AidenController extends WorldController
 		af.madwater.pause();
 	}
 
-	private void createScenes(int level) {
-
-		switch (level) {
-
-		// ======================Tutorials========================//
-		case 0:
-			this.scene = new Scene("json/Tut1.json"); // super easy tutorial
-			backgroundTexture = af.levelBack1;
-			break;
-
-		case 1:
-			this.scene = new Scene("json/Tut2.json"); // spirit mode to the top
-			backgroundTexture = af.levelBack2;
-			break;
-		case 2:
-			this.scene = new Scene("json/Tut3.json"); // spirit mode to the top
-			backgroundTexture = af.levelBack3;
-			break;
-		case 3:
-			this.scene = new Scene("json/Tut4.json"); // spirit mode to the top
-			backgroundTexture = af.levelBack4;
-			break;
-		case 4:
-			this.scene = new Scene("json/Level01.json"); // spirit mode going
-															// down
-
-			backgroundTexture = af.levelBack5;
-			break;
-		case 5:
-			this.scene = new Scene("json/Med2.json"); // stonesss // pretty easy
-			backgroundTexture = af.levelBack6;
-			break;
-		case 6:
-
-			this.scene = new Scene("json/Tutorial2.json"); // Save the block
-			backgroundTexture = af.levelBack7;
-			break;
-		case 7:
-			this.scene = new Scene("json/Tut5.json"); // spirit boost changed
-			backgroundTexture = af.levelBack8;
-			break;
-
-		// ======================Easy========================//
-		case 8:
-			this.scene = new Scene("json/Easy3.json"); // spirit boost with rope
-														// and
-			// water
-			backgroundTexture = af.levelBack9;
-			break;
-		case 9:
-			this.scene = new Scene("json/Tut6.json"); // Introduce ropes
-			backgroundTexture = af.levelBack10;
-			break;
-
-		case 10:
-			this.scene = new Scene("json/Med4.json"); // wooden
-			// boxessssssssssssssssssss
-			backgroundTexture = af.levelBack11;
-			break;
-		case 11:
-			this.scene = new Scene("json/Tut7.json"); // Introduce wooden
-														// platforms
-			backgroundTexture = af.levelBack12;
-			break;
-		case 12:
-			this.scene = new Scene("json/Tut8.json"); // Introduce wooden
-														// trapdoor
-			backgroundTexture = af.levelBack13;
-			break;
-
-		// ======================Medium========================//
-		case 13:
-			this.scene = new Scene("json/Med1.json"); // boxes line on the
-														// bottom
-			backgroundTexture = af.levelBack14;
-			break;
-
-		case 14:
-			this.scene = new Scene("json/Easy4.json");
-			backgroundTexture = af.levelBack15;
-			break;
-
-		/*
-		 * case 14: this.scene = new Scene("Med3.json"); // vertical // add more
-		 * fuel // and move the rope backgroundTexture = af.backGround; break;
-		 */
-
-		/*
-		 * case 13: this.scene = new Scene("Level2.json"); // L
-		 * backgroundTexture = af.backGround; break;
-		 */
-
-		// ======================Hard========================//
-
-		case 15:
-			this.scene = new Scene("json/level2.json");
-			backgroundTexture = af.levelBack16;
-			break;
-		case 16:
-			this.scene = new Scene("json/level3.json");
-			backgroundTexture = af.levelBack17;
-			break;
-		case 17:
-			this.scene = new Scene("json/Med3.json");
-			backgroundTexture = af.levelBack18;
-			break;
-		case 18:
-			this.scene = new Scene("json/Hard1.json"); // square
-			backgroundTexture = af.levelBack19;
-			break;
-		case 19:
-			this.scene = new Scene("json/Hard2b.json");
-			backgroundTexture = af.levelBack20;
-			break;
-		case 20:
-			this.scene = new Scene("json/Hard2b.json");
-			backgroundTexture = af.backGround;
-			break;
-
-		default:
-			this.scene = new Scene("json/Hard1.json");
-			backgroundTexture = af.backGround;
-			break;
+	/**
+	 * Dispose of all (non-static) resources allocated to this mode.
+	 *
+	 * The particle effects go back to the registry for the next level.
+	 */
+	public void dispose() {
+		if (scene != null) {
+			scene.releaseCharacters();
 		}
+		ParticleRegistry.getInstance().free(confeti);
+		confeti = null;
+		super.dispose();
+	}
 
+	private void createScenes(int level) {
+		if (scene != null) {
+			scene.releaseCharacters();
+		}
+		this.scene = new Scene(levelFile != null ? levelFile
+				: LevelManifest.levelFile(level));
+		backgroundTexture = af.getBackground(level);
 	}
 }
@@ -1,42 +1,248 @@
 package edu.cornell.gdiac.physics;
 
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BinaryHeap;
+import com.badlogic.gdx.utils.ObjectMap;
 
 import edu.cornell.gdiac.physics.blocks.BurnablePlatform.FlamePlatform;
 import edu.cornell.gdiac.physics.blocks.FlammableBlock;
 import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.physics.scene.AssetFile;
 import edu.cornell.gdiac.util.PooledList;
 
 /**
- * Due to AidenController (previously platformController) integrates collision
- * controller and it's hard to single it out, I implemented the burning
- * controller code inside Update() and beginContact(). AidenModel is modified
- * with simple fuel system.
- * 
- * Also I have modified FlammableBlock's UpdateBurningState() to take in float
- * since counting with frame rates are less reliable than with time.
- * 
- * FlammaBlocks should probably override the draw() method in simpleObstacles or
- * load different texture when burning
+ * Event driven fire propagation.
+ *
+ * The controller keeps a graph of which flammables are touching, updated from
+ * beginContact() and endContact(), and a queue of the moments burning blocks
+ * start to spread or burn out, read off their Flammable timers. Each frame
+ * only the blocks whose deadline has come up are looked at, instead of every
+ * contact and every flammable in the level.
+ *
+ * The timers themselves are still the truth: when a deadline comes up early
+ * or late (the timers are advanced by update(), not by this clock) the event
+ * is rescheduled from the time actually left.
  */
 
 public class BurnController {
-	public void getBurning(PooledList<FlammableBlock> flammables,
-			PooledList<Obstacle> objects, float dt, World world) {
-		// update flammable objects;
-		for (FlammableBlock fb : flammables) {
-			fb.update(dt);
-			if (fb.isBurnt()) {
-				flammables.remove(fb);
-				fb.markRemoved(true);
-				if (fb instanceof FlamePlatform) {
-					objects.remove(((FlamePlatform) fb).getBP());
-					((FlamePlatform) fb).getBP().deactivatePhysics(world);
+	/** Shortest delay before a rescheduled event, so it waits a frame */
+	private static final float MIN_DELAY = 1 / 120.0f;
+
+	/** Flammables touching each flammable, one entry per touching contact */
+	private ObjectMap<FlammableBlock, Fire> fires = new ObjectMap<FlammableBlock, Fire>();
+	/** Spread and burn out deadlines, earliest first */
+	private BinaryHeap<Event> deadlines = new BinaryHeap<Event>();
+	/** Blocks touched by a spreading block since the last update */
+	private Array<FlammableBlock> pending = new Array<FlammableBlock>();
+	/** Time since the level started */
+	private float clock = 0;
+	/** Blocks on fire, the only ones ticked each frame */
+	private Array<Fire> lit = new Array<Fire>();
+
+	/** Graph node and queued events of a single flammable */
+	private static class Fire {
+		FlammableBlock block;
+		Array<FlammableBlock> touching = new Array<FlammableBlock>();
+		/**
+		 * Whether this controller advances the block's fire timers on top of
+		 * WorldController (true for the level's flammables list), in which
+		 * case they run twice as fast as the clock. Only the fire timers: the
+		 * block's animation is ticked once a frame, by WorldController
+		 */
+		boolean owned = false;
+		boolean lit = false;
+		Event spread = new Event(this, false);
+		Event burnt = new Event(this, true);
+
+		Fire(FlammableBlock block) {
+			this.block = block;
+		}
+
+		float getRate() {
+			return owned ? 2 : 1;
+		}
+	}
+
+	private static class Event extends BinaryHeap.Node {
+		Fire fire;
+		boolean burnt;
+		boolean queued = false;
+
+		Event(Fire fire, boolean burnt) {
+			super(0);
+			this.fire = fire;
+			this.burnt = burnt;
+		}
+	}
+
+	/** Forget every block, for a level reset */
+	public void clear() {
+		fires.clear();
+		deadlines.clear();
+		pending.clear();
+		lit.clear();
+		clock = 0;
+	}
+
+	/**
+	 * Track a block from the level's flammables list. These are advanced and
+	 * removed by this controller when they burn out.
+	 */
+	public void register(FlammableBlock fb) {
+		getFire(fb).owned = true;
+	}
+
+	/** @return whether any tracked block is on fire */
+	public boolean isBurning() {
+		return lit.size > 0;
+	}
+
+	private Fire getFire(FlammableBlock fb) {
+		Fire f = fires.get(fb);
+		if (f == null) {
+			f = new Fire(fb);
+			fires.put(fb, f);
+		}
+		return f;
+	}
+
+	/** Link two touching flammables; called from beginContact */
+	public void beginContact(Object bd1, Object bd2) {
+		if (!(bd1 instanceof FlammableBlock) || !(bd2 instanceof FlammableBlock)) {
+			return;
+		}
+		FlammableBlock fb1 = (FlammableBlock) bd1;
+		FlammableBlock fb2 = (FlammableBlock) bd2;
+		getFire(fb1).touching.add(fb2);
+		getFire(fb2).touching.add(fb1);
+		// Bodies cannot change during the step, so ignite on the next update
+		if (fb1.canSpreadFire()) {
+			pending.add(fb2);
+		} else if (fb2.canSpreadFire()) {
+			pending.add(fb1);
+		}
+	}
+
+	/** Unlink two flammables that stopped touching; called from endContact */
+	public void endContact(Object bd1, Object bd2) {
+		if (!(bd1 instanceof FlammableBlock) || !(bd2 instanceof FlammableBlock)) {
+			return;
+		}
+		Fire f1 = fires.get((FlammableBlock) bd1);
+		Fire f2 = fires.get((FlammableBlock) bd2);
+		if (f1 != null) {
+			f1.touching.removeValue((FlammableBlock) bd2, true);
+		}
+		if (f2 != null) {
+			f2.touching.removeValue((FlammableBlock) bd1, true);
+		}
+	}
+
+	/**
+	 * Set a block on fire and schedule its spread and burn out.
+	 *
+	 * @return whether the block caught fire
+	 */
+	public boolean ignite(FlammableBlock fb) {
+		if (fb.isBurning() || fb.isBurnt()) {
+			return false;
+		}
+		fb.activateBurnTimer();
+		Fire f = getFire(fb);
+		if (!f.lit) {
+			f.lit = true;
+			lit.add(f);
+		}
+		schedule(f.spread, fb.getSpreadTime() / f.getRate());
+		schedule(f.burnt, fb.getBurnTime() / f.getRate());
+		return true;
+	}
+
+	private void schedule(Event e, float delay) {
+		if (e.queued) {
+			deadlines.remove(e);
+		}
+		deadlines.add(e, clock + Math.max(delay, MIN_DELAY));
+		e.queued = true;
+	}
+
+	/**
+	 * Advance the fires by one frame: tick the blocks on fire, ignite blocks
+	 * touched by a spreading one, and handle the deadlines that came up.
+	 */
+	public void update(PooledList<FlammableBlock> flammables,
+			PooledList<Obstacle> objects, float dt, World world, AssetFile af) {
+		clock += dt;
+		for (int ii = 0; ii < lit.size; ii++) {
+			if (lit.get(ii).owned) {
+				lit.get(ii).block.updateBurningState(dt);
+			}
+		}
+
+		for (int ii = 0; ii < pending.size; ii++) {
+			if (ignite(pending.get(ii))) {
+				af.match.play();
+			}
+		}
+		pending.clear();
+
+		while (deadlines.size > 0 && deadlines.peek().getValue() <= clock) {
+			Event e = deadlines.pop();
+			e.queued = false;
+			Fire f = e.fire;
+			FlammableBlock fb = f.block;
+			if (fires.get(fb) != f) {
+				continue;
+			}
+			if (e.burnt) {
+				if (!fb.isBurnt()) {
+					schedule(e, fb.getBurnTime() / f.getRate());
 				} else {
-					objects.remove(fb);
-					fb.deactivatePhysics(world);
+					burnOut(f, flammables, objects, world);
+				}
+			} else if (fb.isBurning()) {
+				if (!fb.canSpreadFire()) {
+					schedule(e, fb.getSpreadTime() / f.getRate());
+				} else {
+					for (int ii = 0; ii < f.touching.size; ii++) {
+						if (ignite(f.touching.get(ii))) {
+							af.match.play();
+						}
+					}
 				}
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	/** Drop a burnt block from the graph, and from the level if we own it */
+	private void burnOut(Fire f, PooledList<FlammableBlock> flammables,
+			PooledList<Obstacle> objects, World world) {
+		FlammableBlock fb = f.block;
+		for (int ii = 0; ii < f.touching.size; ii++) {
+			Fire other = fires.get(f.touching.get(ii));
+			if (other != null) {
+				while (other.touching.removeValue(fb, true));
+			}
+		}
+		if (f.spread.queued) {
+			deadlines.remove(f.spread);
+			f.spread.queued = false;
+		}
+		fires.remove(fb);
+		lit.removeValue(f, true);
+		if (!f.owned) {
+			// Ropes and trap doors destroy their own parts
+			return;
+		}
+		flammables.remove(fb);
+		fb.markRemoved(true);
+		if (fb instanceof FlamePlatform) {
+			objects.remove(((FlamePlatform) fb).getBP());
+			((FlamePlatform) fb).getBP().deactivatePhysics(world);
+		} else {
+			objects.remove(fb);
+			fb.deactivatePhysics(world);
+		}
+	}
+}
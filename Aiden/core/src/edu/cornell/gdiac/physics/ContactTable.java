@@ -0,0 +1,280 @@
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.Filter;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.Joint;
+
+import edu.cornell.gdiac.physics.blocks.BurnablePlatform.FlamePlatform;
+import edu.cornell.gdiac.physics.blocks.FlammableBlock;
+import edu.cornell.gdiac.physics.blocks.FuelBlock;
+import edu.cornell.gdiac.physics.blocks.GoalDoor;
+import edu.cornell.gdiac.physics.blocks.Platform;
+import edu.cornell.gdiac.physics.blocks.RopePart;
+import edu.cornell.gdiac.physics.blocks.StoneBlock;
+import edu.cornell.gdiac.physics.blocks.WaterPlatform;
+import edu.cornell.gdiac.physics.character.AidenModel;
+import edu.cornell.gdiac.physics.character.CharacterModel;
+import edu.cornell.gdiac.physics.obstacle.ComplexObstacle;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.physics.obstacle.SimpleObstacle;
+import edu.cornell.gdiac.physics.obstacle.WheelObstacle;
+
+/**
+ * Contact callbacks dispatched by collision category.
+ *
+ * Every obstacle is given a single category bit when it is added to the
+ * world (the categoryBits of its filter). Handlers are registered for pairs
+ * of categories, and each contact callback looks its pair up in a table
+ * instead of testing the bodies with instanceof. Pairs that never interact
+ * are removed from the filter masks, so Box2D does not make contacts for
+ * them at all.
+ *
+ * Sensor fixtures keep the default filter (DEFAULT, colliding with
+ * everything), so ground and top sensors still see every obstacle.
+ */
+public class ContactTable {
+	public static final short DEFAULT = 0x0001;
+	public static final short AIDEN = 0x0002;
+	public static final short NPC = 0x0004;
+	/** Any other flammable block, such as wood boxes and trap door ropes */
+	public static final short WOOD = 0x0008;
+	public static final short FUEL = 0x0010;
+	public static final short ROPE = 0x0020;
+	public static final short FLAME_PLATFORM = 0x0040;
+	public static final short STONE = 0x0080;
+	public static final short PLATFORM = 0x0100;
+	public static final short WATER = 0x0200;
+	public static final short GOAL = 0x0400;
+	public static final short WHEEL = 0x0800;
+
+	public static final short ALL = -1;
+	public static final short FLAMMABLE = WOOD | FUEL | ROPE | FLAME_PLATFORM;
+	/** Everything that is a StoneBlock (platforms and the goal are too) */
+	public static final short STONES = STONE | PLATFORM | WATER | GOAL;
+	public static final short BLOCKS = FLAMMABLE | STONES;
+	public static final short CHARACTERS = AIDEN | NPC;
+
+	/**
+	 * Callbacks for a pair of categories. A is always the object of the
+	 * first category the handler was registered with.
+	 */
+	public static abstract class Handler {
+		public void beginContact(Contact contact, Fixture fixA, Obstacle bdA,
+				Fixture fixB, Obstacle bdB) {
+		}
+
+		public void endContact(Contact contact, Fixture fixA, Obstacle bdA,
+				Fixture fixB, Obstacle bdB) {
+		}
+
+		public void preSolve(Contact contact, Fixture fixA, Obstacle bdA,
+				Fixture fixB, Obstacle bdB) {
+		}
+
+		public void postSolve(Contact contact, Fixture fixA, Obstacle bdA,
+				Fixture fixB, Obstacle bdB) {
+		}
+	}
+
+	private static class Entry {
+		Handler handler;
+		/** Whether the contact's bodies are in the opposite order */
+		boolean swap;
+
+		Entry(Handler handler, boolean swap) {
+			this.handler = handler;
+			this.swap = swap;
+		}
+	}
+
+	private static final int BITS = 16;
+	private static final int BEGIN = 0, END = 1, PRE = 2, POST = 3;
+
+	/** Handlers for each pair of category bits, null if there are none */
+	private Entry[][] table = new Entry[BITS * BITS][];
+	/** Filter mask for each category bit */
+	private short[] masks = new short[BITS];
+	private Filter filter = new Filter();
+
+	public ContactTable() {
+		for (int ii = 0; ii < BITS; ii++) {
+			masks[ii] = ALL;
+		}
+	}
+
+	private static int bit(short category) {
+		return Integer.numberOfTrailingZeros(category & 0xFFFF);
+	}
+
+	/**
+	 * Call handler for every contact between an object of a category in
+	 * catsA and one in catsB.
+	 */
+	public void register(int catsA, int catsB, Handler handler) {
+		for (int ii = 0; ii < BITS; ii++) {
+			if ((catsA & (1 << ii)) == 0) {
+				continue;
+			}
+			for (int jj = 0; jj < BITS; jj++) {
+				if ((catsB & (1 << jj)) == 0) {
+					continue;
+				}
+				if (!contains(ii, jj, handler)) {
+					add(ii, jj, new Entry(handler, false));
+					if (ii != jj) {
+						add(jj, ii, new Entry(handler, true));
+					}
+				}
+			}
+		}
+	}
+
+	private boolean contains(int ii, int jj, Handler handler) {
+		Entry[] entries = table[ii * BITS + jj];
+		if (entries == null) {
+			return false;
+		}
+		for (Entry e : entries) {
+			if (e.handler == handler) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void add(int ii, int jj, Entry entry) {
+		Entry[] old = table[ii * BITS + jj];
+		int n = old == null ? 0 : old.length;
+		Entry[] entries = new Entry[n + 1];
+		if (old != null) {
+			System.arraycopy(old, 0, entries, 0, n);
+		}
+		entries[n] = entry;
+		table[ii * BITS + jj] = entries;
+	}
+
+	/**
+	 * Never make contacts between categories in catsA and those in catsB.
+	 * This only affects objects categorized afterwards.
+	 */
+	public void ignore(int catsA, int catsB) {
+		for (int ii = 0; ii < BITS; ii++) {
+			if ((catsA & (1 << ii)) != 0) {
+				masks[ii] &= ~catsB;
+			}
+			if ((catsB & (1 << ii)) != 0) {
+				masks[ii] &= ~catsA;
+			}
+		}
+	}
+
+	/** @return the category of an obstacle, decided from its type */
+	public static short categoryOf(Obstacle obj) {
+		if (obj instanceof AidenModel) return AIDEN;
+		if (obj instanceof CharacterModel) return NPC;
+		if (obj instanceof FuelBlock) return FUEL;
+		if (obj instanceof RopePart) return ROPE;
+		if (obj instanceof FlamePlatform) return FLAME_PLATFORM;
+		if (obj instanceof FlammableBlock) return WOOD;
+		if (obj instanceof GoalDoor) return GOAL;
+		if (obj instanceof WaterPlatform) return WATER;
+		if (obj instanceof Platform) return PLATFORM;
+		if (obj instanceof StoneBlock) return STONE;
+		if (obj instanceof WheelObstacle) return WHEEL;
+		return DEFAULT;
+	}
+
+	/**
+	 * Set the filter of an obstacle (and of the parts of a complex one) from
+	 * its category. Call this before the obstacle makes its fixtures, so
+	 * sensors made afterwards keep the default filter.
+	 */
+	public void categorize(Obstacle obj) {
+		if (obj instanceof ComplexObstacle) {
+			for (Obstacle part : ((ComplexObstacle) obj).getBodies()) {
+				categorize(part);
+			}
+			return;
+		}
+		short category = categoryOf(obj);
+		filter.categoryBits = category;
+		filter.maskBits = masks[bit(category)];
+		filter.groupIndex = 0;
+		obj.setFilterData(filter);
+	}
+
+	/**
+	 * Categorize the anchors a complex obstacle makes with its joints, which
+	 * are not among its bodies. Call this after the obstacle is activated.
+	 */
+	public void categorizeAnchors(ComplexObstacle obj) {
+		for (Joint joint : obj.getJoints()) {
+			Object a = joint.getBodyA().getUserData();
+			Object b = joint.getBodyB().getUserData();
+			if (a instanceof WheelObstacle) {
+				categorize((SimpleObstacle) a);
+			}
+			if (b instanceof WheelObstacle) {
+				categorize((SimpleObstacle) b);
+			}
+		}
+	}
+
+	public void beginContact(Contact contact) {
+		dispatch(contact, BEGIN);
+	}
+
+	public void endContact(Contact contact) {
+		dispatch(contact, END);
+	}
+
+	public void preSolve(Contact contact) {
+		dispatch(contact, PRE);
+	}
+
+	public void postSolve(Contact contact) {
+		dispatch(contact, POST);
+	}
+
+	private void dispatch(Contact contact, int type) {
+		Fixture fix1 = contact.getFixtureA();
+		Fixture fix2 = contact.getFixtureB();
+		Object ud1 = fix1.getBody().getUserData();
+		Object ud2 = fix2.getBody().getUserData();
+		if (!(ud1 instanceof Obstacle) || !(ud2 instanceof Obstacle)) {
+			return;
+		}
+		Obstacle bd1 = (Obstacle) ud1;
+		Obstacle bd2 = (Obstacle) ud2;
+		Entry[] entries = table[bit(bd1.getCategory()) * BITS + bit(bd2.getCategory())];
+		if (entries == null) {
+			return;
+		}
+		for (Entry e : entries) {
+			if (e.swap) {
+				call(e.handler, type, contact, fix2, bd2, fix1, bd1);
+			} else {
+				call(e.handler, type, contact, fix1, bd1, fix2, bd2);
+			}
+		}
+	}
+
+	private static void call(Handler h, int type, Contact contact,
+			Fixture fixA, Obstacle bdA, Fixture fixB, Obstacle bdB) {
+		switch (type) {
+		case BEGIN:
+			h.beginContact(contact, fixA, bdA, fixB, bdB);
+			break;
+		case END:
+			h.endContact(contact, fixA, bdA, fixB, bdB);
+			break;
+		case PRE:
+			h.preSolve(contact, fixA, bdA, fixB, bdB);
+			break;
+		default:
+			h.postSolve(contact, fixA, bdA, fixB, bdB);
+			break;
+		}
+	}
+}
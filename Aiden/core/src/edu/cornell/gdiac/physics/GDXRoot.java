@@ -25,10 +25,11 @@ import com.badlogic.gdx.audio.Sound;
 
 import edu.cornell.gdiac.util.*;
 import edu.cornell.gdiac.physics.WorldController.AssetState;
-import edu.cornell.gdiac.physics.editor.LevelEditor;
 import edu.cornell.gdiac.physics.scene.AssetFile;
+import edu.cornell.gdiac.physics.scene.AssetStreamer;
 import edu.cornell.gdiac.physics.scene.GameSave;
 import edu.cornell.gdiac.physics.scene.JSONParser;
+import edu.cornell.gdiac.physics.scene.ParticleRegistry;
 import edu.cornell.gdiac.physics.scene.Scene;
 
 /**
@@ -53,8 +54,8 @@ public class GDXRoot extends Game implements ScreenListener {
 	/** Current scene for level */
 	private int currentS;
 
-	/** List of all WorldControllers */
-	private WorldController[] controllers;
+	/** The WorldControllers, built as their levels are entered */
+	private LevelRegistry controllers;
 	/** List of scene objects */
 	// private Scene[] scenes;
 	/** A parser for JSON files */
@@ -65,6 +66,12 @@ public class GDXRoot extends Game implements ScreenListener {
 	protected Array<String> assets;
 	/** Where all the assets are stored */
 	private AssetFile af = new AssetFile();
+	/** Loads each level's own assets as it is reached */
+	private AssetStreamer streamer;
+	/** Input log to record the first level played to, or null */
+	private String recordFile;
+	/** Input log to replay in place of the player, or null */
+	private String replayFile;
 
 	/** The texture for walls and platforms */
 	protected TextureRegion earthTile;
@@ -125,6 +132,46 @@ public class GDXRoot extends Game implements ScreenListener {
 				new FreeTypeFontGeneratorLoader(resolver));
 		manager.setLoader(BitmapFont.class, ".ttf",
 				new FreetypeFontLoader(resolver));
+		streamer = new AssetStreamer(manager, af);
+
+		// The game worlds are built as they are entered (the last is the editor)
+		int levels = 21;
+		controllers = new LevelRegistry(levels, LevelRegistry.DEFAULT_WARM);
+	}
+
+	/**
+	 * Records the input of the first level played to a log (see InputRecorder).
+	 *
+	 * The log ends when the player leaves the level.
+	 *
+	 * @param file
+	 *            the log file, relative to the local storage directory
+	 */
+	public void setRecordFile(String file) {
+		recordFile = file;
+	}
+
+	/**
+	 * Replays a log in place of the player (see InputReplayer).
+	 *
+	 * Whatever level is picked on the loading screen, the level of the log is
+	 * played, from the checkpoint the log started at. The player takes over
+	 * when the log runs out. A replaying game never saves its progress.
+	 *
+	 * @param file
+	 *            the log file, relative to the local storage directory
+	 */
+	public void setReplayFile(String file) {
+		replayFile = file;
+	}
+
+	/**
+	 * Returns the assets, filled in by loadContent
+	 *
+	 * @return the assets
+	 */
+	public AssetFile getAssetFile() {
+		return af;
 	}
 
 	/**
@@ -144,13 +191,16 @@ public class GDXRoot extends Game implements ScreenListener {
 		}
 
 		worldAssetState = AssetState.LOADING;
+		// Load the packed atlases first, so their textures are not loaded again
+		af.loadAtlases(manager);
+		if (af.isAtlased()) {
+			assets.add(af.get("SPRITE_ATLAS"));
+			assets.add(af.get("UI_ATLAS"));
+		}
 		// Load the shared tiles.
-		manager.load(af.get("EARTH_FILE"), Texture.class);
-		assets.add(af.get("EARTH_FILE"));
-		manager.load(af.get("GOAL_FILE"), Texture.class);
-		assets.add(af.get("GOAL_FILE"));
-		manager.load(af.get("BURNP_FILE"), Texture.class);
-		assets.add(af.get("BURNP_FILE"));
+		loadTexture(manager, "EARTH_FILE");
+		loadTexture(manager, "GOAL_FILE");
+		loadTexture(manager, "BURNP_FILE");
 
 		// Load the font
 		FreetypeFontLoader.FreeTypeFontLoaderParameter size2Params = new FreetypeFontLoader.FreeTypeFontLoaderParameter();
@@ -163,164 +213,67 @@ public class GDXRoot extends Game implements ScreenListener {
 		manager.load(af.get("FONT_FILE"), BitmapFont.class, size2Params);
 		assets.add(af.get("FONT_FILE"));
 		assets.add(af.get("FUEL_FONT"));
-		manager.load(af.get("DUDE_FILE"), Texture.class);
-		assets.add(af.get("DUDE_FILE"));
-		manager.load(af.get("BARRIER_FILE"), Texture.class);
-		assets.add(af.get("BARRIER_FILE"));
-		manager.load(af.get("BULLET_FILE"), Texture.class);
-		assets.add(af.get("BULLET_FILE"));
-		manager.load(af.get("WOOD_FILE"), Texture.class);
-		assets.add(af.get("WOOD_FILE"));
-		manager.load(af.get("FUEL_FILE"), Texture.class);
-		assets.add(af.get("FUEL_FILE"));
-		manager.load(af.get("ROPE_FILE"), Texture.class);
-		assets.add(af.get("ROPE_FILE"));
-		manager.load(af.get("BACKGROUND"), Texture.class);
-		assets.add(af.get("BACKGROUND"));
-		manager.load(af.get("BACKGROUND0"), Texture.class);
-		assets.add(af.get("BACKGROUND0"));
-		manager.load(af.get("WATER_FILE"), Texture.class);
-		assets.add(af.get("WATER_FILE"));
-		manager.load(af.get("STONE_FILE"), Texture.class);
-		assets.add(af.get("STONE_FILE"));
-		manager.load(af.get("AIDEN_ANIME_FILE"), Texture.class);
-		assets.add(af.get("AIDEN_ANIME_FILE"));
-		manager.load(af.get("AIDEN_DIE_FILE"), Texture.class);
-		assets.add(af.get("AIDEN_DIE_FILE"));
-		manager.load(af.get("WATER_DIE_FILE"), Texture.class);
-		assets.add(af.get("WATER_DIE_FILE"));
-		manager.load(af.get("WATER_WALK"), Texture.class);
-		assets.add(af.get("WATER_WALK"));
-		manager.load(af.get("BURNING_FILE"), Texture.class);
-		assets.add(af.get("BURNING_FILE"));
-		manager.load(af.get("AIDEN_JUMP_FILE"), Texture.class);
-		assets.add(af.get("AIDEN_JUMP_FILE"));
-		manager.load(af.get("EDITOR_PANEL_FILE"), Texture.class);
-		assets.add(af.get("EDITOR_PANEL_FILE"));
-		manager.load(af.get("ROPE_LONG_FILE"), Texture.class);
-		assets.add(af.get("ROPE_LONG_FILE"));
-		manager.load(af.get("TRAPDOOR_FILE"), Texture.class);
-		assets.add(af.get("TRAPDOOR_FILE"));
-		manager.load(af.get("NAIL_FILE"), Texture.class);
-		assets.add(af.get("NAIL_FILE"));
-		manager.load(af.get("MENU_BACK"), Texture.class);
-		assets.add(af.get("MENU_BACK"));
-		manager.load(af.get("BLACK"), Texture.class);
-		assets.add(af.get("BLACK"));
-		manager.load(af.get("TRAP_DOOR"), Texture.class);
-		assets.add(af.get("TRAP_DOOR"));
-		manager.load(af.get("LONG_ROPE"), Texture.class);
-		assets.add(af.get("LONG_ROPE"));
-		manager.load(af.get("HOME_BUTTON"), Texture.class);
-		assets.add(af.get("HOME_BUTTON"));
-		manager.load(af.get("RESUME_BUTTON"), Texture.class);
-		assets.add(af.get("RESUME_BUTTON"));
-		manager.load(af.get("RESTART_BUTTON"), Texture.class);
-		assets.add(af.get("RESTART_BUTTON"));
-		manager.load(af.get("BAR_OUTTER"), Texture.class);
-		assets.add(af.get("BAR_OUTTER"));
-		manager.load(af.get("BAR_INNER"), Texture.class);
-		assets.add(af.get("BAR_INNER"));
-		manager.load(af.get("AIDEN_RUN"), Texture.class);
-		assets.add(af.get("AIDEN_RUN"));
-		manager.load(af.get("AIDEN_IDLE"), Texture.class);
-		assets.add(af.get("AIDEN_IDLE"));
-		manager.load(af.get("PAUSED"), Texture.class);
-		assets.add(af.get("PAUSED"));
-		manager.load(af.get("MUSIC"), Texture.class);
-		assets.add(af.get("MUSIC"));
-		manager.load(af.get("SOUND"), Texture.class);
-		assets.add(af.get("SOUND"));
-		manager.load(af.get("SOUND_NO"), Texture.class);
-		assets.add(af.get("SOUND_NO"));
-		manager.load(af.get("MUSIC_NO"), Texture.class);
-		assets.add(af.get("MUSIC_NO"));
-		manager.load(af.get("WATER_CHASE"), Texture.class);
-		assets.add(af.get("WATER_CHASE"));
-		manager.load(af.get("BAR_LOW"), Texture.class);
-		assets.add(af.get("BAR_LOW"));
-		manager.load(af.get("BAR_BACK"), Texture.class);
-		assets.add(af.get("BAR_BACK"));
-		manager.load(af.get("FIRE_BALL"), Texture.class);
-		assets.add(af.get("FIRE_BALL"));
-		manager.load(af.get("AIDEN_SPIRIT"), Texture.class);
-		assets.add(af.get("AIDEN_SPIRIT"));
-		manager.load(af.get("BAR_ICON"), Texture.class);
-		assets.add(af.get("BAR_ICON"));
-		manager.load(af.get("BAR_YELLOW"), Texture.class);
-		assets.add(af.get("BAR_YELLOW"));
-		manager.load(af.get("BAR_GRAY"), Texture.class);
-		assets.add(af.get("BAR_GRAY"));
-		manager.load(af.get("AIDEN_GLOW"), Texture.class);
-		assets.add(af.get("AIDEN_GLOW"));
-		manager.load(af.get("BAR_DIE"), Texture.class);
-		assets.add(af.get("BAR_DIE"));
-		manager.load(af.get("YOU_LOSE"), Texture.class);
-		assets.add(af.get("YOU_LOSE"));
-		manager.load(af.get("GOOD_JOB"), Texture.class);
-		assets.add(af.get("GOOD_JOB"));
-		manager.load(af.get("RETRY"), Texture.class);
-		assets.add(af.get("RETRY"));
-		manager.load(af.get("REPLAY"), Texture.class);
-		assets.add(af.get("REPLAY"));
-		manager.load(af.get("SKIP"), Texture.class);
-		assets.add(af.get("SKIP"));
-		manager.load(af.get("NEXT_LEVEL"), Texture.class);
-		assets.add(af.get("NEXT_LEVEL"));
-		manager.load(af.get("BAR_DIE"), Texture.class);
-		assets.add(af.get("BAR_DIE"));
-		manager.load(af.get("TUT4_BACK"), Texture.class);
-		assets.add(af.get("TUT4_BACK"));
-		manager.load(af.get("TUT1_BACK"), Texture.class);
-		assets.add(af.get("TUT1_BACK"));
-		manager.load(af.get("TUT2_BACK"), Texture.class);
-		assets.add(af.get("TUT2_BACK"));
-		manager.load(af.get("TUT3_BACK"), Texture.class);
-		assets.add(af.get("TUT3_BACK"));
-		manager.load(af.get("LEVEL_S"), Texture.class);
-		assets.add(af.get("LEVEL_S"));
-		manager.load(af.get("RESTART_ICON"), Texture.class);
-		assets.add(af.get("RESTART_ICON"));
-		manager.load(af.get("LEVEL_BACK1"), Texture.class);
-		assets.add(af.get("LEVEL_BACK1"));
-		manager.load(af.get("LEVEL_BACK2"), Texture.class);
-		assets.add(af.get("LEVEL_BACK2"));
-		manager.load(af.get("LEVEL_BACK3"), Texture.class);
-		assets.add(af.get("LEVEL_BACK3"));
-		manager.load(af.get("LEVEL_BACK4"), Texture.class);
-		assets.add(af.get("LEVEL_BACK4"));
-		manager.load(af.get("LEVEL_BACK5"), Texture.class);
-		assets.add(af.get("LEVEL_BACK5"));
-		manager.load(af.get("LEVEL_BACK6"), Texture.class);
-		assets.add(af.get("LEVEL_BACK6"));
-		manager.load(af.get("LEVEL_BACK7"), Texture.class);
-		assets.add(af.get("LEVEL_BACK7"));
-		manager.load(af.get("LEVEL_BACK8"), Texture.class);
-		assets.add(af.get("LEVEL_BACK8"));
-		manager.load(af.get("LEVEL_BACK9"), Texture.class);
-		assets.add(af.get("LEVEL_BACK9"));
-		manager.load(af.get("LEVEL_BACK10"), Texture.class);
-		assets.add(af.get("LEVEL_BACK10"));
-		manager.load(af.get("LEVEL_BACK11"), Texture.class);
-		assets.add(af.get("LEVEL_BACK11"));
-		manager.load(af.get("LEVEL_BACK12"), Texture.class);
-		assets.add(af.get("LEVEL_BACK12"));
-		manager.load(af.get("LEVEL_BACK13"), Texture.class);
-		assets.add(af.get("LEVEL_BACK13"));
-		manager.load(af.get("LEVEL_BACK14"), Texture.class);
-		assets.add(af.get("LEVEL_BACK14"));
-		manager.load(af.get("LEVEL_BACK15"), Texture.class);
-		assets.add(af.get("LEVEL_BACK15"));
-		manager.load(af.get("LEVEL_BACK16"), Texture.class);
-		assets.add(af.get("LEVEL_BACK16"));
-		manager.load(af.get("LEVEL_BACK17"), Texture.class);
-		assets.add(af.get("LEVEL_BACK17"));
-		manager.load(af.get("LEVEL_BACK18"), Texture.class);
-		assets.add(af.get("LEVEL_BACK18"));
-		manager.load(af.get("LEVEL_BACK19"), Texture.class);
-		assets.add(af.get("LEVEL_BACK19"));
-		manager.load(af.get("LEVEL_BACK20"), Texture.class);
-		assets.add(af.get("LEVEL_BACK20"));
+		loadTexture(manager, "DUDE_FILE");
+		loadTexture(manager, "BARRIER_FILE");
+		loadTexture(manager, "BULLET_FILE");
+		loadTexture(manager, "WOOD_FILE");
+		loadTexture(manager, "FUEL_FILE");
+		loadTexture(manager, "ROPE_FILE");
+		loadTexture(manager, "BACKGROUND");
+		loadTexture(manager, "BACKGROUND0");
+		loadTexture(manager, "WATER_FILE");
+		loadTexture(manager, "STONE_FILE");
+		loadTexture(manager, "AIDEN_ANIME_FILE");
+		loadTexture(manager, "AIDEN_DIE_FILE");
+		loadTexture(manager, "WATER_DIE_FILE");
+		loadTexture(manager, "WATER_WALK");
+		loadTexture(manager, "BURNING_FILE");
+		loadTexture(manager, "AIDEN_JUMP_FILE");
+		loadTexture(manager, "EDITOR_PANEL_FILE");
+		loadTexture(manager, "ROPE_LONG_FILE");
+		loadTexture(manager, "TRAPDOOR_FILE");
+		loadTexture(manager, "NAIL_FILE");
+		loadTexture(manager, "MENU_BACK");
+		loadTexture(manager, "BLACK");
+		loadTexture(manager, "TRAP_DOOR");
+		loadTexture(manager, "LONG_ROPE");
+		loadTexture(manager, "HOME_BUTTON");
+		loadTexture(manager, "RESUME_BUTTON");
+		loadTexture(manager, "RESTART_BUTTON");
+		loadTexture(manager, "BAR_OUTTER");
+		loadTexture(manager, "BAR_INNER");
+		loadTexture(manager, "AIDEN_RUN");
+		loadTexture(manager, "AIDEN_IDLE");
+		loadTexture(manager, "PAUSED");
+		loadTexture(manager, "MUSIC");
+		loadTexture(manager, "SOUND");
+		loadTexture(manager, "SOUND_NO");
+		loadTexture(manager, "MUSIC_NO");
+		loadTexture(manager, "WATER_CHASE");
+		loadTexture(manager, "BAR_LOW");
+		loadTexture(manager, "BAR_BACK");
+		loadTexture(manager, "FIRE_BALL");
+		loadTexture(manager, "AIDEN_SPIRIT");
+		loadTexture(manager, "BAR_ICON");
+		loadTexture(manager, "BAR_YELLOW");
+		loadTexture(manager, "BAR_GRAY");
+		loadTexture(manager, "AIDEN_GLOW");
+		loadTexture(manager, "BAR_DIE");
+		loadTexture(manager, "YOU_LOSE");
+		loadTexture(manager, "GOOD_JOB");
+		loadTexture(manager, "RETRY");
+		loadTexture(manager, "REPLAY");
+		loadTexture(manager, "SKIP");
+		loadTexture(manager, "NEXT_LEVEL");
+		loadTexture(manager, "BAR_DIE");
+		loadTexture(manager, "LEVEL_S");
+		loadTexture(manager, "RESTART_ICON");
+
+		// Particle effects are parsed once, then pooled
+		ParticleRegistry.getInstance().preLoad(manager);
+		for (String effect : ParticleRegistry.EFFECTS) {
+			assets.add(effect);
+		}
 		
 		
 		manager.load(af.get("JUMP_FILE"), Sound.class);
@@ -356,29 +309,32 @@ public class GDXRoot extends Game implements ScreenListener {
 		manager.load(af.get("MADWATER_FILE"), Sound.class);
 		assets.add(af.get("MADWATER_FILE"));
 		
-		manager.load(af.get("WATER"), Texture.class);
-		assets.add(af.get("WATER"));
+		loadTexture(manager, "WATER");
 		
-		manager.load(af.get("CHECKPOINT_FLAG"), Texture.class);
-		assets.add(af.get("CHECKPOINT_FLAG"));
+		loadTexture(manager, "CHECKPOINT_FLAG");
 		
-		manager.load(af.get("CASTLE"), Texture.class);
-		assets.add(af.get("CASTLE"));
-		manager.load(af.get("LIGHT"), Texture.class);
-		assets.add(af.get("LIGHT"));
-		manager.load(af.get("CIRCLE"), Texture.class);
-		assets.add(af.get("CIRCLE"));
-		manager.load(af.get("LEVEL_BACKGROUND"), Texture.class);
-		assets.add(af.get("LEVEL_BACKGROUND"));
-		
-		for (int i=0; i<af.tutorialInstructions.length; i++){
-			manager.load(af.get("TUTORIAL_INST"+i), Texture.class);
-			assets.add(af.get("TUTORIAL_INST"+i));
-		}
+		loadTexture(manager, "CASTLE");
+		loadTexture(manager, "LIGHT");
+		loadTexture(manager, "CIRCLE");
+		loadTexture(manager, "LEVEL_BACKGROUND");
 		
 		for (int i=1; i<=20; i++){
-			manager.load(af.get(String.valueOf(i)), Texture.class);
-			assets.add(af.get(String.valueOf(i)));
+			loadTexture(manager, String.valueOf(i));
+		}
+	}
+
+	/**
+	 * Queues a texture by its AssetFile key, unless it is in a packed atlas.
+	 *
+	 * @param manager
+	 *            Reference to global asset manager.
+	 * @param key
+	 *            The texture key
+	 */
+	private void loadTexture(AssetManager manager, String key) {
+		if (!af.inAtlas(key)) {
+			manager.load(af.get(key), Texture.class);
+			assets.add(af.get(key));
 		}
 	}
 
@@ -460,9 +416,8 @@ public class GDXRoot extends Game implements ScreenListener {
 			return;
 		}
 		af.loadContent(manager);
-		for (WorldController c : controllers) {
-			c.setAssetFile(af);
-		}
+		ParticleRegistry.getInstance().allocate(manager);
+		controllers.setAssetFile(af);
 
 		worldAssetState = AssetState.COMPLETE;
 	}
@@ -482,29 +437,28 @@ public class GDXRoot extends Game implements ScreenListener {
 		preLoadContent(manager);
 		setScreen(loading);
 
-		// Initialize the three game worlds
-
-		int levels = 21;
-		controllers = new WorldController[levels]; ////
 		current = 0;
-		for(int i = 0; i<5; i++){
-			controllers[i] = new TutorialController(i);
+	}
+
+	/**
+	 * Called when the Application should render itself.
+	 *
+	 * While a level plays its victory countdown, the next level is built, so
+	 * advancing to it does not have to create its world first.
+	 */
+	public void render() {
+		super.render();
+		if (getScreen() != loading) {
+			streamer.update(AssetStreamer.DEFAULT_BUDGET);
 		}
-		
-		for(int i=5;i<levels;i++){
-			if (i == 7 || i == 9 || i ==11 || i == 12){
-					controllers[i] = new TutorialController(i);
-				}else{
-					controllers[i] = new AidenController(i);
-				}
-			
+		WorldController c = controllers.peek(current);
+		if (c != null && getScreen() == c && c.isComplete()) {
+			controllers.prewarm((current + 1) % controllers.size());
 		}
-		loading.setScreenListener(this);
-
-		controllers[levels-1] = new LevelEditor();///////
 	}
 
 	public void unloadContent(AssetManager manager) {
+		ParticleRegistry.getInstance().clear();
 		for (String s : assets) {
 			if (manager.isLoaded(s)) {
 				manager.unload(s);
@@ -518,13 +472,15 @@ public class GDXRoot extends Game implements ScreenListener {
 	 * This is preceded by a call to pause().
 	 */
 	public void dispose() {
+		// Saves are written in the background; make sure the last one lands
+		GameSave.flush();
+		InputController.getInstance().stopRecording();
+		Profiler.getInstance().stopTrace();
+
 		// Call dispose on our children
 		setScreen(null);
 		unloadContent(manager);
-		for (int ii = 0; ii < controllers.length; ii++) {
-			// controllers[ii].unloadContent(manager);
-			controllers[ii].dispose();
-		}
+		controllers.dispose();
 
 		canvas.dispose();
 		canvas = null;
@@ -563,45 +519,96 @@ public class GDXRoot extends Game implements ScreenListener {
 	 */
 	public void exitScreen(Screen screen, int exitCode) {
 		canvas.setEditor(false);
+		if (screen != loading) {
+			// An input log covers one level
+			InputController.getInstance().stopRecording();
+			InputController.getInstance().stopReplay();
+		}
 		if (screen == loading) {
 			if(exitCode == 100){
 				Gdx.app.exit();
 			}
-			exitCode = exitCode % controllers.length;
+			exitCode = exitCode % controllers.size();
 			loadContent(manager);
-			for (int ii = 0; ii < controllers.length; ii++) {
-				controllers[ii].setScreenListener(this);
-				controllers[ii].setCanvas(canvas);
-			}
-			controllers[exitCode].reset();
+			controllers.setScreen(this, canvas);
 			current = exitCode;
-			setScreen(controllers[exitCode]);
+			if (replayFile != null) {
+				current = startReplay();
+			} else if (recordFile != null) {
+				startRecording();
+			}
+			enterLevel();
 		} 
 		else if (exitCode == WorldController.EXIT_HOME){
 			af.clap.stop();
-			controllers[current].reset();
+			streamer.require(current);
+			controllers.get(current).reset();
 			loading.pressState = 4;
 			setScreen(loading);
 		}
 		else if (exitCode == WorldController.EXIT_NEXT) {
-			if(controllers[current] instanceof AidenController){
-				((AidenController) controllers[current]).stopSound();
+			if(controllers.get(current) instanceof AidenController){
+				((AidenController) controllers.get(current)).stopSound();
 				af.clap.stop();
 			}
-			current = (current + 1) % controllers.length;
+			current = (current + 1) % controllers.size();
 			System.out.println("start");
-			controllers[current].reset();
+			enterLevel();
 			System.out.println("end");
-			setScreen(controllers[current]);
 		} else if (exitCode == WorldController.EXIT_PREV) {
 			af.clap.stop();
-			current = (current + controllers.length - 1) % controllers.length;
-			controllers[current].reset();
-			setScreen(controllers[current]);
+			current = (current + controllers.size() - 1) % controllers.size();
+			enterLevel();
 		} else if (exitCode == WorldController.EXIT_QUIT) {
 			// We quit the main application
 			Gdx.app.exit();
 		}
 	}
 
+	/** Starts the input log of the level about to be entered */
+	private void startRecording() {
+		GameSave save = new GameSave("savedGame.json");
+		int checkpoint = save.getLevel() == current ? save.getCheckpoint() : -1;
+		InputController.getInstance().startRecording(Gdx.files.local(recordFile),
+				current, checkpoint);
+		recordFile = null;
+	}
+
+	/**
+	 * Opens the replay log, and sets its level up to start where the log did.
+	 *
+	 * @return the level to enter
+	 */
+	private int startReplay() {
+		InputReplayer log = InputController.getInstance().startReplay(
+				Gdx.files.local(replayFile));
+		replayFile = null;
+		int level = log.getLevel() % controllers.size();
+		WorldController c = controllers.get(level);
+		if (c instanceof AidenController) {
+			GameSave save = new GameSave("savedGame.json");
+			save.setPersistent(false);
+			save.setLevel(log.getLevel());
+			save.setCheckpoint(log.getCheckpoint());
+			((AidenController) c).setGameSave(save);
+		}
+		return level;
+	}
+
+	/**
+	 * Starts the current level and shows it.
+	 *
+	 * The level's own assets are loaded first (they are usually prefetched
+	 * already). The next level's are then queued, and those of every other
+	 * level are unloaded.
+	 */
+	private void enterLevel() {
+		int next = (current + 1) % controllers.size();
+		streamer.require(current);
+		streamer.retain(current, next);
+		controllers.get(current).reset();
+		setScreen(controllers.get(current));
+		streamer.prefetch(next);
+	}
+
 }
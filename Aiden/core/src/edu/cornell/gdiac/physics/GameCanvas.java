@@ -656,6 +656,7 @@ public class GameCanvas {
 	 */
 	public void end() {
 		spriteBatch.end();
+		Profiler.getInstance().addDrawCalls(spriteBatch.renderCalls);
 		active = DrawPass.INACTIVE;
 	}
 	
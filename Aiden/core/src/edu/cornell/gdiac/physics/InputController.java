@@ -14,6 +14,7 @@
 package edu.cornell.gdiac.physics;
 
 import com.badlogic.gdx.*;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.*;
 
 import edu.cornell.gdiac.util.*;
@@ -24,6 +25,11 @@ import edu.cornell.gdiac.util.*;
  * This supports both a keyboard and X-Box controller. In previous solutions, we
  * only detected the X-Box controller on start-up. This class allows us to
  * hot-swap in a controller via the new XBox360Controller class.
+ *
+ * The input of each frame can also be recorded to a log (InputRecorder) and
+ * played back from one (InputReplayer) in place of the devices. Frames are
+ * bracketed by beginFrame() and endFrame(), so the log also keeps each
+ * frame's time step.
  */
 public class InputController {
 	// Sensitivity for moving crosshair with gameplay
@@ -66,11 +72,24 @@ public class InputController {
 	/** Whether the debug toggle was pressed. */
 	private boolean debugPressed;
 	private boolean debugPrevious;
+	/** Whether the profiler overlay toggle was pressed. */
+	private boolean profilePressed;
+	private boolean profilePrevious;
+	/** Whether the profiler trace toggle was pressed. */
+	private boolean tracePressed;
+	private boolean tracePrevious;
 	/** Whether the exit button was pressed. */
 	private boolean exitPressed;
 	private boolean exitPrevious;
 	private boolean didPause;
 
+	/** Whether the confirm (enter) key was pressed. */
+	private boolean confirmPressed;
+	/** Whether the camera zoom keys were pressed. */
+	private boolean zoomInPressed;
+	private boolean zoomOutPressed;
+	private boolean backPressed;
+
 	/** Whether spirit mode was toggled */
 	private boolean spiritPressed;
 	private boolean spiritPrevious;
@@ -88,6 +107,13 @@ public class InputController {
 	
 	/** An X-Box controller (if it is connected) */
 	XBox360Controller xbox;
+
+	/** The input of the current frame, as recorded or replayed */
+	private InputFrame frame = new InputFrame();
+	/** Log being written, or null */
+	private InputRecorder recorder;
+	/** Log being played back in place of the devices, or null */
+	private InputReplayer replayer;
 	
 	private boolean hasLeftClicked;
 	private boolean leftClicked;
@@ -260,6 +286,24 @@ public class InputController {
 		return debugPressed && !debugPrevious;
 	}
 
+	/**
+	 * Returns true if the player wants to toggle the profiler overlay.
+	 *
+	 * @return true if the player wants to toggle the profiler overlay.
+	 */
+	public boolean didProfile() {
+		return profilePressed && !profilePrevious;
+	}
+
+	/**
+	 * Returns true if the player wants to start or stop the profiler trace.
+	 *
+	 * @return true if the player wants to start or stop the profiler trace.
+	 */
+	public boolean didTrace() {
+		return tracePressed && !tracePrevious;
+	}
+
 	/**
 	 * Returns true if the exit button was pressed.
 	 *
@@ -283,6 +327,17 @@ public class InputController {
 		return this.didPause && !pausePrevious;
 	}
 
+	/**
+	 * Returns true if the confirm button is held down.
+	 *
+	 * This is a sustained button, used to dismiss tutorial messages.
+	 *
+	 * @return true if the confirm button is held down.
+	 */
+	public boolean didConfirm() {
+		return confirmPressed;
+	}
+
 	/**
 	 * Creates a new input controller
 	 * 
@@ -294,6 +349,111 @@ public class InputController {
 		xbox = new XBox360Controller(0);
 		crosshair = new Vector2();
 		crosscache = new Vector2();
+		mousePos = new Vector2();
+	}
+
+	/**
+	 * Starts a frame, returning the time step to use for it.
+	 *
+	 * When replaying, this moves to the next frame of the log and returns
+	 * the recorded time step; once the log runs out, the devices take over
+	 * again. Otherwise the given time step is returned (and recorded).
+	 *
+	 * @param delta
+	 *            Number of seconds since last animation frame
+	 *
+	 * @return the time step of this frame
+	 */
+	public float beginFrame(float delta) {
+		if (replayer != null) {
+			if (replayer.next(frame)) {
+				return frame.delta;
+			}
+			replayer = null;
+		}
+		frame.delta = delta;
+		frame.buttons = 0;
+		return delta;
+	}
+
+	/**
+	 * Ends a frame, appending it to the log if recording.
+	 */
+	public void endFrame() {
+		if (recorder != null && !recorder.write(frame)) {
+			recorder = null;
+		}
+	}
+
+	/**
+	 * Starts recording every frame to a log, replacing any log being written.
+	 *
+	 * The log keeps the current gameplay seed of RandomController.
+	 *
+	 * @param file
+	 *            the log file (it is truncated first)
+	 * @param level
+	 *            the level being played
+	 * @param checkpoint
+	 *            the checkpoint the level starts from, or -1
+	 */
+	public void startRecording(FileHandle file, int level, int checkpoint) {
+		stopRecording();
+		recorder = new InputRecorder(file, level, checkpoint, RandomController.getSeed());
+	}
+
+	/**
+	 * Stops recording, writing out the rest of the log.
+	 */
+	public void stopRecording() {
+		if (recorder != null) {
+			recorder.close();
+			recorder = null;
+		}
+	}
+
+	/**
+	 * Returns true if frames are being recorded
+	 *
+	 * @return true if frames are being recorded
+	 */
+	public boolean isRecording() {
+		return recorder != null;
+	}
+
+	/**
+	 * Starts feeding the frames of a log in place of the devices.
+	 *
+	 * The log takes over at the next beginFrame(). Its gameplay seed is
+	 * given to RandomController at once, and the level should then be reset
+	 * from the log's level and checkpoint, which restarts the random numbers
+	 * from that seed.
+	 *
+	 * @param file
+	 *            the log file
+	 *
+	 * @return the log, for its level and checkpoint
+	 */
+	public InputReplayer startReplay(FileHandle file) {
+		replayer = new InputReplayer(file);
+		RandomController.setSeed(replayer.getSeed());
+		return replayer;
+	}
+
+	/**
+	 * Stops replaying; the devices take over at the next frame.
+	 */
+	public void stopReplay() {
+		replayer = null;
+	}
+
+	/**
+	 * Returns true if frames of a log are left to replay
+	 *
+	 * @return true if frames of a log are left to replay
+	 */
+	public boolean isReplaying() {
+		return replayer != null && replayer.remaining() > 0;
 	}
 
 	/**
@@ -314,6 +474,8 @@ public class InputController {
 		secondPrevious = secondPressed;
 		resetPrevious = resetPressed;
 		debugPrevious = debugPressed;
+		profilePrevious = profilePressed;
+		tracePrevious = tracePressed;
 		exitPrevious = exitPressed;
 		nextPrevious = nextPressed;
 		prevPrevious = prevPressed;
@@ -328,6 +490,11 @@ public class InputController {
 		this.hasPolyPressed=this.polyPressed;
 		this.hasRemovePressed=this.removePressed;
 		hasLeftClicked=this.leftClicked;
+		// A replayed frame stands in for the devices
+		if (replayer != null) {
+			apply(frame);
+			return;
+		}
 		// Check to see if a GamePad is connected
 		if (xbox.isConnected()) {
 			readGamepad(bounds, scale);
@@ -335,6 +502,76 @@ public class InputController {
 		} else {
 			readKeyboard(bounds, scale, false);
 		}
+		if (recorder != null) {
+			capture(frame);
+		}
+	}
+
+	/** Copies what was just read from the devices into a frame */
+	private void capture(InputFrame f) {
+		f.buttons = InputFrame.POLLED;
+		f.set(InputFrame.RESET, resetPressed);
+		f.set(InputFrame.DEBUG, debugPressed);
+		f.set(InputFrame.PROFILE, profilePressed);
+		f.set(InputFrame.TRACE, tracePressed);
+		f.set(InputFrame.PRIMARY, primePressed);
+		f.set(InputFrame.SECONDARY, secondPressed);
+		f.set(InputFrame.TERTIARY, tertiaryPressed);
+		f.set(InputFrame.NEXT, nextPressed);
+		f.set(InputFrame.PREV, prevPressed);
+		f.set(InputFrame.EXIT, exitPressed);
+		f.set(InputFrame.PAUSE, didPause);
+		f.set(InputFrame.CLICK, leftClicked);
+		f.set(InputFrame.NEW_CHARACTER, newCharacterPressed);
+		f.set(InputFrame.NEW_BLOCK, newBlockPressed);
+		f.set(InputFrame.REMOVE, removePressed);
+		f.set(InputFrame.NEW_AIDEN, newAidenPressed);
+		f.set(InputFrame.POLY, polyPressed);
+		f.set(InputFrame.EXPORT, exportPressed);
+		f.set(InputFrame.LOAD, loadPressed);
+		f.set(InputFrame.CONFIRM, confirmPressed);
+		f.set(InputFrame.ZOOM_IN, zoomInPressed);
+		f.set(InputFrame.ZOOM_OUT, zoomOutPressed);
+		f.set(InputFrame.BACK, backPressed);
+		f.horizontal = horizontal;
+		f.vertical = vertical;
+		f.crossX = crosshair.x;
+		f.crossY = crosshair.y;
+		f.mouseX = (short) mousePos.x;
+		f.mouseY = (short) mousePos.y;
+		f.number = (byte) inputNumber;
+	}
+
+	/** Sets the input from a recorded frame instead of the devices */
+	private void apply(InputFrame f) {
+		resetPressed = f.has(InputFrame.RESET);
+		debugPressed = f.has(InputFrame.DEBUG);
+		profilePressed = f.has(InputFrame.PROFILE);
+		tracePressed = f.has(InputFrame.TRACE);
+		primePressed = f.has(InputFrame.PRIMARY);
+		secondPressed = f.has(InputFrame.SECONDARY);
+		tertiaryPressed = f.has(InputFrame.TERTIARY);
+		nextPressed = f.has(InputFrame.NEXT);
+		prevPressed = f.has(InputFrame.PREV);
+		exitPressed = f.has(InputFrame.EXIT);
+		didPause = f.has(InputFrame.PAUSE);
+		leftClicked = f.has(InputFrame.CLICK);
+		newCharacterPressed = f.has(InputFrame.NEW_CHARACTER);
+		newBlockPressed = f.has(InputFrame.NEW_BLOCK);
+		removePressed = f.has(InputFrame.REMOVE);
+		newAidenPressed = f.has(InputFrame.NEW_AIDEN);
+		polyPressed = f.has(InputFrame.POLY);
+		exportPressed = f.has(InputFrame.EXPORT);
+		loadPressed = f.has(InputFrame.LOAD);
+		confirmPressed = f.has(InputFrame.CONFIRM);
+		zoomInPressed = f.has(InputFrame.ZOOM_IN);
+		zoomOutPressed = f.has(InputFrame.ZOOM_OUT);
+		backPressed = f.has(InputFrame.BACK);
+		horizontal = f.horizontal;
+		vertical = f.vertical;
+		crosshair.set(f.crossX, f.crossY);
+		mousePos.set(f.mouseX, f.mouseY);
+		inputNumber = f.number;
 	}
 
 	/**
@@ -393,6 +630,8 @@ public class InputController {
 		resetPressed = (secondary && resetPressed)
 				|| (Gdx.input.isKeyPressed(Input.Keys.R));
 		debugPressed = false;
+		profilePressed = Gdx.input.isKeyPressed(Input.Keys.F3);
+		tracePressed = Gdx.input.isKeyPressed(Input.Keys.F4);
 		primePressed = (secondary && primePressed)
 				|| (Gdx.input.isKeyPressed(Input.Keys.UP)
 				|| (Gdx.input.isKeyPressed(Input.Keys.W)));
@@ -409,7 +648,7 @@ public class InputController {
 		// Unable to detect redundance here
 		leftClicked =  (secondary && nextPressed) || 
 				(Gdx.input.isButtonPressed(Input.Buttons.LEFT));
-		mousePos =  new Vector2(Gdx.input.getX(), Gdx.input.getY());
+		mousePos.set(Gdx.input.getX(), Gdx.input.getY());
 		
 		// Can check here
 		newCharacterPressed =(secondary && nextPressed)
@@ -437,6 +676,11 @@ public class InputController {
 				|| (Gdx.input.isKeyPressed(Input.Keys.L)
 						&& Gdx.input.isKeyJustPressed(Input.Keys.L));	
 		
+		confirmPressed = Gdx.input.isKeyPressed(Input.Keys.ENTER);
+		zoomInPressed = Gdx.input.isKeyPressed(Input.Keys.I);
+		zoomOutPressed = Gdx.input.isKeyPressed(Input.Keys.O);
+		backPressed = Gdx.input.isKeyPressed(Input.Keys.B);
+
 		inputNumber=-1;
 		if (Gdx.input.isKeyPressed(Input.Keys.NUM_0)){
 			inputNumber=0;
@@ -496,23 +740,14 @@ public class InputController {
 	
 	
 	public boolean zoomIn(){
-		if(Gdx.input.isKeyPressed(Input.Keys.I)){
-			return true;
-		}
-		return false;
+		return zoomInPressed;
 	}
 	
 	public boolean back(){
-		if(Gdx.input.isKeyPressed(Input.Keys.B)){
-			return true;
-		}
-		return false;
+		return backPressed;
 	}
 	
 	public boolean zoomOut(){
-		if(Gdx.input.isKeyPressed(Input.Keys.O)){
-			return true;
-		}
-		return false;
+		return zoomOutPressed;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+/*
+ * InputFrame.java
+ *
+ * The input polled in one frame, as kept in an input log.
+ */
+package edu.cornell.gdiac.physics;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Everything InputController reads from the devices in one frame, plus the
+ * frame's time step.
+ *
+ * A frame is written to an input log in FRAME_BYTES bytes: the delta, the
+ * button bits, the axes and crosshair as exact floats, the mouse position
+ * and the number key. Floats are kept bit for bit, so a replay sees exactly
+ * what the player's game saw.
+ */
+public class InputFrame {
+	/** Size of a frame in an input log */
+	public static final int FRAME_BYTES = 4 + 4 + 4 * 4 + 2 * 2 + 1;
+
+	// Button bits
+	public static final int RESET = 1 << 0;
+	public static final int DEBUG = 1 << 1;
+	public static final int PROFILE = 1 << 2;
+	public static final int TRACE = 1 << 3;
+	public static final int PRIMARY = 1 << 4;
+	public static final int SECONDARY = 1 << 5;
+	public static final int TERTIARY = 1 << 6;
+	public static final int NEXT = 1 << 7;
+	public static final int PREV = 1 << 8;
+	public static final int EXIT = 1 << 9;
+	public static final int PAUSE = 1 << 10;
+	public static final int CLICK = 1 << 11;
+	public static final int NEW_CHARACTER = 1 << 12;
+	public static final int NEW_BLOCK = 1 << 13;
+	public static final int REMOVE = 1 << 14;
+	public static final int NEW_AIDEN = 1 << 15;
+	public static final int POLY = 1 << 16;
+	public static final int EXPORT = 1 << 17;
+	public static final int LOAD = 1 << 18;
+	public static final int CONFIRM = 1 << 19;
+	public static final int ZOOM_IN = 1 << 20;
+	public static final int ZOOM_OUT = 1 << 21;
+	public static final int BACK = 1 << 22;
+	/** Set if the devices were polled in this frame at all */
+	public static final int POLLED = 1 << 31;
+
+	/** Seconds since the last frame */
+	public float delta;
+	/** The button bits that were down */
+	public int buttons;
+	public float horizontal;
+	public float vertical;
+	public float crossX;
+	public float crossY;
+	public short mouseX;
+	public short mouseY;
+	/** The number key down, or -1 */
+	public byte number;
+
+	/**
+	 * Returns true if the given button bit is set
+	 *
+	 * @param button the button bit
+	 *
+	 * @return true if the given button bit is set
+	 */
+	public boolean has(int button) {
+		return (buttons & button) != 0;
+	}
+
+	/**
+	 * Sets or clears a button bit
+	 *
+	 * @param button the button bit
+	 * @param down   whether the button is down
+	 */
+	public void set(int button, boolean down) {
+		buttons = down ? buttons | button : buttons & ~button;
+	}
+
+	/**
+	 * Writes this frame to a log
+	 *
+	 * @param out the log
+	 */
+	public void write(DataOutput out) throws IOException {
+		out.writeFloat(delta);
+		out.writeInt(buttons);
+		out.writeFloat(horizontal);
+		out.writeFloat(vertical);
+		out.writeFloat(crossX);
+		out.writeFloat(crossY);
+		out.writeShort(mouseX);
+		out.writeShort(mouseY);
+		out.writeByte(number);
+	}
+
+	/**
+	 * Reads this frame from a log, at the buffer's position
+	 *
+	 * @param in the log
+	 */
+	public void read(ByteBuffer in) {
+		delta = in.getFloat();
+		buttons = in.getInt();
+		horizontal = in.getFloat();
+		vertical = in.getFloat();
+		crossX = in.getFloat();
+		crossY = in.getFloat();
+		mouseX = in.getShort();
+		mouseY = in.getShort();
+		number = in.get();
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * InputRecorder.java
+ *
+ * Writes the input of every frame of a level to a binary log.
+ */
+package edu.cornell.gdiac.physics;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Input log writer.
+ *
+ * A log starts with a header (MAGIC, VERSION, the level index, the
+ * checkpoint the level started from and the seed of the gameplay random
+ * numbers, see RandomController) and is followed by one InputFrame per
+ * frame, FRAME_BYTES each, until the end of the file. That is all an
+ * InputReplayer needs to play the level again exactly, in the game or in the
+ * headless runner.
+ *
+ * Frames are buffered and written in blocks; call close() when done.
+ */
+public class InputRecorder {
+	/** First bytes of every input log ("AINP") */
+	public static final int MAGIC = 0x41494E50;
+	/** Format version, bumped when the header or frame layout changes */
+	public static final short VERSION = 2;
+	/** Size of the header */
+	public static final int HEADER_BYTES = 4 + 2 + 4 + 4 + 8;
+
+	private FileHandle file;
+	private DataOutputStream out;
+
+	/**
+	 * Starts a log, truncating the file.
+	 *
+	 * @param file
+	 *            the log file
+	 * @param level
+	 *            the level being played
+	 * @param checkpoint
+	 *            the checkpoint the level starts from, or -1
+	 * @param seed
+	 *            the seed the level's gameplay random numbers start from
+	 */
+	public InputRecorder(FileHandle file, int level, int checkpoint, long seed) {
+		this.file = file;
+		out = new DataOutputStream(new BufferedOutputStream(file.write(false)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeInt(level);
+			out.writeInt(checkpoint);
+			out.writeLong(seed);
+		} catch (IOException e) {
+			close();
+			throw new GdxRuntimeException("Cannot write input log " + file, e);
+		}
+	}
+
+	/**
+	 * Appends a frame to the log.
+	 *
+	 * @param frame
+	 *            the frame
+	 *
+	 * @return false if the log could not be written (and is now closed)
+	 */
+	public boolean write(InputFrame frame) {
+		if (out == null) {
+			return false;
+		}
+		try {
+			frame.write(out);
+			return true;
+		} catch (IOException e) {
+			System.err.println("Could not record input to " + file + ": " + e.getMessage());
+			close();
+			return false;
+		}
+	}
+
+	/**
+	 * Writes out what is buffered and closes the log.
+	 */
+	public void close() {
+		if (out == null) {
+			return;
+		}
+		try {
+			out.close();
+		} catch (IOException e) {
+			System.err.println("Could not record input to " + file + ": " + e.getMessage());
+		}
+		out = null;
+	}
+}
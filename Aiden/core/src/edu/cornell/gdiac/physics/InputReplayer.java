@@ -0,0 +1,101 @@
+/*
+ * InputReplayer.java
+ *
+ * Reads back an input log written by InputRecorder.
+ */
+package edu.cornell.gdiac.physics;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Input log reader.
+ *
+ * The whole log is read when it is opened, so replaying does no I/O while
+ * the level runs. See InputRecorder for the format.
+ */
+public class InputReplayer {
+	private ByteBuffer in;
+	private int level;
+	private int checkpoint;
+	private long seed;
+
+	/**
+	 * Opens a log.
+	 *
+	 * @param file
+	 *            the log file
+	 *
+	 * @throws GdxRuntimeException
+	 *             if the file is not an input log this version can read
+	 */
+	public InputReplayer(FileHandle file) {
+		in = ByteBuffer.wrap(file.readBytes());
+		if (in.remaining() < InputRecorder.HEADER_BYTES
+				|| in.getInt() != InputRecorder.MAGIC) {
+			throw new GdxRuntimeException("Not an input log: " + file);
+		}
+		short version = in.getShort();
+		if (version != InputRecorder.VERSION) {
+			throw new GdxRuntimeException("Input log " + file + " has version "
+					+ version + ", expected " + InputRecorder.VERSION);
+		}
+		level = in.getInt();
+		checkpoint = in.getInt();
+		seed = in.getLong();
+	}
+
+	/**
+	 * Returns the level the log was recorded in
+	 *
+	 * @return the level the log was recorded in
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Returns the checkpoint the level started from, or -1
+	 *
+	 * @return the checkpoint the level started from, or -1
+	 */
+	public int getCheckpoint() {
+		return checkpoint;
+	}
+
+	/**
+	 * Returns the seed the level's gameplay random numbers started from
+	 *
+	 * @return the seed the level's gameplay random numbers started from
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns the number of frames left in the log
+	 *
+	 * @return the number of frames left in the log
+	 */
+	public int remaining() {
+		return in.remaining() / InputFrame.FRAME_BYTES;
+	}
+
+	/**
+	 * Reads the next frame.
+	 *
+	 * @param frame
+	 *            the frame to fill in
+	 *
+	 * @return false if the log is over (and frame is unchanged)
+	 */
+	public boolean next(InputFrame frame) {
+		if (remaining() == 0) {
+			return false;
+		}
+		frame.read(in);
+		return true;
+	}
+}
@@ -0,0 +1,201 @@
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import edu.cornell.gdiac.physics.editor.LevelEditor;
+import edu.cornell.gdiac.physics.scene.AssetFile;
+import edu.cornell.gdiac.util.ScreenListener;
+
+/**
+ * The controllers for every level, built when they are first needed.
+ *
+ * Every WorldController owns its own Box2D world, so building all of them up
+ * front is slow and keeps a lot of native memory around. Instead a controller
+ * is made the first time its level is entered (or pre-warmed), and only the
+ * few most recently used ones are kept. The rest are disposed, and made again
+ * if they are ever entered again.
+ */
+public class LevelRegistry {
+	/** Number of level controllers kept alive by default */
+	public static final int DEFAULT_WARM = 3;
+
+	/** The controller for each level, or null if it is not built */
+	private WorldController[] controllers;
+	/** Indices of built controllers, least recently used first */
+	private IntArray recent;
+	/** The most controllers kept built at once */
+	private int capacity;
+
+	/** Shared state handed to each controller as it is built */
+	private ScreenListener listener;
+	private GameCanvas canvas;
+	private AssetFile af;
+
+	/**
+	 * Creates a registry for the given number of levels.
+	 *
+	 * The last level is the level editor.
+	 *
+	 * @param levels
+	 *            the number of levels
+	 * @param capacity
+	 *            the number of controllers to keep built (at least 2)
+	 */
+	public LevelRegistry(int levels, int capacity) {
+		controllers = new WorldController[levels];
+		recent = new IntArray(capacity + 1);
+		this.capacity = Math.max(2, capacity);
+	}
+
+	/**
+	 * Returns the number of levels
+	 *
+	 * @return the number of levels
+	 */
+	public int size() {
+		return controllers.length;
+	}
+
+	/**
+	 * Sets the screen listener and canvas given to every controller.
+	 *
+	 * Controllers that are already built get them right away.
+	 *
+	 * @param listener
+	 *            the listener for controllers to exit to
+	 * @param canvas
+	 *            the canvas shared by all controllers
+	 */
+	public void setScreen(ScreenListener listener, GameCanvas canvas) {
+		this.listener = listener;
+		this.canvas = canvas;
+		for (int ii = 0; ii < recent.size; ii++) {
+			setup(controllers[recent.get(ii)]);
+		}
+	}
+
+	/**
+	 * Sets the loaded assets given to every controller.
+	 *
+	 * Controllers that are already built get them right away.
+	 *
+	 * @param af
+	 *            the loaded assets
+	 */
+	public void setAssetFile(AssetFile af) {
+		this.af = af;
+		for (int ii = 0; ii < recent.size; ii++) {
+			setup(controllers[recent.get(ii)]);
+		}
+	}
+
+	/**
+	 * Returns the controller for a level, building it if needed.
+	 *
+	 * The level becomes the most recently used one. If this leaves too many
+	 * controllers built, the least recently used one is disposed.
+	 *
+	 * @param level
+	 *            the level index
+	 *
+	 * @return the controller for the level
+	 */
+	public WorldController get(int level) {
+		WorldController c = build(level);
+		touch(level);
+		return c;
+	}
+
+	/**
+	 * Returns the controller for a level only if it is built.
+	 *
+	 * This does not change which levels are recently used.
+	 *
+	 * @param level
+	 *            the level index
+	 *
+	 * @return the controller for the level, or null
+	 */
+	public WorldController peek(int level) {
+		return controllers[level];
+	}
+
+	/**
+	 * Builds the controller for a level ahead of time, if it is not built.
+	 *
+	 * This is meant for the level that is about to be entered, e.g. the next
+	 * one while the victory countdown is running. It does only the work that
+	 * does not depend on the level being shown; the level itself is still
+	 * populated by reset() when it is entered.
+	 *
+	 * @param level
+	 *            the level index
+	 */
+	public void prewarm(int level) {
+		if (controllers[level] == null) {
+			get(level);
+		}
+	}
+
+	/**
+	 * Disposes every built controller.
+	 */
+	public void dispose() {
+		for (int ii = 0; ii < recent.size; ii++) {
+			int level = recent.get(ii);
+			controllers[level].dispose();
+			controllers[level] = null;
+		}
+		recent.clear();
+	}
+
+	/** Builds the controller for a level if needed, and returns it */
+	private WorldController build(int level) {
+		if (controllers[level] == null) {
+			controllers[level] = create(level);
+			setup(controllers[level]);
+		}
+		return controllers[level];
+	}
+
+	/**
+	 * Makes a new controller for a level.
+	 *
+	 * The tutorials, and the levels that introduce something new, show
+	 * messages. The last level is the editor.
+	 */
+	private WorldController create(int level) {
+		if (level == controllers.length - 1) {
+			return new LevelEditor();
+		}
+		if (level < 5 || level == 7 || level == 9 || level == 11 || level == 12) {
+			return new TutorialController(level);
+		}
+		return new AidenController(level);
+	}
+
+	/** Hands the shared state known so far to a controller */
+	private void setup(WorldController c) {
+		if (listener != null) {
+			c.setScreenListener(listener);
+			c.setCanvas(canvas);
+		}
+		if (af != null) {
+			c.setAssetFile(af);
+		}
+	}
+
+	/**
+	 * Moves a level to the back of the recently used list, and disposes the
+	 * least recently used levels past the capacity.
+	 */
+	private void touch(int level) {
+		recent.removeValue(level);
+		recent.add(level);
+		while (recent.size > capacity) {
+			int old = recent.removeIndex(0);
+			controllers[old].dispose();
+			controllers[old] = null;
+		}
+	}
+}
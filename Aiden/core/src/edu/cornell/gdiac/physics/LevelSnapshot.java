@@ -0,0 +1,246 @@
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import edu.cornell.gdiac.physics.blocks.FlammableBlock;
+import edu.cornell.gdiac.physics.character.CharacterModel;
+import edu.cornell.gdiac.physics.material.Flammable;
+import edu.cornell.gdiac.physics.obstacle.ComplexObstacle;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.util.PooledList;
+
+/**
+ * The state of a level's blocks right after it was populated, so that a
+ * restart can rewind the existing world instead of building a new one.
+ *
+ * For every block (and every part of a rope, trap door or burnable platform)
+ * this keeps the transform, velocity and active state of its body, and the
+ * burn state of flammables. Restoring puts these back in place. Only what was
+ * destroyed while playing, i.e. burnt blocks and the ropes and platforms that
+ * lost parts to fire, is activated again.
+ *
+ * Characters are not kept: their models hold much more state than their
+ * bodies, and there are only a few of them, so the controller makes new ones.
+ */
+public class LevelSnapshot {
+	/** Floats kept per body: x, y, angle, vx, vy, angular velocity */
+	private static final int STRIDE = 6;
+
+	/** The level's non-character objects, in the order they were added */
+	private Array<Obstacle> objects = new Array<Obstacle>();
+	private ObjectSet<Obstacle> known = new ObjectSet<Obstacle>();
+	/** How many of those objects were added before the characters */
+	private int characterIndex = -1;
+	/** The level's flammables list, in order */
+	private Array<FlammableBlock> flammables = new Array<FlammableBlock>();
+
+	/** Every body, with its parts listed after each complex object */
+	private Array<Obstacle> parts = new Array<Obstacle>();
+	private float[] transforms = new float[0];
+	private boolean[] active = new boolean[0];
+
+	/** The components of each complex object, as they were */
+	private Array<ComplexObstacle> complexes = new Array<ComplexObstacle>();
+	private Array<Array<Obstacle>> components = new Array<Array<Obstacle>>();
+
+	/** Every flammable, including the parts of ropes and trap doors */
+	private Array<FlammableBlock> burnables = new Array<FlammableBlock>();
+	private float[] timers = new float[0];
+	private boolean[] burning = new boolean[0];
+	private boolean[] burnt = new boolean[0];
+
+	/** Objects that have to be activated again on restore */
+	private Array<Obstacle> rebuilt = new Array<Obstacle>();
+	private Vector2 velocity = new Vector2();
+
+	/**
+	 * Records the level as it is now. Call this right after populating it.
+	 */
+	public LevelSnapshot(PooledList<Obstacle> objects,
+			PooledList<FlammableBlock> flammables) {
+		for (Obstacle obj : objects) {
+			if (obj instanceof CharacterModel) {
+				if (characterIndex < 0) {
+					characterIndex = this.objects.size;
+				}
+				continue;
+			}
+			this.objects.add(obj);
+			known.add(obj);
+			if (obj instanceof ComplexObstacle) {
+				ComplexObstacle co = (ComplexObstacle) obj;
+				Array<Obstacle> saved = new Array<Obstacle>();
+				for (Obstacle part : co.getBodies()) {
+					saved.add(part);
+					addPart(part);
+				}
+				complexes.add(co);
+				components.add(saved);
+			} else {
+				addPart(obj);
+			}
+		}
+		for (FlammableBlock fb : flammables) {
+			this.flammables.add(fb);
+		}
+		if (characterIndex < 0) {
+			characterIndex = this.objects.size;
+		}
+
+		transforms = new float[parts.size * STRIDE];
+		active = new boolean[parts.size];
+		for (int ii = 0; ii < parts.size; ii++) {
+			Obstacle part = parts.get(ii);
+			int k = ii * STRIDE;
+			transforms[k] = part.getX();
+			transforms[k + 1] = part.getY();
+			transforms[k + 2] = part.getAngle();
+			transforms[k + 3] = part.getVX();
+			transforms[k + 4] = part.getVY();
+			transforms[k + 5] = part.getAngularVelocity();
+			active[ii] = part.isActive();
+		}
+
+		timers = new float[burnables.size * 2];
+		burning = new boolean[burnables.size];
+		burnt = new boolean[burnables.size];
+		for (int ii = 0; ii < burnables.size; ii++) {
+			Flammable f = burnables.get(ii).getMaterial();
+			timers[2 * ii] = f.getBurnTime();
+			timers[2 * ii + 1] = f.getSpreadTime();
+			burning[ii] = f.isBurning();
+			burnt[ii] = f.isBurnt();
+		}
+	}
+
+	private void addPart(Obstacle part) {
+		parts.add(part);
+		if (part instanceof FlammableBlock) {
+			burnables.add((FlammableBlock) part);
+		}
+	}
+
+	/**
+	 * Rewinds the level's blocks in place.
+	 *
+	 * The objects and flammables lists are refilled in their original order.
+	 * Objects in them that were not recorded (other than characters, which
+	 * the caller handles) are removed from the world. Objects that have to be
+	 * activated again are returned, so the caller can activate them the way
+	 * it adds any object; they are already in the objects list, where they
+	 * were before, so the draw and update order does not change.
+	 *
+	 * @param world the world the level lives in
+	 * @param objects the controller's list of objects
+	 * @param flammables the controller's list of flammables
+	 *
+	 * @return the objects to add to the world again, in order
+	 */
+	public Array<Obstacle> restore(World world, PooledList<Obstacle> objects,
+			PooledList<FlammableBlock> flammables) {
+		for (Obstacle obj : objects) {
+			if (!known.contains(obj) && !(obj instanceof CharacterModel)) {
+				obj.deactivatePhysics(world);
+			}
+		}
+
+		// Drop every contact now, so the handlers see the restored level
+		// begin its contacts from scratch on the next step
+		for (int ii = 0; ii < parts.size; ii++) {
+			Obstacle part = parts.get(ii);
+			if (part.getBody() != null) {
+				part.setActive(false);
+			}
+		}
+
+		// Complex objects that lost parts are made again from their old parts
+		rebuilt.clear();
+		for (int ii = 0; ii < complexes.size; ii++) {
+			ComplexObstacle co = complexes.get(ii);
+			if (isBroken(co, components.get(ii))) {
+				co.deactivatePhysics(world);
+				co.restoreBodies(components.get(ii));
+				rebuilt.add(co);
+			}
+		}
+
+		for (int ii = 0; ii < parts.size; ii++) {
+			Obstacle part = parts.get(ii);
+			int k = ii * STRIDE;
+			part.setPosition(transforms[k], transforms[k + 1]);
+			part.setAngle(transforms[k + 2]);
+			part.setLinearVelocity(velocity.set(transforms[k + 3], transforms[k + 4]));
+			part.setAngularVelocity(transforms[k + 5]);
+			part.clearPreviousTransform();
+			part.markRemoved(false);
+			if (part.getBody() != null) {
+				part.setActive(active[ii]);
+				part.setAwake(true);
+			}
+		}
+
+		for (int ii = 0; ii < burnables.size; ii++) {
+			burnables.get(ii).getMaterial().setBurnState(burning[ii], burnt[ii],
+					timers[2 * ii], timers[2 * ii + 1]);
+		}
+
+		objects.clear();
+		for (int ii = 0; ii < this.objects.size; ii++) {
+			Obstacle obj = this.objects.get(ii);
+			obj.markRemoved(false);
+			if (obj.getBody() == null && !rebuilt.contains(obj, true)) {
+				// A burnt block, destroyed by BurnController
+				rebuilt.add(obj);
+			}
+			objects.add(obj);
+		}
+		flammables.clear();
+		for (int ii = 0; ii < this.flammables.size; ii++) {
+			flammables.add(this.flammables.get(ii));
+		}
+		return rebuilt;
+	}
+
+	/**
+	 * Moves the characters back to where they were in the objects list.
+	 *
+	 * Call this after restore(), once the new characters have been added to
+	 * the end of the list.
+	 *
+	 * @param objects the controller's list of objects
+	 */
+	public void placeCharacters(PooledList<Obstacle> objects) {
+		Array<Obstacle> characters = new Array<Obstacle>();
+		for (Obstacle obj : objects) {
+			if (obj instanceof CharacterModel) {
+				characters.add(obj);
+			}
+		}
+		objects.clear();
+		for (int ii = 0; ii <= this.objects.size; ii++) {
+			if (ii == characterIndex) {
+				for (int jj = 0; jj < characters.size; jj++) {
+					objects.add(characters.get(jj));
+				}
+			}
+			if (ii < this.objects.size) {
+				objects.add(this.objects.get(ii));
+			}
+		}
+	}
+
+	/** Whether a complex object lost a component or a component's body */
+	private static boolean isBroken(ComplexObstacle co, Array<Obstacle> saved) {
+		int n = 0;
+		for (Obstacle part : co.getBodies()) {
+			if (n >= saved.size || saved.get(n) != part || part.getBody() == null) {
+				return true;
+			}
+			n++;
+		}
+		return n != saved.size || !co.isActive();
+	}
+}
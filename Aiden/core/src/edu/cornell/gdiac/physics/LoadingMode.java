@@ -519,9 +519,9 @@ public class LoadingMode implements Screen, InputProcessor, ControllerListener {
 				Color c=Color.GRAY;
 				if (i<gs.getUnlocked()) {
 					c=Color.WHITE;
-					if (RandomController.rollFloat(0, 1)>0.85f){
+					if (RandomController.rollCosmeticFloat(0, 1)>0.85f){
 						light_radius[i]=Math.max(LEVEL_BUTTON_SCALE * scale / 5f,Math.min(LEVEL_BUTTON_SCALE * scale / 3f, 
-								light_radius[i]+RandomController.rollFloat(-0.02f, 0.02f)));
+								light_radius[i]+RandomController.rollCosmeticFloat(-0.02f, 0.02f)));
 						//light_alpha[i]=Math.max(0.5f, Math.min(1, light_alpha[i]+RandomController.rollFloat(-0.025f, 0.025f)));
 					}
 					canvas.draw(light, new Color(1, 1, 0.2f, light_alpha[i]), light.getWidth()/2f,
@@ -0,0 +1,466 @@
+/*
+ * Profiler.java
+ *
+ * Per-frame timings of the game's subsystems.  Each subsystem is wrapped in a
+ * begin()/end() pair that accumulates System.nanoTime() into the current frame.
+ * At the end of the frame the timings are kept in a rolling history, which can
+ * be drawn as an overlay, kept as a CSV trace, or dumped as JSON.
+ */
+package edu.cornell.gdiac.physics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+
+/**
+ * Singleton profiler for the game loop.
+ *
+ * Stages may be entered several times a frame (the physics step runs once per
+ * substep); the time is summed.  When the profiler is disabled, begin() and
+ * end() return immediately.
+ *
+ * Allocation is measured with the HotSpot thread allocation counter when the
+ * JVM has one, and garbage collection with the standard GC beans.  Draw calls
+ * are those GameCanvas reports when it flushes its sprite batch.
+ */
+public class Profiler {
+	/** Reading input in WorldController.preUpdate */
+	public static final int INPUT = 0;
+	/** AIController.nextMove */
+	public static final int AI = 1;
+	/** Rope and trap door updateParts */
+	public static final int ROPES = 2;
+	/** CollisionController.getCollisions */
+	public static final int COLLISION = 3;
+	/** BurnController.update */
+	public static final int BURN = 4;
+	/** World.step, over all substeps */
+	public static final int PHYSICS = 5;
+	/** WorldController.draw */
+	public static final int DRAW = 6;
+	/** The whole of WorldController.render */
+	public static final int FRAME = 7;
+	/** The number of stages */
+	public static final int STAGES = 8;
+
+	/** Names of the stages, used as column headers */
+	private static final String[] NAMES = { "input", "ai", "ropes", "collision",
+			"burn", "physics", "draw", "frame" };
+	/** Frames kept in the rolling history */
+	private static final int HISTORY = 600;
+	/** Frames kept in the trace, about a minute of play */
+	private static final int TRACE_FRAMES = 3600;
+	/** Weight of the latest frame in the running averages */
+	private static final float SMOOTHING = 0.05f;
+	/** Frames slower than this many milliseconds are reported as hitches */
+	private static final float HITCH_MILLIS = 1000.0f / 30.0f;
+
+	/** The singleton instance */
+	private static Profiler theProfiler = null;
+
+	/**
+	 * Returns the singleton profiler
+	 *
+	 * @return the singleton profiler
+	 */
+	public static Profiler getInstance() {
+		if (theProfiler == null) {
+			theProfiler = new Profiler();
+		}
+		return theProfiler;
+	}
+
+	/** Whether timings are being collected */
+	private boolean enabled = false;
+	/** Start time of each stage in progress */
+	private long[] start = new long[STAGES];
+	/** Time spent in each stage this frame */
+	private long[] elapsed = new long[STAGES];
+	/** Running average of each stage in milliseconds */
+	private float[] average = new float[STAGES];
+	/** Slowest time of each stage in milliseconds in the history */
+	private float[] peak = new float[STAGES];
+	/** Total milliseconds of each stage over every recorded frame */
+	private double[] total = new double[STAGES];
+
+	/** Milliseconds of each stage for the last HISTORY frames */
+	private float[] history = new float[HISTORY * STAGES];
+	/** Bytes allocated in each of the last HISTORY frames, -1 if unknown */
+	private long[] allocHistory = new long[HISTORY];
+	/** Garbage collections in each of the last HISTORY frames */
+	private int[] gcHistory = new int[HISTORY];
+	/** Sprite batch draw calls in each of the last HISTORY frames */
+	private int[] drawHistory = new int[HISTORY];
+	/** Draw calls so far this frame */
+	private int drawCalls;
+	/** Running average of draw calls per frame */
+	private float drawAverage;
+	/** Draw calls over every recorded frame */
+	private long drawTotal;
+	/** Total frames recorded */
+	private long frames = 0;
+
+	/**
+	 * HotSpot's getThreadAllocatedBytes(long), or null if this JVM has none.
+	 * It is looked up by reflection, so that core does not need HotSpot.
+	 */
+	private Method allocCounter;
+	/** The thread bean allocCounter is called on */
+	private Object threadBean;
+	/** The argument to allocCounter, boxed once so reading it is cheap */
+	private Object[] threadArgs;
+	private long threadId;
+	private long allocStart;
+	private List<GarbageCollectorMXBean> collectors;
+	private long gcStart;
+
+	/** The trace file, or null if not tracing */
+	private FileHandle trace;
+	/** Milliseconds of each stage for the last TRACE_FRAMES traced frames */
+	private float[] traceMs;
+	/** Bytes allocated, collections and draw calls of the same frames */
+	private long[] traceAlloc;
+	private int[] traceGc;
+	private int[] traceDraws;
+	/** Frames traced so far */
+	private long traceFrames;
+	/** Frames recorded before the trace started */
+	private long traceStart;
+
+	/** Reused for the overlay text */
+	private StringBuilder text = new StringBuilder();
+	/** Breakdown of the last hitch, for the overlay */
+	private String lastHitch = "";
+
+	private Profiler() {
+		collectors = ManagementFactory.getGarbageCollectorMXBeans();
+		threadId = Thread.currentThread().getId();
+		try {
+			Class<?> sun = Class.forName("com.sun.management.ThreadMXBean");
+			Object threads = ManagementFactory.getThreadMXBean();
+			if (sun.isInstance(threads)) {
+				allocCounter = sun.getMethod("getThreadAllocatedBytes", long.class);
+				threadBean = threads;
+				threadArgs = new Object[] { Long.valueOf(threadId) };
+			}
+		} catch (Exception e) {
+			allocCounter = null;
+		}
+	}
+
+	/**
+	 * Returns true if timings are being collected.
+	 *
+	 * @return true if timings are being collected.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether timings are being collected (and the overlay drawn).
+	 *
+	 * @param value whether timings are being collected.
+	 */
+	public void setEnabled(boolean value) {
+		enabled = value;
+		if (!enabled) {
+			stopTrace();
+		}
+	}
+
+	/**
+	 * Returns true if a trace is being kept.
+	 *
+	 * @return true if a trace is being kept.
+	 */
+	public boolean isTracing() {
+		return trace != null;
+	}
+
+	/**
+	 * Starts a CSV trace, one line per frame, for the given file.
+	 *
+	 * The trace is kept in memory, so the frames being measured do no file
+	 * I/O; it is written in one go by stopTrace().  Only the last TRACE_FRAMES
+	 * frames are kept, so a trace left running does not grow without bound.
+	 * This also enables the profiler.
+	 *
+	 * @param file the file to write to (it is replaced when the trace stops)
+	 */
+	public void startTrace(FileHandle file) {
+		enabled = true;
+		trace = file;
+		if (traceMs == null) {
+			traceMs = new float[TRACE_FRAMES * STAGES];
+			traceAlloc = new long[TRACE_FRAMES];
+			traceGc = new int[TRACE_FRAMES];
+			traceDraws = new int[TRACE_FRAMES];
+		}
+		traceFrames = 0;
+		traceStart = frames;
+	}
+
+	/**
+	 * Stops the CSV trace, writing its frames to its file, oldest first.
+	 */
+	public void stopTrace() {
+		if (trace == null) {
+			return;
+		}
+		StringBuilder b = new StringBuilder();
+		b.append("frame");
+		for (int ii = 0; ii < STAGES; ii++) {
+			b.append(',').append(NAMES[ii]);
+		}
+		b.append(",alloc,gc,draws\n");
+		for (long kk = Math.max(0, traceFrames - TRACE_FRAMES); kk < traceFrames; kk++) {
+			int slot = (int) (kk % TRACE_FRAMES);
+			b.append(traceStart + kk + 1);
+			for (int ii = 0; ii < STAGES; ii++) {
+				b.append(',').append(traceMs[slot * STAGES + ii]);
+			}
+			b.append(',').append(traceAlloc[slot]).append(',').append(traceGc[slot]);
+			b.append(',').append(traceDraws[slot]).append('\n');
+		}
+		trace.writeString(b.toString(), false);
+		trace = null;
+	}
+
+	/**
+	 * Starts timing a stage.
+	 *
+	 * @param stage the stage to time
+	 */
+	public void begin(int stage) {
+		if (enabled) {
+			start[stage] = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Stops timing a stage, adding the time to this frame.
+	 *
+	 * @param stage the stage to time
+	 */
+	public void end(int stage) {
+		if (enabled) {
+			elapsed[stage] += System.nanoTime() - start[stage];
+		}
+	}
+
+	/**
+	 * Adds draw calls to this frame.
+	 *
+	 * GameCanvas calls this each time it flushes its sprite batch.
+	 *
+	 * @param calls the draw calls the batch made since it began
+	 */
+	public void addDrawCalls(int calls) {
+		if (enabled) {
+			drawCalls += calls;
+		}
+	}
+
+	/**
+	 * Starts a new frame.
+	 */
+	public void beginFrame() {
+		if (!enabled) {
+			return;
+		}
+		for (int ii = 0; ii < STAGES; ii++) {
+			elapsed[ii] = 0;
+		}
+		drawCalls = 0;
+		allocStart = allocatedBytes();
+		gcStart = collections();
+		begin(FRAME);
+	}
+
+	/**
+	 * Ends the frame, recording it in the history and trace.
+	 */
+	public void endFrame() {
+		if (!enabled) {
+			return;
+		}
+		end(FRAME);
+		long alloc = allocStart < 0 ? -1 : allocatedBytes() - allocStart;
+		int gc = (int) (collections() - gcStart);
+
+		int slot = (int) (frames % HISTORY);
+		for (int ii = 0; ii < STAGES; ii++) {
+			float ms = elapsed[ii] / 1000000.0f;
+			history[slot * STAGES + ii] = ms;
+			average[ii] += (ms - average[ii]) * (frames == 0 ? 1 : SMOOTHING);
+			total[ii] += elapsed[ii] / 1000000.0;
+		}
+		allocHistory[slot] = alloc;
+		gcHistory[slot] = gc;
+		drawHistory[slot] = drawCalls;
+		drawAverage += (drawCalls - drawAverage) * (frames == 0 ? 1 : SMOOTHING);
+		drawTotal += drawCalls;
+		frames++;
+
+		int size = (int) Math.min(frames, HISTORY);
+		for (int ii = 0; ii < STAGES; ii++) {
+			float max = 0;
+			for (int jj = 0; jj < size; jj++) {
+				max = Math.max(max, history[jj * STAGES + ii]);
+			}
+			peak[ii] = max;
+		}
+
+		if (history[slot * STAGES + FRAME] > HITCH_MILLIS) {
+			lastHitch = describe(slot);
+		}
+
+		if (trace != null) {
+			int tslot = (int) (traceFrames % TRACE_FRAMES);
+			System.arraycopy(history, slot * STAGES, traceMs, tslot * STAGES, STAGES);
+			traceAlloc[tslot] = alloc;
+			traceGc[tslot] = gc;
+			traceDraws[tslot] = drawCalls;
+			traceFrames++;
+		}
+	}
+
+	/**
+	 * Returns the name of a stage, as used in the trace
+	 *
+	 * @param stage the stage
+	 *
+	 * @return the name of a stage
+	 */
+	public static String getName(int stage) {
+		return NAMES[stage];
+	}
+
+	/**
+	 * Returns the number of frames recorded
+	 *
+	 * @return the number of frames recorded
+	 */
+	public long getFrames() {
+		return frames;
+	}
+
+	/**
+	 * Returns the total milliseconds spent in a stage over every recorded frame
+	 *
+	 * @param stage the stage
+	 *
+	 * @return the total milliseconds spent in a stage
+	 */
+	public double getTotal(int stage) {
+		return total[stage];
+	}
+
+	/**
+	 * Returns the sprite batch draw calls over every recorded frame
+	 *
+	 * @return the sprite batch draw calls over every recorded frame
+	 */
+	public long getDrawTotal() {
+		return drawTotal;
+	}
+
+	private long allocatedBytes() {
+		if (allocCounter == null) {
+			return -1;
+		}
+		try {
+			return ((Long) allocCounter.invoke(threadBean, threadArgs)).longValue();
+		} catch (Exception e) {
+			// Including an UnsupportedOperationException, wrapped by invoke()
+			allocCounter = null;
+			return -1;
+		}
+	}
+
+	private long collections() {
+		long total = 0;
+		for (int ii = 0; ii < collectors.size(); ii++) {
+			total += Math.max(0, collectors.get(ii).getCollectionCount());
+		}
+		return total;
+	}
+
+	private String describe(int slot) {
+		StringBuilder b = new StringBuilder("hitch:");
+		for (int ii = 0; ii < STAGES; ii++) {
+			b.append(' ').append(NAMES[ii]).append('=');
+			b.append(Math.round(history[slot * STAGES + ii] * 10) / 10.0f);
+		}
+		return b.toString();
+	}
+
+	/**
+	 * Writes the rolling history, oldest frame first, as JSON.
+	 *
+	 * @param file the file to write to
+	 */
+	public void writeJson(FileHandle file) {
+		int size = (int) Math.min(frames, HISTORY);
+		StringBuilder b = new StringBuilder();
+		b.append("{\n\t\"stages\": [");
+		for (int ii = 0; ii < STAGES; ii++) {
+			b.append(ii == 0 ? "" : ", ").append('"').append(NAMES[ii]).append('"');
+		}
+		b.append("],\n\t\"frames\": [\n");
+		for (int jj = 0; jj < size; jj++) {
+			int slot = (int) ((frames - size + jj) % HISTORY);
+			b.append("\t\t{\"frame\": ").append(frames - size + jj + 1);
+			b.append(", \"ms\": [");
+			for (int ii = 0; ii < STAGES; ii++) {
+				b.append(ii == 0 ? "" : ", ").append(history[slot * STAGES + ii]);
+			}
+			b.append("], \"alloc\": ").append(allocHistory[slot]);
+			b.append(", \"gc\": ").append(gcHistory[slot]);
+			b.append(", \"draws\": ").append(drawHistory[slot]).append('}');
+			b.append(jj + 1 < size ? ",\n" : "\n");
+		}
+		b.append("\t]\n}\n");
+		file.writeString(b.toString(), false);
+	}
+
+	/**
+	 * Draws the averages and peaks of each stage as text.
+	 *
+	 * This must be called between canvas.begin() and canvas.end().
+	 *
+	 * @param canvas the canvas to draw to
+	 * @param font the font to use
+	 * @param x the x-coordinate of the upper-left corner
+	 * @param y the y-coordinate of the upper-left corner
+	 */
+	public void drawOverlay(GameCanvas canvas, BitmapFont font, float x, float y) {
+		if (!enabled) {
+			return;
+		}
+		text.setLength(0);
+		text.append("fps ").append(Gdx.graphics.getFramesPerSecond());
+		text.append(trace != null ? "  [trace]" : "").append('\n');
+		for (int ii = 0; ii < STAGES; ii++) {
+			text.append(NAMES[ii]).append("  ");
+			text.append(Math.round(average[ii] * 100) / 100.0f).append(" ms  (max ");
+			text.append(Math.round(peak[ii] * 100) / 100.0f).append(")\n");
+		}
+		int slot = (int) ((frames + HISTORY - 1) % HISTORY);
+		if (frames > 0 && allocHistory[slot] >= 0) {
+			text.append("alloc  ").append(allocHistory[slot] / 1024).append(" KB/frame\n");
+		}
+		if (frames > 0) {
+			text.append("draw calls  ").append(drawHistory[slot]).append("  (avg ");
+			text.append(Math.round(drawAverage * 10) / 10.0f).append(")\n");
+		}
+		text.append(lastHitch);
+		canvas.drawText(text.toString(), font, x, y);
+	}
+}
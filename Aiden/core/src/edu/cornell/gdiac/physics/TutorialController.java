@@ -1,11 +1,10 @@
 package edu.cornell.gdiac.physics;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.JsonValue;
 
 import edu.cornell.gdiac.physics.scene.JSONParser;
+import edu.cornell.gdiac.physics.scene.LevelManifest;
 
 class TutorialController extends AidenController{
 	private int tutmsg_s;
@@ -19,37 +18,7 @@ class TutorialController extends AidenController{
 	public TutorialController(int level) {
 		super(level);
 		// TODO Auto-generated constructor stub
-		switch (level){
-		case 0:
-			this.messages = parseJson("json/tutorial1message.json");
-			break;
-		case 1:
-			this.messages = parseJson("json/tutorial2message.json");
-			break;
-		case 2:
-			this.messages = parseJson("json/tutorial3message.json");
-			break;
-		case 3:
-			this.messages = parseJson("json/tutorial4message.json");
-			break;
-		case 7:
-			this.messages = parseJson("json/tutorial5message.json");
-			break;
-		case 9:
-			this.messages = parseJson("json/tutorial6message.json");
-			break;
-		case 11:
-			this.messages = parseJson("json/tutorial7message.json");
-			break;
-		case 12:
-			this.messages = parseJson("json/tutorial8message.json");
-			break;
-		case 4:
-			this.messages = parseJson("json/tutorial9message.json");
-			break;
-		default:
-			this.messages = parseJson("json/tutorial1message.json");
-		}
+		this.messages = parseJson(LevelManifest.messageFile(level));
 		currentMsg = -1;
 		tutmsg_s = -1;
 	}
@@ -86,6 +55,15 @@ class TutorialController extends AidenController{
 
 	public void reset(){
 		super.reset();
+		resetMessages();
+	}
+	
+	public void softReset(){
+		super.softReset();
+		resetMessages();
+	}
+	
+	private void resetMessages(){
 		read = false;
 		for (Message m: messages) m.setUndo();
 		tutpause = false;
@@ -162,7 +140,7 @@ class TutorialController extends AidenController{
 			}
 		}
 		// when we are displaying a task, check if the user pressed enter to dismiss the msg
-		if(this.pause && Gdx.input.isKeyPressed(Input.Keys.ENTER)){
+		if(this.pause && InputController.getInstance().didConfirm()){
 			this.pause();
 			this.tutpause = false;
 			if(this.currentMsg>-1){
@@ -0,0 +1,269 @@
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import edu.cornell.gdiac.physics.obstacle.ComplexObstacle;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.util.PooledList;
+
+/**
+ * Decides which obstacles are on screen, so the rest are not drawn.
+ *
+ * Each obstacle's bounding box is kept in a uniform grid over the level. Boxes
+ * are only read again for obstacles that can have moved (awake bodies and
+ * complex obstacles), so the static and sleeping bulk of a level costs nothing
+ * to keep up to date. Each frame the cells under the camera are walked to mark
+ * the visible obstacles; the draw loop then asks about each obstacle in its
+ * usual order, so layering is unchanged.
+ *
+ * Everything is in physics units. Boxes are padded, so that effects drawn
+ * past an obstacle's body (flames, glows) are not clipped at the screen edge.
+ */
+public class ViewCuller {
+	/** Width and height of a grid cell, in physics units */
+	private static final float CELL_SIZE = 4.0f;
+	/** Padding around each box, in physics units */
+	private static final float MARGIN = 1.5f;
+
+	/** An obstacle in the grid */
+	private static class Entry {
+		Obstacle obj;
+		float lx, ly, ux, uy;
+		/** Cell range covered: first column, first row, last column, last row */
+		int c0 = -1, r0, c1, r1;
+		/** Last frame the obstacle was in the object list */
+		int seen;
+		/** Last frame the obstacle was on screen */
+		int visible;
+	}
+
+	private ObjectMap<Obstacle, Entry> entries = new ObjectMap<Obstacle, Entry>();
+	private Array<Entry>[] cells;
+	private int cols, rows;
+	private int frame;
+
+	/** Scratch box for the union of a complex obstacle's parts */
+	private Rectangle union = new Rectangle();
+
+	/** The view in physics units */
+	private float vlx, vly, vux, vuy;
+
+	/** Obstacles drawn and culled this frame */
+	private int drawn;
+	private int culled;
+
+	/**
+	 * Creates an empty culler.
+	 *
+	 * Call reset() with the level size before using it.
+	 */
+	public ViewCuller() {
+		reset(1, 1);
+	}
+
+	/**
+	 * Forgets every obstacle, and sizes the grid for a level.
+	 *
+	 * Obstacles outside the level fall into the edge cells.
+	 *
+	 * @param width
+	 *            the level width in physics units
+	 * @param height
+	 *            the level height in physics units
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void reset(float width, float height) {
+		entries.clear();
+		cols = Math.max(1, (int) Math.ceil(width / CELL_SIZE));
+		rows = Math.max(1, (int) Math.ceil(height / CELL_SIZE));
+		cells = new Array[cols * rows];
+		for (int ii = 0; ii < cells.length; ii++) {
+			cells[ii] = new Array<Entry>(false, 4);
+		}
+	}
+
+	/**
+	 * Updates the grid and marks the obstacles under the camera.
+	 *
+	 * Call this once a frame, before drawing the obstacles.
+	 *
+	 * @param camera
+	 *            the camera the obstacles are drawn with
+	 * @param scale
+	 *            the drawing scale (pixels per physics unit)
+	 * @param objects
+	 *            the obstacles that may be drawn
+	 */
+	public void begin(OrthographicCamera camera, Vector2 scale,
+			PooledList<Obstacle> objects) {
+		frame++;
+		drawn = 0;
+		culled = 0;
+
+		int count = 0;
+		for (Obstacle obj : objects) {
+			Entry e = entries.get(obj);
+			if (e == null) {
+				e = new Entry();
+				e.obj = obj;
+				entries.put(obj, e);
+				place(e);
+			} else if (canMove(obj)) {
+				place(e);
+			}
+			e.seen = frame;
+			count++;
+		}
+		if (count != entries.size) {
+			ObjectMap.Values<Entry> values = entries.values();
+			while (values.hasNext()) {
+				Entry e = values.next();
+				if (e.seen != frame) {
+					unbin(e);
+					values.remove();
+				}
+			}
+		}
+
+		float hw = camera.viewportWidth * camera.zoom / 2.0f;
+		float hh = camera.viewportHeight * camera.zoom / 2.0f;
+		vlx = (camera.position.x - hw) / scale.x;
+		vux = (camera.position.x + hw) / scale.x;
+		vly = (camera.position.y - hh) / scale.y;
+		vuy = (camera.position.y + hh) / scale.y;
+		int c0 = colOf(vlx), c1 = colOf(vux);
+		int r0 = rowOf(vly), r1 = rowOf(vuy);
+		for (int i = c0; i <= c1; i++) {
+			for (int j = r0; j <= r1; j++) {
+				Array<Entry> cell = cells[i * rows + j];
+				for (int k = 0; k < cell.size; k++) {
+					Entry e = cell.get(k);
+					if (e.visible != frame && e.ux >= vlx && e.lx <= vux
+							&& e.uy >= vly && e.ly <= vuy) {
+						e.visible = frame;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if an obstacle is on screen this frame.
+	 *
+	 * Obstacles the culler has not seen yet (added since begin()) are
+	 * treated as visible.
+	 *
+	 * @param obj
+	 *            the obstacle to test
+	 *
+	 * @return true if the obstacle is on screen this frame.
+	 */
+	public boolean isVisible(Obstacle obj) {
+		Entry e = entries.get(obj);
+		if (e == null || e.visible == frame) {
+			drawn++;
+			return true;
+		}
+		culled++;
+		return false;
+	}
+
+	/**
+	 * Returns the number of obstacles drawn this frame
+	 *
+	 * @return the number of obstacles drawn this frame
+	 */
+	public int getDrawn() {
+		return drawn;
+	}
+
+	/**
+	 * Returns the number of obstacles culled this frame
+	 *
+	 * @return the number of obstacles culled this frame
+	 */
+	public int getCulled() {
+		return culled;
+	}
+
+	/** Whether an obstacle's box has to be read again every frame */
+	private static boolean canMove(Obstacle obj) {
+		return obj instanceof ComplexObstacle
+				|| (obj.getBodyType() != BodyType.StaticBody && obj.isAwake());
+	}
+
+	/**
+	 * Returns the box of an obstacle.
+	 *
+	 * A complex obstacle's own box is placed around the point it was built at,
+	 * which is not where its parts swing or fall to, so it is boxed by the union
+	 * of its parts' boxes instead.
+	 */
+	private Rectangle boundsOf(Obstacle obj) {
+		if (!(obj instanceof ComplexObstacle)) {
+			return obj.getBoundingBox();
+		}
+		boolean empty = true;
+		for (Obstacle part : ((ComplexObstacle) obj).getBodies()) {
+			if (part.isRemoved()) {
+				continue;
+			}
+			if (empty) {
+				union.set(part.getBoundingBox());
+				empty = false;
+			} else {
+				union.merge(part.getBoundingBox());
+			}
+		}
+		return empty ? obj.getBoundingBox() : union;
+	}
+
+	/** Reads an obstacle's box, moving it to other cells if it changed */
+	private void place(Entry e) {
+		Rectangle box = boundsOf(e.obj);
+		e.lx = box.x - MARGIN;
+		e.ly = box.y - MARGIN;
+		e.ux = box.x + box.width + MARGIN;
+		e.uy = box.y + box.height + MARGIN;
+		int c0 = colOf(e.lx), c1 = colOf(e.ux);
+		int r0 = rowOf(e.ly), r1 = rowOf(e.uy);
+		if (c0 == e.c0 && c1 == e.c1 && r0 == e.r0 && r1 == e.r1) {
+			return;
+		}
+		unbin(e);
+		e.c0 = c0;
+		e.c1 = c1;
+		e.r0 = r0;
+		e.r1 = r1;
+		for (int i = c0; i <= c1; i++) {
+			for (int j = r0; j <= r1; j++) {
+				cells[i * rows + j].add(e);
+			}
+		}
+	}
+
+	private void unbin(Entry e) {
+		if (e.c0 < 0) {
+			return;
+		}
+		for (int i = e.c0; i <= e.c1; i++) {
+			for (int j = e.r0; j <= e.r1; j++) {
+				cells[i * rows + j].removeValue(e, true);
+			}
+		}
+		e.c0 = -1;
+	}
+
+	private int colOf(float x) {
+		return Math.max(0, Math.min(cols - 1, (int) Math.floor(x / CELL_SIZE)));
+	}
+
+	private int rowOf(float y) {
+		return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / CELL_SIZE)));
+	}
+}
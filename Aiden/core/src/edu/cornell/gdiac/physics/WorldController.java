@@ -103,6 +103,12 @@ public abstract class WorldController implements Screen {
 	public static final int WORLD_VELOC = 6;
 	/** Number of position iterations for the constrain solvers */
 	public static final int WORLD_POSIT = 2;
+	/** Default cap on the number of physics steps taken in a single frame */
+	public static final int DEFAULT_MAX_SUBSTEPS = 5;
+	/** Local file the profiler trace is written to, one line per frame */
+	public static final String PROFILE_CSV = "profile.csv";
+	/** Local file the profiler history is dumped to when a trace stops */
+	public static final String PROFILE_JSON = "profile.json";
 
 	/** Width of the game world in Box2d units */
 	protected static final float DEFAULT_WIDTH = 60.0f;
@@ -135,8 +141,14 @@ public abstract class WorldController implements Screen {
 	private boolean failed;
 	/** Whether or not debug mode is active */
 	protected boolean debug;
+	/** Frame time not yet consumed by a physics step */
+	protected float accumulator;
+	/** The maximum number of physics steps to take in a single frame */
+	private int maxSubsteps = DEFAULT_MAX_SUBSTEPS;
 	/** Countdown active for winning or losing */
 	protected int countdown;
+	/** Skips drawing the obstacles that are off screen */
+	protected ViewCuller culler;
 	private boolean drawFail;
 	protected Stage stage;
 	public int st;
@@ -167,6 +179,33 @@ public abstract class WorldController implements Screen {
 		debug = value;
 	}
 
+	/**
+	 * Returns the maximum number of physics steps taken in a single frame.
+	 *
+	 * Physics runs at a fixed rate of WORLD_STEP. If a frame takes too long,
+	 * the time beyond this many steps is dropped and the game slows down
+	 * instead of spiraling.
+	 *
+	 * @return the maximum number of physics steps taken in a single frame.
+	 */
+	public int getMaxSubsteps() {
+		return maxSubsteps;
+	}
+
+	/**
+	 * Sets the maximum number of physics steps taken in a single frame.
+	 *
+	 * Physics runs at a fixed rate of WORLD_STEP. If a frame takes too long,
+	 * the time beyond this many steps is dropped and the game slows down
+	 * instead of spiraling.
+	 *
+	 * @param value
+	 *            the maximum number of physics steps in a frame (at least 1)
+	 */
+	public void setMaxSubsteps(int value) {
+		maxSubsteps = Math.max(1, value);
+	}
+
 	/**
 	 * Returns true if the level is completed.
 	 *
@@ -231,6 +270,15 @@ public abstract class WorldController implements Screen {
 		return active;
 	}
 
+	/**
+	 * Returns the objects in the world, in the order they are updated
+	 *
+	 * @return the objects in the world
+	 */
+	public PooledList<Obstacle> getObjects() {
+		return objects;
+	}
+
 	/**
 	 * Returns the canvas associated with this controller
 	 *
@@ -303,8 +351,11 @@ public abstract class WorldController implements Screen {
 	protected WorldController(Rectangle bounds, Vector2 gravity) {
 		assets = new Array<String>();
 		world = new World(gravity, false);
+		world.setAutoClearForces(false);
 		this.bounds = new Rectangle(bounds);
 		this.scale = new Vector2(1, 1);
+		culler = new ViewCuller();
+		culler.reset(bounds.width, bounds.height);
 		complete = false;
 		failed = false;
 		debug = false;
@@ -379,6 +430,16 @@ public abstract class WorldController implements Screen {
 	 * This method disposes of the world and creates a new one.
 	 */
 	public abstract void reset();
+
+	/**
+	 * Restarts the current level, as when the player chooses to retry it.
+	 *
+	 * By default this is a full reset().  Controllers that can rewind their
+	 * level in place override this to restart without rebuilding the world.
+	 */
+	public void softReset() {
+		reset();
+	}
 	
 	protected float count = 0.4f;
 	/**
@@ -417,7 +478,7 @@ public abstract class WorldController implements Screen {
 					count = 0.2f;
 					this.pause();
 					restart = true;
-					reset();
+					softReset();
 					af.clap.stop();
 					af.loser.stop();
 				}
@@ -450,7 +511,10 @@ public abstract class WorldController implements Screen {
 			
 		}
 		InputController input = InputController.getInstance();
+		Profiler profiler = Profiler.getInstance();
+		profiler.begin(Profiler.INPUT);
 		input.readInput(bounds, scale);
+		profiler.end(Profiler.INPUT);
 		if (listener == null) {
 			return true;
 		}
@@ -460,9 +524,22 @@ public abstract class WorldController implements Screen {
 			debug = !debug;
 		}
 
+		// Toggle the profiler overlay, and the trace written alongside it
+		if (input.didProfile()) {
+			profiler.setEnabled(!profiler.isEnabled());
+		}
+		if (input.didTrace()) {
+			if (profiler.isTracing()) {
+				profiler.stopTrace();
+				profiler.writeJson(Gdx.files.local(PROFILE_JSON));
+			} else {
+				profiler.startTrace(Gdx.files.local(PROFILE_CSV));
+			}
+		}
+
 		// Handle resets
 		if (input.didReset()) {
-			reset();
+			softReset();
 		}
 		// Now it is time to maybe switch screens.
 		if (input.didPause() && !isComplete() && !isFailure()){
@@ -527,8 +604,30 @@ public abstract class WorldController implements Screen {
 			addObject(addQueue.poll());
 		}
 
-		// Turn the physics engine crank.
-		world.step(WORLD_STEP, WORLD_VELOC, WORLD_POSIT);
+		// Turn the physics engine crank at a fixed rate, however long the frame was.
+		// Forces from update() are kept for every step and cleared afterwards;
+		// if the frame was too short to step, they carry over to the next one.
+		accumulator = Math.min(accumulator + dt, maxSubsteps * WORLD_STEP);
+		int steps = (int)(accumulator / WORLD_STEP);
+		for (int ii = 0; ii < steps; ii++) {
+			if (ii == steps - 1) {
+				// Draw positions are interpolated across the last step only
+				for (Obstacle obj : objects) {
+					obj.savePreviousTransform();
+				}
+			}
+			preStep();
+			Profiler.getInstance().begin(Profiler.PHYSICS);
+			world.step(WORLD_STEP, WORLD_VELOC, WORLD_POSIT);
+			Profiler.getInstance().end(Profiler.PHYSICS);
+			Obstacle.nextStep();
+			postStep();
+		}
+		accumulator -= steps * WORLD_STEP;
+		if (steps > 0) {
+			world.clearForces();
+		}
+		Obstacle.setInterpolation(accumulator / WORLD_STEP);
 
 		// Garbage collect the deleted objects.
 		// Note how we use the linked list nodes to delete O(1) in place.
@@ -554,6 +653,24 @@ public abstract class WorldController implements Screen {
 		}
 	}
 
+	/**
+	 * Called right before every physics step.
+	 *
+	 * Subclasses can constrain bodies here instead of in the contact callbacks,
+	 * which run once per contact rather than once per body.
+	 */
+	protected void preStep() {
+	}
+
+	/**
+	 * Called right after every physics step.
+	 *
+	 * Subclasses can constrain bodies here instead of in the contact callbacks,
+	 * which run once per contact rather than once per body.
+	 */
+	protected void postStep() {
+	}
+
 	/**
 	 * Draw the physics objects to the canvas
 	 *
@@ -569,8 +686,11 @@ public abstract class WorldController implements Screen {
 		canvas.clear();
 
 		canvas.begin();
+		culler.begin((OrthographicCamera) canvas.getCamera(), scale, objects);
 		for (Obstacle obj : objects) {
-			obj.draw(canvas);
+			if (culler.isVisible(obj)) {
+				obj.draw(canvas);
+			}
 		}
 		canvas.end();
 
@@ -620,11 +740,20 @@ public abstract class WorldController implements Screen {
 	 */
 	public void render(float delta) {
 		if (active) {
+			Profiler profiler = Profiler.getInstance();
+			InputController input = InputController.getInstance();
+			// A replayed frame brings its recorded time step
+			delta = input.beginFrame(delta);
+			profiler.beginFrame();
 			if (preUpdate(delta)) {
 				update(delta); // This is the one that must be defined.
 				postUpdate(delta);
 			}
+			profiler.begin(Profiler.DRAW);
 			draw(delta);
+			profiler.end(Profiler.DRAW);
+			profiler.endFrame();
+			input.endFrame();
 		}
 	}
 
@@ -2,69 +2,158 @@ package edu.cornell.gdiac.physics.ai;
 
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
 
 import edu.cornell.gdiac.physics.GameCanvas;
-import edu.cornell.gdiac.physics.ai.NavBoard.NavTile;
-import edu.cornell.gdiac.physics.ai.NavBoard.TileType;
 import edu.cornell.gdiac.physics.ai.SightDetector.IntersectionRecord;
 import edu.cornell.gdiac.physics.blocks.FlammableBlock;
 import edu.cornell.gdiac.physics.character.AidenModel;
 import edu.cornell.gdiac.physics.character.CharacterModel;
+import edu.cornell.gdiac.physics.character.FSMNode.BasicFSMState;
 import edu.cornell.gdiac.physics.character.GameEvent;
 import edu.cornell.gdiac.physics.obstacle.Obstacle;
 import edu.cornell.gdiac.physics.scene.Scene;
 import edu.cornell.gdiac.util.PooledList;
+import edu.cornell.gdiac.util.RandomController;
 
 public class AIController {
 	private SightDetector sightDetector;
-	private PathFinder pathFinder;
 	
+	private float lx, ly;
 	private float unitX, unitY;
+	// One field per chased target cell, shared by the npcs chasing it
+	private IntMap<DistanceField> fields=new IntMap<DistanceField>();
+	private Array<DistanceField> spareFields=new Array<DistanceField>();
+	private ArrayList<GameEvent> events=new ArrayList<GameEvent>();
+	private ArrayList<DistanceField> npcFields=new ArrayList<DistanceField>();
 	
 	NavBoard board;
 	PooledList<Obstacle> objs; //Temp
 	Scene scene; //Temp
 	
-	ArrayList<IntersectionRecord> detected;
-	ArrayList<IntersectionRecord> close;
+	ArrayList<IntersectionRecord> detected=new ArrayList<IntersectionRecord>();
+	ArrayList<IntersectionRecord> close=new ArrayList<IntersectionRecord>();
+	SpatialGrid sightGrid;
 	
 	private static final float MIN_WAITTIME=0.5f;
 	private static final float MAX_WAITTIME=2f;
 	
 	private static final float MAX_SENSING_RADIUS=2f;
 	private static final float MAX_ATTACKING_RADIUS=1f;
+	private static final float SIGHT_CELL_SIZE=2f;
 	
 	public AIController(Scene scene, float lx, float ly, float ux, 
 			float uy, float unitX, float unitY, PooledList<Obstacle> objects){
 		this.scene=scene;
 		board=new NavBoard(lx, ly, ux, uy, unitX, unitY);
+		this.lx=lx;
+		this.ly=ly;
 		this.unitX=unitX;
 		this.unitY=unitY;
 		this.objs=objects;
 		sightDetector=new SightDetector();
-		pathFinder=new PathFinder();
+		sightGrid=new SpatialGrid(lx, ly, ux, uy, SIGHT_CELL_SIZE);
+		// Static terrain is rasterized once here
+		board.setupBoard(objs);
 	}
 	
 	public void nextMove(ArrayList<CharacterModel> npcs){
+		boolean updated=false;
+		events.clear();
 		for (CharacterModel npc:npcs){
+			GameEvent e=null;
 			if (npc.canChangeMove()){
-				board.setupBoard(new ArrayList<Obstacle>(objs), npc);
-				GameEvent e=sensing(npc);
-				npc.getStateMachine().transit(e);
+				if (!updated){
+					board.update(objs);
+					SightDetector.fillGrid(sightGrid, objs);
+					updated=true;
+				}
+				e=sensing(npc);
 			}
+			events.add(e);
 		}
-		for (CharacterModel npc:npcs){
-			if (npc.canChangeMove()){
-				board.setupBoard(new ArrayList<Obstacle>(objs), npc);
-				computeMove(npc);
+		if (!updated) return;
+		// Each npc follows its own target, but npcs chasing the same
+		// target share the field built from it
+		for (DistanceField f:fields.values()){
+			spareFields.add(f);
+		}
+		fields.clear();
+		npcFields.clear();
+		for (int i=0; i<npcs.size(); i++){
+			CharacterModel npc=npcs.get(i);
+			GameEvent e=events.get(i);
+			DistanceField field=null;
+			if (e!=null && npc.getTarget()!=null && (e.hasSeenFire()==1 
+					|| npc.getStateMachine().getCurrentState()==BasicFSMState.CHASE)){
+				field=fieldFor(npc);
+			}
+			npcFields.add(field);
+		}
+		for (int i=0; i<npcs.size(); i++){
+			GameEvent e=events.get(i);
+			if (e==null) continue;
+			if (e.hasSeenFire()==1){
+				e.setCanReachTarget(nextStep(npcs.get(i), npcFields.get(i))==DistanceField.UNREACHABLE? -1: 1);
 			}
+			npcs.get(i).getStateMachine().transit(e);
+		}
+		for (int i=0; i<npcs.size(); i++){
+			if (npcs.get(i).canChangeMove()){
+				computeMove(npcs.get(i), npcFields.get(i));
+			}
+		}
+	}
+	
+	/*
+	 *  Field towards the npc's target, built the first time a target cell
+	 *  is asked for in this tick
+	 */
+	private DistanceField fieldFor(CharacterModel npc){
+		Vector2 pos=npc.getTarget();
+		int tx=(int) ((pos.x-lx)/unitX), ty=(int) ((pos.y-ly)/unitY);
+		int key=board.index(Math.max(0, Math.min(board.getWidth()-1, tx)), 
+				Math.max(0, Math.min(board.getHeight()-1, ty)));
+		DistanceField field=fields.get(key);
+		if (field==null){
+			field=spareFields.size>0? spareFields.pop(): new DistanceField();
+			board.resetSearch();
+			markTargets(tx, ty);
+			field.build(board);
+			fields.put(key, field);
+		}
+		return field;
+	}
+	
+	private int startCell(CharacterModel npc){
+		Vector2 pos=npc.getPosition();
+		return board.castAround((int) ((pos.x-lx)/unitX), (int) ((pos.y-ly)/unitY));
+	}
+	
+	private boolean isSafeToWalkOn(int i, int j){
+		return board.isValidCell(i, j) && board.isWalkable(board.index(i, j));
+	}
+	
+	private void markTargets(int tx, int ty){
+		int radius=(int) (MAX_ATTACKING_RADIUS/unitX);
+		for (int dx=-radius; dx<=radius; dx++){
+			board.markTarget(board.castAround(tx+dx, ty));
 		}
 	}
 	
+	/*
+	 *  Horizontal direction of the next step towards the npc's target
+	 *  (-1, 0 or 1), or DistanceField.UNREACHABLE if it has no field
+	 */
+	private int nextStep(CharacterModel npc, DistanceField field){
+		if (field==null) return DistanceField.UNREACHABLE;
+		return field.getDirection(board, startCell(npc));
+	}
+	
 	public GameEvent sensing(CharacterModel npc){
 		// Must set all the fields of game event
 		
@@ -73,13 +162,13 @@ public class AIController {
 		e.setSpawned(npc.isSpawned()? 1: -1);
 		
 		// Check isCloseToFire
-		close=sightDetector.detectObjectInSight(npc, 0, SightDetector.WHOLE_FOV, 
-				scene, new ArrayList<Obstacle>(objs));
+		sightDetector.detectObjectInSight(npc, 0, SightDetector.WHOLE_FOV, 
+				sightGrid, close);
 		
 		// Check hasSeenFire
 		// Check hasSeenAiden; same thing as hasSeenFire?
-		detected=sightDetector.detectObjectInSight(npc, SightDetector.FOV, 
-				scene, new ArrayList<Obstacle>(objs));
+		sightDetector.detectObjectInSight(npc, SightDetector.FOV, 
+				sightGrid, detected);
 		for (IntersectionRecord inter: detected){
 			if ((inter.obj instanceof FlammableBlock && ((FlammableBlock)inter.obj).isBurning() )
 					|| inter.obj instanceof AidenModel){
@@ -87,29 +176,7 @@ public class AIController {
 				npc.setTarget(inter.obj.getPosition());
 			}
 		}
-		if (e.hasSeenFire()==1){
-			float lx=npc.getPosition().x-npc.getWidth()/2;
-			float ly=npc.getPosition().y-npc.getHeight()/2;			
-			float ux=npc.getPosition().x+npc.getWidth()/2;
-			float uy=npc.getPosition().y+npc.getHeight()/2;
-			Vector2 lInd=board.convertToBoardCoord(new Vector2(lx, ly));
-			Vector2 uInd=board.convertToBoardCoord(new Vector2(ux, uy));
-			Vector2 start=board.castAround(board.convertToBoardCoord(npc.getPosition()));
-			Vector2 target=board.convertToBoardCoord(npc.getTarget());
-			int radius=(int) (MAX_ATTACKING_RADIUS/unitX);
-			for (int dx=-radius; dx<=radius; dx++){
-					board.getTile(board.castAround(new Vector2(target.x+dx, target.y)))
-						.markAsTarget();
-			}	
-			Vector2 move=pathFinder.findPath(board, board.converToWorldCoord(start));	
-			if (Math.abs(move.x)>1 || Math.abs(move.y)>1){
-				e.setCanReachTarget(-1);
-			}
-			else{
-				e.setCanReachTarget(1);
-			}
-//			System.out.println(move);
-		}
+		// canReachTarget is filled in by nextMove once the field is built
 		if (e.hasSeenFire()==0) {
 			e.setSeenFire(-1);
 			e.setSeenAiden(-1);
@@ -122,15 +189,9 @@ public class AIController {
 		return e;
 	}
 	
-	private void computeMove(CharacterModel npc){
-		Random r=new Random();
-		float lx=npc.getPosition().x-npc.getWidth()/2;
-		float ly=npc.getPosition().y-npc.getHeight()/2;			
-		float ux=npc.getPosition().x+npc.getWidth()/2;
-		float uy=npc.getPosition().y+npc.getHeight()/2;
-		Vector2 lInd=board.convertToBoardCoord(new Vector2(lx, ly));
-		Vector2 uInd=board.convertToBoardCoord(new Vector2(ux, uy));
-		Vector2 start=board.castAround(board.convertToBoardCoord(npc.getPosition()));
+	private void computeMove(CharacterModel npc, DistanceField field){
+		int start=startCell(npc);
+		int sx=board.cellX(start), sy=board.cellY(start);
 		switch (npc.getStateMachine().getCurrentState()){
 		case SPAWN:
 			// Still
@@ -145,9 +206,7 @@ public class AIController {
 			boolean allTrueLeft=true, allTrueRight=true, allTrueForward=true;
 			if (npc.getMovement()!=0){
 				for (int ran=1; ran<=range; ran++){
-					Vector2 temp=new Vector2(start.x+(npc.getMovement()>0? ran: -ran), start.y);
-					NavTile forward=board.getTile(board.convertToBoardCoord(temp));
-					allTrueForward=allTrueForward && forward!=null && forward.isSafeToWalkOn();
+					allTrueForward=allTrueForward && isSafeToWalkOn(sx+(npc.getMovement()>0? ran: -ran), sy);
 				}
 				if (!allTrueForward) {
 					npc.setMovement(0);
@@ -155,13 +214,11 @@ public class AIController {
 				break;
 			}
 			for (int ran=1; ran<=range; ran++){
-				NavTile left=board.getTile(board.convertToBoardCoord(new Vector2(start.x-ran, start.y)));
-				NavTile right=board.getTile(board.convertToBoardCoord(new Vector2(start.x+ran, start.y)));
-				allTrueLeft=allTrueLeft && left!=null && left.isSafeToWalkOn();
-				allTrueRight=allTrueRight && right!=null && right.isSafeToWalkOn();
+				allTrueLeft=allTrueLeft && isSafeToWalkOn(sx-ran, sy);
+				allTrueRight=allTrueRight && isSafeToWalkOn(sx+ran, sy);
 			}
 			if (allTrueLeft && allTrueRight){
-				if (r.nextFloat()>0.5) {
+				if (RandomController.rollFloat(0, 1)>0.5) {
 					npc.setMovement(5f*npc.getForce());
 				}
 				else {
@@ -175,7 +232,7 @@ public class AIController {
 				npc.setMovement(5f*npc.getForce());
 			}
 			else {
-				if (r.nextFloat()<0.3f) npc.turnAround();
+				if (RandomController.rollFloat(0, 1)<0.3f) npc.turnAround();
 			}
 //			float prob=r.nextFloat();
 //			// If is moving
@@ -213,17 +270,10 @@ public class AIController {
 //					}
 //				}
 //			}
-			Vector2 target=board.convertToBoardCoord(npc.getTarget());
-			int radius=(int) (MAX_ATTACKING_RADIUS/unitX);
-			for (int dx=-radius; dx<=radius; dx++){
-					board.getTile(board.castAround(new Vector2(target.x+dx, target.y)))
-						.markAsTarget();
-			}
-					
-			Vector2 move=pathFinder.findPath(board, board.converToWorldCoord(start));		
+			int step=nextStep(npc, field);
 //			float far=Math.min(npc.getTarget().dst(npc.getPosition()), 1f)/1f;
-			if (move.x==1) npc.setMovement(5f*npc.getForce());
-			else if (move.x==-1) npc.setMovement(-5f*npc.getForce());
+			if (step==1) npc.setMovement(5f*npc.getForce());
+			else if (step==-1) npc.setMovement(-5f*npc.getForce());
 			else npc.setMovement(0);
 			break;
 		default: assert(false);
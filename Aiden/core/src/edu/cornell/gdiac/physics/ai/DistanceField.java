@@ -0,0 +1,115 @@
+package edu.cornell.gdiac.physics.ai;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/*
+ *  Cost-to-target for every cell of a NavBoard, computed once per AI tick
+ *  and chased target by a reverse Dijkstra from the marked target cells.
+ *  Costs match PathFinder. Each cell also keeps the link that starts its
+ *  cheapest path, so every npc chasing that target reads its next move
+ *  in O(1).
+ */
+public class DistanceField {
+	public static final int UNREACHABLE=Integer.MAX_VALUE;
+
+	private int[] dist=new int[0];
+	private int[] next=new int[0];
+	private int[] closedStamp=new int[0];
+	private int gen=0;
+	private IntHeap open=new IntHeap(256);
+
+	// Reverse link graph in CSR form, rebuilt when the board version changes
+	private int[] inStart=new int[1];
+	private int[] inLinks=new int[0];
+	private int reverseVersion=-1;
+	private NavBoard reverseBoard;
+
+	public void build(NavBoard board){
+		int n=board.getCellCount();
+		if (dist.length!=n){
+			dist=new int[n];
+			next=new int[n];
+			closedStamp=new int[n];
+			gen=0;
+		}
+		if (reverseBoard!=board || reverseVersion!=board.getVersion()){
+			buildReverse(board);
+		}
+		Arrays.fill(dist, UNREACHABLE);
+		gen++;
+		open.clear();
+		IntArray targets=board.getTargets();
+		for (int k=0; k<targets.size; k++){
+			int t=targets.get(k);
+			dist[t]=0;
+			next[t]=t;
+			open.push(t, 0);
+		}
+		while (!open.isEmpty()){
+			int head=open.pop();
+			if (closedStamp[head]==gen) continue;
+			closedStamp[head]=gen;
+			for (int k=inStart[head]; k<inStart[head+1]; k++){
+				int from=inLinks[k];
+				if (closedStamp[from]==gen) continue;
+				int d=dist[head]+PathFinder.stepCost(board, from, head);
+				if (d<dist[from]){
+					dist[from]=d;
+					next[from]=head;
+					open.push(from, d);
+				}
+			}
+		}
+	}
+
+	private void buildReverse(NavBoard board){
+		int n=board.getCellCount();
+		if (inStart.length!=n+1) inStart=new int[n+1];
+		Arrays.fill(inStart, 0);
+		int total=0;
+		for (int c=0; c<n; c++){
+			for (int k=0; k<board.getLinkCount(c); k++){
+				inStart[board.getLink(c, k)+1]++;
+				total++;
+			}
+		}
+		for (int c=0; c<n; c++){
+			inStart[c+1]+=inStart[c];
+		}
+		if (inLinks.length<total) inLinks=new int[total];
+		// Fill using next[] as a per-cell cursor, it is rewritten by build()
+		if (next.length!=n) next=new int[n];
+		System.arraycopy(inStart, 0, next, 0, n);
+		for (int c=0; c<n; c++){
+			for (int k=0; k<board.getLinkCount(c); k++){
+				int to=board.getLink(c, k);
+				inLinks[next[to]++]=c;
+			}
+		}
+		reverseBoard=board;
+		reverseVersion=board.getVersion();
+	}
+
+	public int getDistance(int c){
+		return dist[c];
+	}
+
+	/*
+	 *  Next cell on the cheapest path from c, c itself on a target,
+	 *  or -1 if no target is reachable.
+	 */
+	public int getNext(int c){
+		return dist[c]==UNREACHABLE? -1: next[c];
+	}
+
+	/*
+	 *  Horizontal direction of the next step from c (-1, 0 or 1),
+	 *  or UNREACHABLE.
+	 */
+	public int getDirection(NavBoard board, int c){
+		if (c<0 || dist[c]==UNREACHABLE) return UNREACHABLE;
+		return Integer.signum(board.cellX(next[c])-board.cellX(c));
+	}
+}
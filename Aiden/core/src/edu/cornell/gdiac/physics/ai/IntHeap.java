@@ -0,0 +1,68 @@
+package edu.cornell.gdiac.physics.ai;
+
+/*
+ *  Binary min-heap of cell indices keyed by an int cost.
+ *  Duplicates are allowed; callers skip stale entries with a closed set.
+ */
+public class IntHeap {
+	private int[] items;
+	private int[] keys;
+	private int size=0;
+
+	public IntHeap(int capacity){
+		items=new int[Math.max(capacity, 16)];
+		keys=new int[items.length];
+	}
+
+	public void clear(){
+		size=0;
+	}
+
+	public boolean isEmpty(){
+		return size==0;
+	}
+
+	public int size(){
+		return size;
+	}
+
+	public void push(int c, int key){
+		if (size==items.length){
+			int[] next=new int[items.length*2];
+			int[] nextKey=new int[items.length*2];
+			System.arraycopy(items, 0, next, 0, size);
+			System.arraycopy(keys, 0, nextKey, 0, size);
+			items=next;
+			keys=nextKey;
+		}
+		int k=size++;
+		while (k>0){
+			int p=(k-1)/2;
+			if (keys[p]<=key) break;
+			items[k]=items[p];
+			keys[k]=keys[p];
+			k=p;
+		}
+		items[k]=c;
+		keys[k]=key;
+	}
+
+	public int pop(){
+		int top=items[0];
+		int c=items[--size];
+		int key=keys[size];
+		int k=0;
+		while (true){
+			int l=2*k+1, r=l+1, m=l;
+			if (l>=size) break;
+			if (r<size && keys[r]<keys[l]) m=r;
+			if (key<=keys[m]) break;
+			items[k]=items[m];
+			keys[k]=keys[m];
+			k=m;
+		}
+		items[k]=c;
+		keys[k]=key;
+		return top;
+	}
+}
@@ -0,0 +1,49 @@
+package edu.cornell.gdiac.physics.ai;
+
+/*
+ *  Ring buffer of cell indices used as a search frontier.
+ *  Grows only when the board gets bigger, so searches never allocate.
+ */
+public class IntQueue {
+	private int[] items;
+	private int head=0, size=0;
+
+	public IntQueue(int capacity){
+		items=new int[Math.max(capacity, 16)];
+	}
+
+	public void clear(){
+		head=0;
+		size=0;
+	}
+
+	public boolean isEmpty(){
+		return size==0;
+	}
+
+	public int size(){
+		return size;
+	}
+
+	public void add(int v){
+		if (size==items.length) grow();
+		items[(head+size)%items.length]=v;
+		size++;
+	}
+
+	public int remove(){
+		int v=items[head];
+		head=(head+1)%items.length;
+		size--;
+		return v;
+	}
+
+	private void grow(){
+		int[] next=new int[items.length*2];
+		for (int k=0; k<size; k++){
+			next[k]=items[(head+k)%items.length];
+		}
+		items=next;
+		head=0;
+	}
+}
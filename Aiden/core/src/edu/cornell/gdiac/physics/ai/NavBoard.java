@@ -1,32 +1,65 @@
 package edu.cornell.gdiac.physics.ai;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.CircleShape;
-import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
 
-import edu.cornell.gdiac.physics.AidenController;
 import edu.cornell.gdiac.physics.GameCanvas;
 import edu.cornell.gdiac.physics.blocks.FuelBlock;
 import edu.cornell.gdiac.physics.blocks.GoalDoor;
 import edu.cornell.gdiac.physics.blocks.Rope;
-import edu.cornell.gdiac.physics.character.AidenModel;
 import edu.cornell.gdiac.physics.character.CharacterModel;
-import edu.cornell.gdiac.physics.obstacle.BoxObstacle;
 import edu.cornell.gdiac.physics.obstacle.Obstacle;
 import edu.cornell.gdiac.physics.obstacle.PolygonObstacle;
-import edu.cornell.gdiac.physics.obstacle.SimpleObstacle;
 
+/*
+ *  Navigation grid stored in flat primitive arrays indexed by
+ *  cell=i*height+j. Every cell has at most MAX_LINKS outgoing links,
+ *  so the link table is a CSR layout with fixed-width rows:
+ *  links of cell c live in links[c*MAX_LINKS .. c*MAX_LINKS+linkCount[c]).
+ */
 public class NavBoard {
+
+	public static final int MAX_LINKS=2;
+	private static final TileType[] TYPES=TileType.values();
 	
 	private float lx, ly;
 	private float unitX, unitY;
 	private int width=0, height=0;
-	private NavTile[][] tiles;
 	private Vector2 drawScale;
+
+	private byte[] types;
+	private int[] links;
+	private byte[] linkCount;
+	// Number of obstacles covering each cell, kept across frames
+	private int[] occupancy;
+
+	// Bumped whenever types or links change, so cached paths can be dropped
+	private int version=0;
+
+	// Search scratch, generation-stamped so it never needs clearing
+	private int[] parent;
+	private int[] parentStamp;
+	private int searchGen=0;
+	private int[] targetStamp;
+	private int targetGen=0;
+	private IntArray targetCells=new IntArray();
+
+	private ObjectMap<Obstacle, Footprint> footprints;
+	private int frame=0;
+	private int dirtyLX, dirtyLY, dirtyUX, dirtyUY;
+	private int[] tmpRect=new int[4];
+	private FloatArray crossings=new FloatArray();
+
+	private NavTile[] views;
+	private CircleShape debugCircle;
 	
 	public NavBoard(float lx, float ly, float ux, float uy, float unitX, float unitY){
 		this.lx=lx;
@@ -35,14 +68,76 @@ public class NavBoard {
 		this.unitY=unitY;
 		width=(int) Math.ceil((ux-lx)/unitX);
 		height=(int) Math.ceil((uy-ly)/unitY);
-		tiles=new NavTile[width][height];
+		int n=width*height;
+		types=new byte[n];
+		links=new int[n*MAX_LINKS];
+		linkCount=new byte[n];
+		occupancy=new int[n];
+		parent=new int[n];
+		parentStamp=new int[n];
+		targetStamp=new int[n];
+		footprints=new ObjectMap<Obstacle, Footprint>();
+		views=new NavTile[n];
+		for (int c=0; c<n; c++){
+			views[c]=new NavTile(c/height, c%height);
+		}
 		clear();
 	}
+
+	public int getWidth(){
+		return width;
+	}
+
+	public int getHeight(){
+		return height;
+	}
+
+	public int getCellCount(){
+		return width*height;
+	}
+
+	public int index(int i, int j){
+		return i*height+j;
+	}
+
+	public int cellX(int c){
+		return c/height;
+	}
+
+	public int cellY(int c){
+		return c%height;
+	}
+
+	public boolean isValidCell(int i, int j){
+		return i>=0 && i<width && j>=0 && j<height;
+	}
+
+	/*
+	 *  Cell containing the world point, or -1 if off the board
+	 */
+	public int cellAt(float x, float y){
+		int i=(int)((x-lx)/unitX);
+		int j=(int)((y-ly)/unitY);
+		if (x<lx || y<ly || !isValidCell(i, j)) return -1;
+		return index(i, j);
+	}
+
+	public Vector2 cellCenter(int c, Vector2 out){
+		return out.set((cellX(c)+0.5f)*unitX+lx, (cellY(c)+0.5f)*unitY+ly);
+	}
+
+	public float getUnitX(){
+		return unitX;
+	}
+
+	public float getUnitY(){
+		return unitY;
+	}
 	
 	public Vector2 convertToBoardCoord(Vector2 in){
 		Vector2 out=new Vector2();
 		out.x=(int)((in.x-lx)/unitX);
-		out.y=(int)((in.y-ly)/unitX);
+		out.y=(int)((in.y-ly)/unitY);
 		return out;		
 	}
 	
@@ -53,178 +148,318 @@ public class NavBoard {
 		return out;
 	}
 	public void clear(){
-		for (int i=0; i<width; i++){
-			for (int j=0; j<height; j++){
-				tiles[i][j]=new NavTile(i, j);
-			}
-		}
+		Arrays.fill(types, (byte) TileType.NONE.ordinal());
+		Arrays.fill(linkCount, (byte) 0);
+		Arrays.fill(occupancy, 0);
+		footprints.clear();
+		version++;
+		resetSearch();
 	}
 	public NavTile getTile(Vector2 indices){
 		if (isValidBoardCoord(indices)){
-			return tiles[(int) indices.x][(int) indices.y];
+			return views[index((int) indices.x, (int) indices.y)];
 		}
 		else 
 			return null;
 	}
+
+	public NavTile getTile(int c){
+		return views[c];
+	}
+
+	public TileType getType(int c){
+		return TYPES[types[c]];
+	}
+
+	public boolean isWalkable(int c){
+		int t=types[c];
+		return t!=TileType.NONE.ordinal() && t!=TileType.DANGER.ordinal()
+				&& t!=TileType.SUPPORT.ordinal();
+	}
+
+	public int getLinkCount(int c){
+		return linkCount[c];
+	}
+
+	public int getLink(int c, int k){
+		return links[c*MAX_LINKS+k];
+	}
+
+	public int getVersion(){
+		return version;
+	}
+
+	/*
+	 *  Forget every parent set by the previous search, in O(1)
+	 */
+	public void beginSearch(){
+		searchGen++;
+	}
+
+	public int getParent(int c){
+		return parentStamp[c]==searchGen? parent[c]: -1;
+	}
+
+	public void setParent(int c, int p){
+		parent[c]=p;
+		parentStamp[c]=searchGen;
+	}
+
+	public boolean isTarget(int c){
+		return targetStamp[c]==targetGen;
+	}
+
+	public void markTarget(int c){
+		if (targetStamp[c]==targetGen) return;
+		targetStamp[c]=targetGen;
+		targetCells.add(c);
+	}
+
+	public IntArray getTargets(){
+		return targetCells;
+	}
+
 	/*
-	 *  Iterate over all objects, mark on board as occupied/platform 
-	 *  if any object overlaps the center point of a tile
+	 *  Full rebuild; only used at level load. Per tick the AI calls update()
 	 */
-	public void setupBoard(ArrayList<Obstacle> objs, CharacterModel self){
+	public void setupBoard(Iterable<Obstacle> objs){
 		clear();
+		update(objs);
+	}
+
+	/*
+	 *  Incremental update. Static obstacles are rasterized the first time
+	 *  they are seen; dynamic ones are re-rasterized only when the cells
+	 *  they cover change. Obstacles that disappeared (burnt, removed) are
+	 *  erased. Edge types and links are recomputed in the dirty region only.
+	 */
+	public void update(Iterable<Obstacle> objs){
+		frame++;
+		dirtyLX=width; dirtyLY=height;
+		dirtyUX=-1; dirtyUY=-1;
 		for (Obstacle obj: objs){
-//			Vector2 pos=obj.getPosition();
-			if (!(obj instanceof PolygonObstacle) &&
-					!(obj instanceof Rope) && !(obj instanceof AidenModel)
-					&& !obj.equals(self)
-					&& !(obj instanceof GoalDoor)
-					&& !(obj instanceof FuelBlock)){
-//				float w=((BoxObstacle)obj).getWidth();
-//				float h=((BoxObstacle)obj).getHeight();
-				Rectangle rec=obj.getBoundingBox();
-				int lIndX=Math.round((rec.x-lx)/unitX);
-				int lIndY=Math.round((rec.y-ly)/unitY);	
-				int uIndX=Math.round((rec.x+rec.width-lx)/unitX)-1;
-				int uIndY=Math.round((rec.y+rec.height-ly)/unitY)-1;	
-				// Need to add "Danger" cases
-				for (int i=Math.max(lIndX, 0); i<=Math.min(uIndX, width-1); i++){
-					for (int j=Math.max(lIndY,0); j<=Math.min(uIndY, height-1); j++){
-						// obj shouldn't be characters or flamming
-						markTile(i, j, TileType.SUPPORT);
-					}
-				}
+			if (!isNavigable(obj)) continue;
+			Footprint fp=footprints.get(obj);
+			if (fp==null){
+				fp=new Footprint();
+				footprints.put(obj, fp);
+				stamp(obj, fp);
 			}
-			else if (obj instanceof PolygonObstacle){
-				ArrayList<Vector2> frontier=new ArrayList<Vector2>();
-				Vector2 cen=convertToBoardCoord(((PolygonObstacle)obj).getPointMustInside());
-				tiles[(int) (cen.x)][(int) cen.y].type=TileType.SUPPORT;
-				frontier.add(cen);
-				while (frontier.size()>0){
-					Vector2 head=frontier.remove(0);
-					Vector2 p1=new Vector2(head.x-1, head.y);
-					if (head.x>=1 && tiles[(int) p1.x][(int) p1.y].type==TileType.NONE
-							&& ((PolygonObstacle)obj).contains(converToWorldCoord(p1))){
-						tiles[(int) p1.x][(int) p1.y].type=TileType.SUPPORT;
-						frontier.add(p1);
-					}
-					Vector2 p2=new Vector2(head.x+1, head.y);
-					if (head.x<=width-2 && tiles[(int) p2.x][(int) p2.y].type==TileType.NONE
-							&& ((PolygonObstacle)obj).contains(converToWorldCoord(p2))){
-						tiles[(int) p2.x][(int) p2.y].type=TileType.SUPPORT;
-						frontier.add(p2);
-					}
-					Vector2 p3=new Vector2(head.x, head.y-1);
-					if (head.y>=1 && tiles[(int) p3.x][(int) p3.y].type==TileType.NONE
-							&& ((PolygonObstacle)obj).contains(converToWorldCoord(p3))){
-						tiles[(int)p3.x][(int)p3.y].type=TileType.SUPPORT;
-						frontier.add(p3);
-					}
-					Vector2 p4=new Vector2(head.x, head.y+1);
-					if (head.y<=height-2 && tiles[(int) (p4.x)][(int) p4.y].type==TileType.NONE
-							&& ((PolygonObstacle)obj).contains(converToWorldCoord(p4))){
-						tiles[(int) (p4.x)][(int)p4.y].type=TileType.SUPPORT;
-						frontier.add(p4);
-					}
+			else if (obj.getBodyType()!=BodyType.StaticBody && !(obj instanceof PolygonObstacle)){
+				toCellRect(obj.getBoundingBox(), tmpRect);
+				if (!fp.sameRect(tmpRect)){
+					erase(fp);
+					stamp(obj, fp);
 				}
 			}
+			fp.seen=frame;
 		}
-		for (int i=0; i<width; i++){
-			for (int j=0; j<height; j++){
-				if (j>=1 && tiles[i][j].type==TileType.NONE && tiles[i][j-1].type==TileType.SUPPORT){
-					tiles[i][j].type=TileType.NONEDGE;
-					if (i>=1 && tiles[i-1][j-1].type==TileType.NONE)					
-						tiles[i][j].type=TileType.LEFTEDGE;
-					if (i<=width-2 && tiles[i+1][j-1].type==TileType.NONE)
-						if (tiles[i][j].type==TileType.LEFTEDGE){
-							tiles[i][j].type=TileType.SOLO;	
-						}
-						else{
-							tiles[i][j].type=TileType.RIGHTEDGE;	
-						}
+		ObjectMap.Entries<Obstacle, Footprint> it=footprints.entries();
+		while (it.hasNext()){
+			Footprint fp=it.next().value;
+			if (fp.seen!=frame){
+				erase(fp);
+				it.remove();
+			}
+		}
+		if (dirtyUX>=0) relink();
+	}
+
+	/*
+	 *  Reset the per-search markers without touching the geometry
+	 */
+	public void resetSearch(){
+		searchGen++;
+		targetGen++;
+		targetCells.clear();
+	}
+
+	private boolean isNavigable(Obstacle obj){
+		// Characters are not terrain: the board is shared by every npc
+		return !obj.isRemoved()
+				&& !(obj instanceof Rope) && !(obj instanceof CharacterModel)
+				&& !(obj instanceof GoalDoor)
+				&& !(obj instanceof FuelBlock);
+	}
+
+	private void toCellRect(Rectangle rec, int[] out){
+		out[0]=Math.max(Math.round((rec.x-lx)/unitX), 0);
+		out[1]=Math.max(Math.round((rec.y-ly)/unitY), 0);
+		out[2]=Math.min(Math.round((rec.x+rec.width-lx)/unitX)-1, width-1);
+		out[3]=Math.min(Math.round((rec.y+rec.height-ly)/unitY)-1, height-1);
+	}
+
+	private void stamp(Obstacle obj, Footprint fp){
+		fp.cells.clear();
+		if (obj instanceof PolygonObstacle){
+			scanFill((PolygonObstacle) obj, fp);
+		}
+		else{
+			toCellRect(obj.getBoundingBox(), fp.rect);
+			for (int i=fp.rect[0]; i<=fp.rect[2]; i++){
+				for (int j=fp.rect[1]; j<=fp.rect[3]; j++){
+					fp.cells.add(index(i, j));
 				}
 			}
 		}
-		// Create links
-		for (int i=0; i<width; i++){ 
-			for (int j=0; j<height; j++){
-				switch (tiles[i][j].type){
-					case NONEDGE:
-						if (i>=1)
-							tiles[i][j].links.add(new Vector2(i-1, j));
-						if (i<=width-2)
-							tiles[i][j].links.add(new Vector2(i+1, j));
-						break;
-					case LEFTEDGE:
-						for (int sj=j-1; sj>=0; sj--){
-							if (tiles[i-1][sj].type!=TileType.NONE &&
-								tiles[i-1][sj].type!=TileType.DANGER &&
-								tiles[i-1][sj].type!=TileType.SUPPORT){
-								tiles[i][j].links.add(new Vector2(i-1, sj));
-								break;
-							}
-						}
-						break;
-					case RIGHTEDGE:
-						for (int sj=j-1; sj>=0; sj--){
-							if (tiles[i+1][sj].type!=TileType.NONE &&
-								tiles[i+1][sj].type!=TileType.DANGER &&
-								tiles[i+1][sj].type!=TileType.SUPPORT){
-								tiles[i][j].links.add(new Vector2(i+1, sj));
-								break;
-							}
-						}
-						break;
-					case SOLO:
-						for (int sj=j-1; sj>=0; sj--){
-							if (tiles[i-1][sj].type!=TileType.NONE &&
-								tiles[i-1][sj].type!=TileType.DANGER &&
-								tiles[i-1][sj].type!=TileType.SUPPORT){
-								tiles[i][j].links.add(new Vector2(i-1, sj));
-								break;
-							}
-						}
-						for (int sj=j-1; sj>=0; sj--){
-							if (tiles[i+1][sj].type!=TileType.NONE &&
-								tiles[i+1][sj].type!=TileType.DANGER &&
-								tiles[i+1][sj].type!=TileType.SUPPORT){
-								tiles[i][j].links.add(new Vector2(i+1, sj));
-								break;
-							}
-						}
-						break;	
-					default: break;
+		for (int k=0; k<fp.cells.size; k++){
+			int c=fp.cells.get(k);
+			occupancy[c]++;
+			markDirty(cellX(c), cellY(c));
+		}
+	}
+
+	private void erase(Footprint fp){
+		for (int k=0; k<fp.cells.size; k++){
+			int c=fp.cells.get(k);
+			occupancy[c]--;
+			markDirty(cellX(c), cellY(c));
+		}
+		fp.cells.clear();
+	}
+
+	/*
+	 *  Scanline fill: a cell is covered when its center is inside the
+	 *  polygon. Each row of the polygon's box asks the prepared edge table
+	 *  where the row's centerline crosses the outline, and fills the cells
+	 *  between each pair of crossings.
+	 */
+	private void scanFill(PolygonObstacle obj, Footprint fp){
+		toCellRect(obj.getBoundingBox(), fp.rect);
+		for (int j=Math.max(fp.rect[1]-1, 0); j<=Math.min(fp.rect[3]+1, height-1); j++){
+			obj.getCrossings((j+0.5f)*unitY+ly, crossings);
+			for (int k=0; k+1<crossings.size; k+=2){
+				int i0=(int) Math.ceil((crossings.get(k)-lx)/unitX-0.5f);
+				int i1=(int) Math.ceil((crossings.get(k+1)-lx)/unitX-0.5f)-1;
+				for (int i=Math.max(i0, 0); i<=Math.min(i1, width-1); i++){
+					fp.cells.add(index(i, j));
 				}
 			}
 		}
 	}
 	
-	private void markTile(int indx, int indy, TileType t){
-		this.tiles[indx][indy].type=t;
+	private void markDirty(int i, int j){
+		dirtyLX=Math.min(dirtyLX, i);
+		dirtyUX=Math.max(dirtyUX, i);
+		dirtyLY=Math.min(dirtyLY, j);
+		dirtyUY=Math.max(dirtyUY, j);
+	}
+
+	/*
+	 *  A tile's type depends on the two cells below it and below its neighbours;
+	 *  an edge's link depends on the whole column next to it, so links are
+	 *  refreshed two columns out and all the way up from the dirty rows.
+	 */
+	private void relink(){
+		version++;
+		int tlx=Math.max(dirtyLX-1, 0), tux=Math.min(dirtyUX+1, width-1);
+		int tly=dirtyLY, tuy=Math.min(dirtyUY+2, height-1);
+		for (int i=tlx; i<=tux; i++){
+			for (int j=tly; j<=tuy; j++){
+				types[index(i, j)]=(byte) classify(i, j).ordinal();
+			}
+		}
+		int llx=Math.max(dirtyLX-2, 0), lux=Math.min(dirtyUX+2, width-1);
+		for (int i=llx; i<=lux; i++){
+			for (int j=tly; j<height; j++){
+				link(i, j);
+			}
+		}
+	}
+
+	private TileType classify(int i, int j){
+		if (occupancy[index(i, j)]>0) return TileType.SUPPORT;
+		if (j<1 || occupancy[index(i, j-1)]==0) return TileType.NONE;
+		boolean left=i>=1 && isEmpty(i-1, j-1);
+		boolean right=i<=width-2 && isEmpty(i+1, j-1);
+		if (left && right) return TileType.SOLO;
+		if (left) return TileType.LEFTEDGE;
+		if (right) return TileType.RIGHTEDGE;
+		return TileType.NONEDGE;
+	}
+
+	// Same as classify(i, j)==NONE
+	private boolean isEmpty(int i, int j){
+		return occupancy[index(i, j)]==0 && (j<1 || occupancy[index(i, j-1)]==0);
+	}
+
+	private void link(int i, int j){
+		int c=index(i, j);
+		linkCount[c]=0;
+		switch (getType(c)){
+			case NONEDGE:
+				if (i>=1)
+					addLink(c, index(i-1, j));
+				if (i<=width-2)
+					addLink(c, index(i+1, j));
+				break;
+			case LEFTEDGE:
+				linkDown(c, i-1, j);
+				break;
+			case RIGHTEDGE:
+				linkDown(c, i+1, j);
+				break;
+			case SOLO:
+				linkDown(c, i-1, j);
+				linkDown(c, i+1, j);
+				break;
+			default: break;
+		}
+	}
+
+	private void linkDown(int c, int col, int j){
+		for (int sj=j-1; sj>=0; sj--){
+			if (isWalkable(index(col, sj))){
+				addLink(c, index(col, sj));
+				break;
+			}
+		}
+	}
+
+	private void addLink(int c, int to){
+		links[c*MAX_LINKS+linkCount[c]]=to;
+		linkCount[c]++;
 	}
 	
 	public void setDrawScale(Vector2 d){
 		drawScale=d;
 	}
 
+	/*
+	 *  Cells last rasterized for one obstacle
+	 */
+	private static class Footprint{
+		int[] rect=new int[4];
+		IntArray cells=new IntArray();
+		int seen;
+
+		boolean sameRect(int[] r){
+			return rect[0]==r[0] && rect[1]==r[1] && rect[2]==r[2] && rect[3]==r[3];
+		}
+	}
+
+	/*
+	 *  Read-only view of one cell, kept for debugging and the AI's tile checks
+	 */
 	public class NavTile{
-		public TileType type;
-		public int indX, indY;
-		public ArrayList<Vector2> links;
-		public Vector2 reachedBy;
-		public boolean isTarget;
+		public final int indX, indY;
 		
 		public NavTile(int indX, int indY){
-			type=TileType.NONE;
-			links=new ArrayList<Vector2>();
 			this.indX=indX;
 			this.indY=indY;
-			reachedBy=new Vector2(-1, -1);
-			isTarget=false;
+		}
+
+		public TileType getType(){
+			return NavBoard.this.getType(index(indX, indY));
+		}
+
+		public boolean isTarget(){
+			return NavBoard.this.isTarget(index(indX, indY));
 		}
 		
 		public void draw(GameCanvas canvas){
 			Color c=Color.WHITE;
-			switch (type){
+			switch (getType()){
 			case SUPPORT: c=Color.BLUE; break;
 			case DANGER: c=Color.RED; break;
 			case LEFTEDGE: c=Color.GREEN; break;
@@ -233,27 +468,27 @@ public class NavBoard {
 			case SOLO: c=Color.GREEN; break;
 			default:break;
 			}
-			Vector2 pos=converToWorldCoord(new Vector2(indX, indY));
-			CircleShape circle=new CircleShape();
-			circle.setRadius(Math.min(unitX,unitY)/2);
-			canvas.drawPhysics(circle, c, pos.x, pos.y, drawScale.x,drawScale.y);
-			if (this.isTarget) {
-				CircleShape circle2=new CircleShape();
-				circle2.setRadius(Math.min(unitX,unitY)/4);
-				canvas.drawPhysics(circle2, Color.RED, pos.x, pos.y, drawScale.x,drawScale.y);
+			if (debugCircle==null) debugCircle=new CircleShape();
+			float x=(indX+0.5f)*unitX+lx;
+			float y=(indY+0.5f)*unitY+ly;
+			debugCircle.setRadius(Math.min(unitX,unitY)/2);
+			canvas.drawPhysics(debugCircle, c, x, y, drawScale.x,drawScale.y);
+			if (isTarget()) {
+				debugCircle.setRadius(Math.min(unitX,unitY)/4);
+				canvas.drawPhysics(debugCircle, Color.RED, x, y, drawScale.x,drawScale.y);
 			}
 		}
 		
 		public boolean hasReached(){
-			return isValidBoardCoord(reachedBy);
+			return getParent(index(indX, indY))>=0;
 		}
 		
 		public void markAsTarget(){
-			this.isTarget=true;
+			markTarget(index(indX, indY));
 		}
 		
 		public boolean isSafeToWalkOn(){
-			return type!=TileType.NONE && type!=TileType.DANGER && type!=TileType.SUPPORT;
+			return isWalkable(index(indX, indY));
 		}
 		
 	}
@@ -262,11 +497,9 @@ public class NavBoard {
 		NONE, SUPPORT, DANGER, LEFTEDGE, NONEDGE, RIGHTEDGE, SOLO
 	}	
 	public void drawDebug(GameCanvas canvas){
-		for (int i=0; i<width; i++){
-			for (int j=0; j<height; j++){
-				if (tiles[i][j].type!=TileType.NONE)
-					tiles[i][j].draw(canvas);
-			}
+		for (int c=0; c<types.length; c++){
+			if (types[c]!=TileType.NONE.ordinal())
+				views[c].draw(canvas);
 		}
 	}
 	
@@ -281,46 +514,39 @@ public class NavBoard {
 	}
 	
 	public Vector2 castAround(Vector2 v){
-		Vector2 in=v.cpy();
-		in.x=Math.min(width, in.x);
-		in.x=Math.max(0, in.x);
-		in.y=Math.min(height, in.y);
-		in.y=Math.max(0, in.y);
-		Vector2 out1=new Vector2(in);
-		boolean found1=false;
-		for (int j=(int) in.y; j>=0; j--){
-			out1.y=j;
-			NavTile tile=this.getTile(out1);
-			if (tile.type!=TileType.NONE
-					&& tile.type!=TileType.SUPPORT 
-					&& tile.type!=TileType.DANGER){
-				found1=true;
+		int c=castAround((int) v.x, (int) v.y);
+		return new Vector2(cellX(c), cellY(c));
+	}
+
+	/*
+	 *  Nearest walkable cell in the column, looking down first.
+	 *  Returns the clamped cell itself if the column has none.
+	 */
+	public int castAround(int i, int j){
+		i=Math.max(0, Math.min(width-1, i));
+		j=Math.max(0, Math.min(height-1, j));
+		int down=-1, up=-1;
+		for (int sj=j; sj>=0; sj--){
+			if (isWalkable(index(i, sj))){
+				down=sj;
 				break;
 			}
 		}
-		boolean found2=false;
-		Vector2 out2=new Vector2(in);
-		for (int j=(int) in.y+1; j<height; j++){
-			out2.y=j;
-			NavTile tile=this.getTile(out2);
-			if (tile.type!=TileType.NONE
-					&& tile.type!=TileType.SUPPORT 
-					&& tile.type!=TileType.DANGER){
-				found2=true;
+		for (int sj=j+1; sj<height; sj++){
+			if (isWalkable(index(i, sj))){
+				up=sj;
 				break;
 			}
 		}
-		if (found1 && found2){
-			Vector2 out=new Vector2(in);
-			out.y=Math.abs(out1.y-in.y)<=Math.abs(out2.y-in.y)? out1.y: out2.y;
-			return out;
+		if (down>=0 && up>=0){
+			return index(i, j-down<=up-j? down: up);
 		}
-		else if (found1){
-			return out1;
+		else if (down>=0){
+			return index(i, down);
 		}
-		else if (found2){
-			return out2;
+		else if (up>=0){
+			return index(i, up);
 		}
-		return new Vector2(in);
+		return index(i, j);
 	}
-}
\ No newline at end of file
+}
@@ -1,47 +1,205 @@
 package edu.cornell.gdiac.physics.ai;
 
-import java.util.ArrayList;
-
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
 
-import edu.cornell.gdiac.physics.ai.NavBoard.NavTile;
-import edu.cornell.gdiac.physics.character.CharacterModel;
-import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.physics.ai.NavBoard.TileType;
 
+/*
+ *  Searches the NavBoard link graph from a start cell to the nearest
+ *  marked target. Guards only walk sideways or fall, so a move costs
+ *  STEP_COST per column plus FALL_COST per row dropped, and the A*
+ *  heuristic is the same cost ignoring walls (admissible).
+ *
+ *  JUMP_POINT additionally skips over runs of NONEDGE cells: their only
+ *  links are to the left and right neighbours, so the search jumps to
+ *  the end of the run in one expansion.
+ */
 public class PathFinder {
-	
+
+	public enum Mode{
+		BFS, ASTAR, JUMP_POINT
+	}
+
+	public static final int STEP_COST=2;
+	public static final int FALL_COST=1;
+
+	private Mode mode;
+	private IntQueue frontier=new IntQueue(256);
+
+	// A* scratch; g and the closed set are valid only while stamped with gen
+	private int[] g=new int[0];
+	private int[] closedStamp=new int[0];
+	private IntHeap open=new IntHeap(256);
+	private int gen=0;
+
+	private IntArray scratch=new IntArray();
+	private int goal=-1;
+
+	public PathFinder(){
+		this(Mode.ASTAR);
+	}
+
+	public PathFinder(Mode mode){
+		this.mode=mode;
+	}
+
+	public Mode getMode(){
+		return mode;
+	}
+
+	public void setMode(Mode mode){
+		this.mode=mode;
+	}
+
 	public Vector2 findPath(NavBoard board, Vector2 srcPos){
-		Vector2 start=board.convertToBoardCoord(srcPos);
-		if (!board.isValidBoardCoord(start)) {
-			return new Vector2(Float.MAX_VALUE, Float.MAX_VALUE);
+		return findPath(board, srcPos, new Vector2());
+	}
+
+	/*
+	 *  Writes the first step (in world units) from srcPos towards the
+	 *  nearest target into out, or MAX_VALUE if no target is reachable.
+	 */
+	public Vector2 findPath(NavBoard board, Vector2 srcPos, Vector2 out){
+		int start=board.cellAt(srcPos.x, srcPos.y);
+		if (start<0 || !search(board, start)) {
+			return out.set(Float.MAX_VALUE, Float.MAX_VALUE);
+		}
+		if (goal==start) return out.set(0, 0);
+		int current=goal;
+		int parent=board.getParent(current);
+		while (parent!=start){
+			current=parent;
+			parent=board.getParent(current);
+		}
+		// A jump may span several columns; the first step is one of them
+		int dx=Integer.signum(board.cellX(current)-board.cellX(start));
+		int dy=board.cellY(current)-board.cellY(start);
+		return out.set(dx*board.getUnitX(), dy*board.getUnitY());
+	}
+
+	/*
+	 *  Fills path with every cell from start to the nearest target,
+	 *  both included. Returns false (and leaves path empty) if none is
+	 *  reachable.
+	 */
+	public boolean findPath(NavBoard board, int start, IntArray path){
+		path.clear();
+		if (start<0 || !search(board, start)) return false;
+		scratch.clear();
+		for (int c=goal; c!=start; c=board.getParent(c)){
+			scratch.add(c);
+		}
+		scratch.add(start);
+		path.add(start);
+		for (int k=scratch.size-2; k>=0; k--){
+			int from=scratch.get(k+1), to=scratch.get(k);
+			int fx=board.cellX(from), tx=board.cellX(to);
+			// Fill in the cells a jump skipped over
+			if (board.cellY(from)==board.cellY(to) && Math.abs(tx-fx)>1){
+				int d=Integer.signum(tx-fx);
+				for (int x=fx+d; x!=tx; x+=d){
+					path.add(board.index(x, board.cellY(to)));
+				}
+			}
+			path.add(to);
 		}
-		if (board.getTile(start).isTarget) return new Vector2();
-		
-		ArrayList<Vector2> frontier=new ArrayList<Vector2>();
+		return true;
+	}
+
+	private boolean search(NavBoard board, int start){
+		board.beginSearch();
+		goal=-1;
+		if (board.isTarget(start)) {
+			goal=start;
+			return true;
+		}
+		if (mode==Mode.BFS) return bfs(board, start);
+		return astar(board, start);
+	}
+
+	private boolean bfs(NavBoard board, int start){
+		frontier.clear();
 		frontier.add(start);
-		Vector2 head=start.cpy();
-		while (frontier.size()>0){
-			head=frontier.remove(0);
-			if (board.getTile(head).isTarget) break;
-			for (Vector2 link:board.getTile(head).links){
-				NavTile tile=board.getTile(link);
-				if (!tile.hasReached()){
-					tile.reachedBy=head;
+		board.setParent(start, start);
+		while (!frontier.isEmpty()){
+			int head=frontier.remove();
+			if (board.isTarget(head)) {
+				goal=head;
+				return true;
+			}
+			for (int k=0; k<board.getLinkCount(head); k++){
+				int link=board.getLink(head, k);
+				if (board.getParent(link)<0){
+					board.setParent(link, head);
 					frontier.add(link);
 				}
 			}
 		}
-		if (board.getTile(head).isTarget){
-			Vector2 current=head;
-			Vector2 parent=board.getTile(current).reachedBy;
-			while (!parent.equals(start)){
-			    current=parent;
-				parent=board.getTile(current).reachedBy;
+		return false;
+	}
+
+	private boolean astar(NavBoard board, int start){
+		IntArray targets=board.getTargets();
+		if (targets.size==0) return false;
+		ensureCapacity(board.getCellCount());
+		gen++;
+		open.clear();
+		board.setParent(start, start);
+		g[start]=0;
+		open.push(start, heuristic(board, start, targets));
+		while (!open.isEmpty()){
+			int head=open.pop();
+			if (closedStamp[head]==gen) continue;
+			closedStamp[head]=gen;
+			if (board.isTarget(head)) {
+				goal=head;
+				return true;
+			}
+			for (int k=0; k<board.getLinkCount(head); k++){
+				int next=board.getLink(head, k);
+				int cost=stepCost(board, head, next);
+				if (mode==Mode.JUMP_POINT && board.cellY(next)==board.cellY(head)){
+					int d=board.cellX(next)-board.cellX(head);
+					while (board.getType(next)==TileType.NONEDGE && !board.isTarget(next)
+							&& board.isValidCell(board.cellX(next)+d, board.cellY(next))){
+						next=board.index(board.cellX(next)+d, board.cellY(next));
+						cost+=STEP_COST;
+					}
+				}
+				if (!board.isWalkable(next) && !board.isTarget(next)) continue;
+				if (closedStamp[next]==gen) continue;
+				int ng=g[head]+cost;
+				if (board.getParent(next)<0 || ng<g[next]){
+					board.setParent(next, head);
+					g[next]=ng;
+					open.push(next, ng+heuristic(board, next, targets));
+				}
 			}
-			return board.convertToWorldUnit(current.sub(start));
 		}
-		else{
-			return new Vector2(Float.MAX_VALUE, Float.MAX_VALUE);
+		return false;
+	}
+
+	public static int stepCost(NavBoard board, int from, int to){
+		return STEP_COST+FALL_COST*Math.max(0, board.cellY(from)-board.cellY(to));
+	}
+
+	private int heuristic(NavBoard board, int c, IntArray targets){
+		int best=Integer.MAX_VALUE;
+		int cx=board.cellX(c), cy=board.cellY(c);
+		for (int k=0; k<targets.size; k++){
+			int t=targets.get(k);
+			int h=STEP_COST*Math.abs(board.cellX(t)-cx)
+					+FALL_COST*Math.max(0, cy-board.cellY(t));
+			if (h<best) best=h;
 		}
+		return best;
+	}
+
+	private void ensureCapacity(int n){
+		if (g.length>=n) return;
+		g=new int[n];
+		closedStamp=new int[n];
+		gen=0;
 	}
 }
@@ -6,9 +6,9 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.Ray;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.utils.Pool;
 
 import edu.cornell.gdiac.physics.GameCanvas;
 import edu.cornell.gdiac.physics.blocks.BlockAbstract;
@@ -27,130 +27,123 @@ public class SightDetector {
 	public static final float UNIT_ANGLE=0.1f;
 	public static final float WHOLE_FOV=(float) Math.PI;
 	
+	// Scratch reused by every query
+	private float[] hit=new float[1];
+	private Pool<IntersectionRecord> records=new Pool<IntersectionRecord>(){
+		protected IntersectionRecord newObject(){
+			return new IntersectionRecord(null, 0);
+		}
+	};
+	
 	public ArrayList<IntersectionRecord> detectObjectInSight(CharacterModel npc, 
 			float fov, Scene scene, ArrayList<Obstacle> objs /* Temp*/){
 		return detectObjectInSight(npc, npc.getFacingDir()? 1: -1, fov, scene, objs);
 	}
 	
+	/*
+	 *  Brute-force version over a plain list, kept for tools and comparisons.
+	 *  The game uses the SpatialGrid overload below.
+	 */
 	public ArrayList<IntersectionRecord> detectObjectInSight(CharacterModel npc, 
 			int facingDir, float fov, Scene scene, ArrayList<Obstacle> objs/*Temp*/){
-		facingDir=facingDir>0? 1: ((facingDir<0)? -1: 0);
-		Ray[] rays=new Ray[(int) (2*fov/UNIT_ANGLE)+1];
-		Obstacle[] intersections=new Obstacle[rays.length];
-		float[] dists=new float[rays.length];
-		for (int i=0; i<rays.length; i++){
-			rays[i]=new Ray();
-			Vector3 dir=new Vector3();
-			float angle=fov-i*UNIT_ANGLE;
-			if (Math.abs(angle)==Math.PI/2f){
-				dir.set(0, angle>0? 1: -1, 0);
-			}
-			else{
-				dir=dir.set((facingDir==0? 1: facingDir)*(float)Math.cos(angle),
-						(float)Math.sin(angle), 0).nor();
-			}
-			rays[i].set(new Vector3(npc.getEyePosition().x, 
-					npc.getEyePosition().y, 0), dir);
-			dists[i]=Float.MAX_VALUE;
-			intersections[i]=null;
-		}		
-
-		// Loop over all objects in scene, including characters
+		SpatialGrid all=new SpatialGrid(0, 0, 1, 1, 1);
+		fillGrid(all, objs);
+		ArrayList<IntersectionRecord> results=new ArrayList<IntersectionRecord>();
+		detectObjectInSight(npc, facingDir, fov, all, results);
+		return results;
+	}
+	
+	/*
+	 *  Adds every obstacle that can block sight to the grid and buckets it
+	 */
+	public static void fillGrid(SpatialGrid grid, Iterable<Obstacle> objs){
+		grid.clear();
 		for (Obstacle obstacle: objs){
-			
-			// Skip if being itself
-			if (obstacle.equals(npc)) continue;
 			if (obstacle instanceof Rope) continue;
 			if (obstacle instanceof RopePart) continue;
 			if (obstacle instanceof GoalDoor) continue;
 			if (obstacle instanceof FuelBlock) continue;
-//			if (obstacle instanceof WheelObstacle) continue;
-			// Ray-box intersection test
-			Rectangle rec=obstacle.getBoundingBox();
-			float lx=rec.x;
-			float ux=rec.x+rec.width;
-			float ly=rec.y;
-			float uy=rec.y+rec.height;
-//			if (obstacle instanceof BlockAbstract){
-//				lx-=((BlockAbstract)obstacle).getWidth()/2f;
-//				ux+=((BlockAbstract)obstacle).getWidth()/2f;
-//				ly-=((BlockAbstract)obstacle).getHeight()/2f;
-//				uy+=((BlockAbstract)obstacle).getHeight()/2f;
-//			}
-//			else if (obstacle instanceof CharacterModel){
-//				lx-=((CharacterModel)obstacle).getWidth()/2f;
-//				ux+=((CharacterModel)obstacle).getWidth()/2f;
-//				ly-=((CharacterModel)obstacle).getHeight()/2f;
-//				uy+=((CharacterModel)obstacle).getHeight()/2f;
-//			}
-			// Keep track of closest intersected object so far.
-			for (int k=0; k<rays.length; k++){
-				float distance=intersectBox(rays[k].cpy(), lx, ux, ly, uy);
-				
-				if (distance>0 && distance < dists[k]){
-					dists[k] = distance; 
-					intersections[k]=obstacle;
-				}
-			}
+			grid.add(obstacle);
 		}
-		
-		ArrayList<IntersectionRecord> results=new ArrayList<IntersectionRecord>();
-		for (int i=0; i<rays.length; i++){
-			if (intersections[i]!=null) {
-				results.add(new IntersectionRecord(intersections[i], dists[i]));
-			}
-		}
-		return results;
+		grid.build();
 	}
-		
-	public float intersectBox(Ray ray, float lx, float ux, float ly, float uy){
-		assert(lx<ux && ly<uy);
-		ray.direction.nor();
-		if (ray.direction.x!=0 && ray.direction.y!=0){
-			boolean f=false;
-			float bestDist=Float.MAX_VALUE;
-			float [] ts=new float[]{(lx-ray.origin.x)/ray.direction.x,
-									(ly-ray.origin.y)/ray.direction.y,
-									(ux-ray.origin.x)/ray.direction.x,
-									(uy-ray.origin.y)/ray.direction.y};
-			for (int ind=0; ind<4; ind++){
-				if (ts[ind]<=0) continue;
-				Vector3 p = new Vector3();
-				ray.cpy().getEndPoint(p, ts[ind]);
-				if ((ind%2==0 && p.y <= uy && p.y >= ly) || 
-						(ind%2==1 && p.x <= ux && p.x >= lx)){
-					f=true;
-					if (ts[ind]<bestDist) bestDist=ts[ind];
-				}
-			}
-			return f? bestDist: -1;
+	
+	public void detectObjectInSight(CharacterModel npc, 
+			float fov, SpatialGrid grid, ArrayList<IntersectionRecord> out){
+		detectObjectInSight(npc, npc.getFacingDir()? 1: -1, fov, grid, out);
+	}
+	
+	/*
+	 *  Casts one ray every UNIT_ANGLE across [-fov, fov] from the npc's eye
+	 *  and records the closest obstacle hit by each. Records previously in
+	 *  out are recycled, so out must not be shared with another query.
+	 */
+	public void detectObjectInSight(CharacterModel npc, 
+			int facingDir, float fov, SpatialGrid grid, ArrayList<IntersectionRecord> out){
+		for (int i=0; i<out.size(); i++){
+			records.free(out.get(i));
 		}
-		else{
-			float ut=-1, lt=-1;
-			if (ray.direction.x==0){
-				if (ray.origin.x >= lx && ray.origin.x<=ux){
-					ut=(uy-ray.origin.y)/ray.direction.y;
-					lt=(ly-ray.origin.y)/ray.direction.y;
-				}
-			}
-			else {
-				if (ray.origin.y >= ly && ray.origin.y<=uy){
-					ut=(ux-ray.origin.x)/ray.direction.x;
-					lt=(lx-ray.origin.x)/ray.direction.x;
-				}
-			}
-			if (lt>0 && ut>0){
-				return Math.min(ut, lt);
+		out.clear();
+		facingDir=facingDir>0? 1: ((facingDir<0)? -1: 0);
+		float sx=facingDir==0? 1: facingDir;
+		Vector2 pos=npc.getPosition();
+		float ox=pos.x;
+		float oy=pos.y+npc.getHeight()*(npc.getEyeProportion()-1/2f);
+		int n=(int) (2*fov/UNIT_ANGLE)+1;
+		for (int i=0; i<n; i++){
+			float angle=fov-i*UNIT_ANGLE;
+			float dx, dy;
+			if (Math.abs(angle)==Math.PI/2f){
+				dx=0;
+				dy=angle>0? 1: -1;
 			}
-			if (ut>0){
-				return ut;
+			else{
+				dx=sx*(float)Math.cos(angle);
+				dy=(float)Math.sin(angle);
+				float len=(float)Math.sqrt(dx*dx+dy*dy);
+				dx/=len;
+				dy/=len;
 			}
-			if (lt>0){
-				return lt;
+			int k=grid.raycast(ox, oy, dx, dy, npc, hit);
+			if (k>=0) {
+				IntersectionRecord rec=records.obtain();
+				rec.obj=grid.getItem(k);
+				rec.t=hit[0];
+				out.add(rec);
 			}
-			return -1;
 		}
 	}
+	
+	public float intersectBox(Ray ray, float lx, float ux, float ly, float uy){
+		float len=ray.direction.len();
+		return intersectBox(ray.origin.x, ray.origin.y, ray.direction.x/len, 
+				ray.direction.y/len, lx, ux, ly, uy);
+	}
+	
+	/*
+	 *  Slab test. Distance along the ray to the box, the exit distance if
+	 *  the origin is inside, or -1 if the ray misses.
+	 */
+	public static float intersectBox(float ox, float oy, float dx, float dy,
+			float lx, float ux, float ly, float uy){
+		float tmin=-Float.MAX_VALUE, tmax=Float.MAX_VALUE;
+		if (dx!=0){
+			float t1=(lx-ox)/dx, t2=(ux-ox)/dx;
+			tmin=Math.max(tmin, Math.min(t1, t2));
+			tmax=Math.min(tmax, Math.max(t1, t2));
+		}
+		else if (ox<lx || ox>ux) return -1;
+		if (dy!=0){
+			float t1=(ly-oy)/dy, t2=(uy-oy)/dy;
+			tmin=Math.max(tmin, Math.min(t1, t2));
+			tmax=Math.min(tmax, Math.max(t1, t2));
+		}
+		else if (oy<ly || oy>uy) return -1;
+		if (tmax<tmin) return -1;
+		if (tmin>0) return tmin;
+		if (tmax>0) return tmax;
+		return -1;
+	}
 
 	public void drawDebug(GameCanvas canvas, Vector2 eyePos, int facingDir, Vector2 drawScale, float fov){
 		float[] pts=new float[]{0, 0, facingDir, (float) (facingDir*Math.tan(fov)),
@@ -0,0 +1,176 @@
+package edu.cornell.gdiac.physics.ai;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Rectangle;
+
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+
+/*
+ *  Uniform grid over obstacle bounding boxes, rebuilt once per AI tick.
+ *  Each cell lists the obstacles overlapping it in a flat CSR table
+ *  (cellStart/cellItems); boxes are copied into a float array so ray
+ *  queries never touch a Rectangle. Nothing is allocated once the arrays
+ *  have grown to the level's size.
+ */
+public class SpatialGrid {
+	private float lx, ly, cellSize;
+	private int cols, rows;
+
+	private Obstacle[] items=new Obstacle[64];
+	// lx, ly, ux, uy per item
+	private float[] bounds=new float[64*4];
+	private int count=0;
+
+	private int[] cellStart;
+	private int[] cellItems=new int[256];
+	// Cell range covered by each item, kept between the two fill passes
+	private int[] span=new int[64*4];
+	// Items already tested by the current ray (they span several cells)
+	private int[] tested=new int[64];
+	private int rayId=0;
+
+	public SpatialGrid(float lx, float ly, float ux, float uy, float cellSize){
+		this.lx=lx;
+		this.ly=ly;
+		this.cellSize=cellSize;
+		cols=Math.max(1, (int) Math.ceil((ux-lx)/cellSize));
+		rows=Math.max(1, (int) Math.ceil((uy-ly)/cellSize));
+		cellStart=new int[cols*rows+1];
+	}
+
+	public void clear(){
+		Arrays.fill(items, 0, count, null);
+		count=0;
+	}
+
+	public void add(Obstacle obj){
+		if (count==items.length){
+			items=Arrays.copyOf(items, count*2);
+			bounds=Arrays.copyOf(bounds, count*2*4);
+			span=Arrays.copyOf(span, count*2*4);
+			tested=Arrays.copyOf(tested, count*2);
+		}
+		Rectangle rec=obj.getBoundingBox();
+		items[count]=obj;
+		bounds[4*count]=rec.x;
+		bounds[4*count+1]=rec.y;
+		bounds[4*count+2]=rec.x+rec.width;
+		bounds[4*count+3]=rec.y+rec.height;
+		count++;
+	}
+
+	/*
+	 *  Bucket every added item into the cells it overlaps
+	 */
+	public void build(){
+		Arrays.fill(cellStart, 0);
+		int total=0;
+		for (int k=0; k<count; k++){
+			span[4*k]=colOf(bounds[4*k]);
+			span[4*k+1]=rowOf(bounds[4*k+1]);
+			span[4*k+2]=colOf(bounds[4*k+2]);
+			span[4*k+3]=rowOf(bounds[4*k+3]);
+			for (int i=span[4*k]; i<=span[4*k+2]; i++){
+				for (int j=span[4*k+1]; j<=span[4*k+3]; j++){
+					cellStart[i*rows+j+1]++;
+					total++;
+				}
+			}
+		}
+		for (int c=0; c<cols*rows; c++){
+			cellStart[c+1]+=cellStart[c];
+		}
+		if (cellItems.length<total) cellItems=new int[Math.max(total, cellItems.length*2)];
+		for (int k=0; k<count; k++){
+			for (int i=span[4*k]; i<=span[4*k+2]; i++){
+				for (int j=span[4*k+1]; j<=span[4*k+3]; j++){
+					// cellStart[c] is used as the fill cursor, restored below
+					cellItems[cellStart[i*rows+j]++]=k;
+				}
+			}
+		}
+		for (int c=cols*rows; c>0; c--){
+			cellStart[c]=cellStart[c-1];
+		}
+		cellStart[0]=0;
+	}
+
+	public int size(){
+		return count;
+	}
+
+	public Obstacle getItem(int k){
+		return items[k];
+	}
+
+	private int colOf(float x){
+		return Math.max(0, Math.min(cols-1, (int) Math.floor((x-lx)/cellSize)));
+	}
+
+	private int rowOf(float y){
+		return Math.max(0, Math.min(rows-1, (int) Math.floor((y-ly)/cellSize)));
+	}
+
+	/*
+	 *  Nearest item hit by the ray (ox,oy)+t*(dx,dy), skipping ignore.
+	 *  dx,dy must be normalized. The grid is walked cell by cell (DDA) and
+	 *  stops as soon as the best hit is closer than the current cell's exit.
+	 *  Returns the item index, with its distance in hit[0], or -1.
+	 */
+	public int raycast(float ox, float oy, float dx, float dy, Obstacle ignore, float[] hit){
+		rayId++;
+		int best=-1;
+		float bestT=Float.MAX_VALUE;
+		if (ox<lx || oy<ly || ox>=lx+cols*cellSize || oy>=ly+rows*cellSize){
+			// Outside the grid: test everything
+			for (int k=0; k<count; k++){
+				if (items[k]==ignore) continue;
+				float t=intersect(k, ox, oy, dx, dy);
+				if (t>0 && t<bestT){
+					bestT=t;
+					best=k;
+				}
+			}
+			hit[0]=bestT;
+			return best;
+		}
+		int cx=colOf(ox), cy=rowOf(oy);
+		int stepX=dx>0? 1: (dx<0? -1: 0);
+		int stepY=dy>0? 1: (dy<0? -1: 0);
+		float tMaxX=dx>0? (lx+(cx+1)*cellSize-ox)/dx: (dx<0? (lx+cx*cellSize-ox)/dx: Float.MAX_VALUE);
+		float tMaxY=dy>0? (ly+(cy+1)*cellSize-oy)/dy: (dy<0? (ly+cy*cellSize-oy)/dy: Float.MAX_VALUE);
+		float tDeltaX=dx!=0? cellSize/Math.abs(dx): Float.MAX_VALUE;
+		float tDeltaY=dy!=0? cellSize/Math.abs(dy): Float.MAX_VALUE;
+		while (true){
+			int c=cx*rows+cy;
+			for (int n=cellStart[c]; n<cellStart[c+1]; n++){
+				int k=cellItems[n];
+				if (tested[k]==rayId || items[k]==ignore) continue;
+				tested[k]=rayId;
+				float t=intersect(k, ox, oy, dx, dy);
+				if (t>0 && t<bestT){
+					bestT=t;
+					best=k;
+				}
+			}
+			if (bestT<=Math.min(tMaxX, tMaxY)) break;
+			if (tMaxX<tMaxY){
+				cx+=stepX;
+				tMaxX+=tDeltaX;
+			}
+			else{
+				cy+=stepY;
+				tMaxY+=tDeltaY;
+			}
+			if (cx<0 || cx>=cols || cy<0 || cy>=rows) break;
+		}
+		hit[0]=bestT;
+		return best;
+	}
+
+	private float intersect(int k, float ox, float oy, float dx, float dy){
+		return SightDetector.intersectBox(ox, oy, dx, dy,
+				bounds[4*k], bounds[4*k+2], bounds[4*k+1], bounds[4*k+3]);
+	}
+}
@@ -1,5 +1,7 @@
 package edu.cornell.gdiac.physics.blocks;
 
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+
 import edu.cornell.gdiac.physics.material.GeneralMaterial;
 import edu.cornell.gdiac.physics.obstacle.BoxObstacle;
 
@@ -8,6 +10,9 @@ public abstract class BlockAbstract extends BoxObstacle{
 	
 	protected GeneralMaterial material;
 	
+	/** Whether the block may only move vertically */
+	private boolean horizontalLock = false;
+	
 	public void setMaterial(GeneralMaterial m){
 		material=m;
 	};
@@ -63,6 +68,29 @@ public abstract class BlockAbstract extends BoxObstacle{
 		// TODO Auto-generated constructor stub
 	}
 	
+	public boolean isHorizontalLock() {
+		return horizontalLock;
+	}
+	
+	/**
+	 * Lock the block to vertical movement. The lock is applied by
+	 * lockHorizontal(), which the controller calls around every step.
+	 */
+	public void setHorizontalLock(boolean lock) {
+		horizontalLock = lock;
+	}
+	
+	/**
+	 * Drop the horizontal velocity of a locked dynamic block. Reads the
+	 * body's cached velocity and sets components, so nothing is allocated.
+	 */
+	public void lockHorizontal() {
+		if (horizontalLock && body != null && body.getType() == BodyType.DynamicBody) {
+			float vy = body.getLinearVelocity().y;
+			body.setLinearVelocity(0, vy);
+		}
+	}
+	
 	public void setBlockType(BlockType t){
 		this.type=t;
 	}
@@ -81,9 +81,9 @@ public class BurnablePlatform extends ComplexObstacle {
 		if (region != null) {
 			if (((Flammable) platform.material).isBurnt()) {
 				canvas.draw(platform.getTexture(), Color.BLACK, 0, 0,
-						(getX() - platform.getWidth() / 2) * drawScale.x,
-						(getY() - platform.getHeight() / 2) * drawScale.y,
-						getAngle(),
+						(getDrawX() - platform.getWidth() / 2) * drawScale.x,
+						(getDrawY() - platform.getHeight() / 2) * drawScale.y,
+						getDrawAngle(),
 						platform.ratio.x, platform.ratio.y);
 			} else if (((Flammable) platform.material).isBurning()) {
 				Color c = new Color();
@@ -99,14 +99,14 @@ public class BurnablePlatform extends ComplexObstacle {
 							platform.ratio.y);
 				}
 				canvas.draw(platform.getTexture(), c, 0, 0,
-						(getX() - platform.getWidth() / 2) * drawScale.x,
-						(getY() - platform.getHeight() / 2) * drawScale.y,
-						getAngle(), platform.ratio.x, platform.ratio.y);
+						(getDrawX() - platform.getWidth() / 2) * drawScale.x,
+						(getDrawY() - platform.getHeight() / 2) * drawScale.y,
+						getDrawAngle(), platform.ratio.x, platform.ratio.y);
 			} else {
 				canvas.draw(platform.getTexture(), Color.WHITE, 0, 0,
-						(getX() - platform.getWidth() / 2) * drawScale.x,
-						(getY() - platform.getHeight() / 2) * drawScale.y,
-						getAngle(), platform.ratio.x, platform.ratio.y);
+						(getDrawX() - platform.getWidth() / 2) * drawScale.x,
+						(getDrawY() - platform.getHeight() / 2) * drawScale.y,
+						getDrawAngle(), platform.ratio.x, platform.ratio.y);
 			}
 		}
 		if (((Flammable) platform.material).isBurning()) {
@@ -208,9 +208,8 @@ public class BurnablePlatform extends ComplexObstacle {
 	}
 
 	@Override
-	public Rectangle getBoundingBox() {
-		// TODO Auto-generated method stub
-		return new Rectangle(this.getX() - getWidth() / 2f,
+	protected void computeBoundingBox(Rectangle out) {
+		out.set(this.getX() - getWidth() / 2f,
 				this.getY() - getHeight() / 2f,
 				getWidth(), getHeight());
 	}
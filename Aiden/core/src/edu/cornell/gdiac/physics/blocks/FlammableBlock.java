@@ -1,7 +1,5 @@
 package edu.cornell.gdiac.physics.blocks;
 
-import java.util.Random;
-
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
@@ -9,6 +7,7 @@ import com.badlogic.gdx.math.Vector2;
 import edu.cornell.gdiac.physics.GameCanvas;
 import edu.cornell.gdiac.physics.material.Flammable;
 import edu.cornell.gdiac.util.FilmStrip;
+import edu.cornell.gdiac.util.RandomController;
 
 public class FlammableBlock extends BlockAbstract{
 	
@@ -37,15 +36,22 @@ public class FlammableBlock extends BlockAbstract{
 	
 
 	public void update(float dt) {
-		((Flammable)material).updateBurningState(dt);
+		updateBurningState(dt);
 		animeCoolDown-=dt;
 	}
 	
+	/**
+	 * Advances the fire timers only, leaving the animation alone
+	 */
+	public void updateBurningState(float dt) {
+		((Flammable)material).updateBurningState(dt);
+	}
+	
 	@Override
 	public void draw(GameCanvas canvas) {
 		if (texture != null) {
 			if (((Flammable)material).isBurnt()){
-				canvas.draw(texture,Color.BLACK,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.x,getAngle(),ratio.x, ratio.y);
+				canvas.draw(texture,Color.BLACK,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.x,getDrawAngle(),ratio.x, ratio.y);
 			}
 			else if (((Flammable)material).isBurning()){
 				Color c=new Color();
@@ -59,10 +65,10 @@ public class FlammableBlock extends BlockAbstract{
 					c=new Color(((Flammable)material).getBurnRatio()/0.3f,((Flammable)material).getBurnRatio(), ratio.x, ratio.y);
 				}
 				
-				canvas.draw(texture,c,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.x,getAngle(), ratio.x, ratio.y);
+				canvas.draw(texture,c,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.x,getDrawAngle(), ratio.x, ratio.y);
 			}
 			else{
-				canvas.draw(texture,Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.x,getAngle(),ratio.x, ratio.y);
+				canvas.draw(texture,Color.WHITE,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.x,getDrawAngle(),ratio.x, ratio.y);
 			}
 		}
 		if (((Flammable)material).isBurning()){
@@ -80,8 +86,7 @@ public class FlammableBlock extends BlockAbstract{
 	public void burningAnimate(GameCanvas canvas){
 		if (burningSprite==null) return;
 		if (this.animeCoolDown<=0) {
-			Random r=new Random();
-			animeCoolDown=(r.nextFloat()*MAX_ANIME_TIME)/2+MAX_ANIME_TIME/2;
+			animeCoolDown=(RandomController.rollCosmeticFloat(0, 1)*MAX_ANIME_TIME)/2+MAX_ANIME_TIME/2;
 			if (burningSprite.getFrame()==burningSprite.getSize()-1){
 				burningSprite.setFrame(splitFrame);
 			}
@@ -94,8 +99,8 @@ public class FlammableBlock extends BlockAbstract{
 		float oy = 0.5f * burningSprite.getRegionHeight();
 		
 		canvas.draw(burningSprite, Color.WHITE, ox, oy, 
-				getX() * drawScale.x, 
-				getY() * drawScale.y, getAngle(), 
+				getDrawX() * drawScale.x, 
+				getDrawY() * drawScale.y, getDrawAngle(), 
 				this.getWidth()/burningSprite.getRegionWidth()*drawScale.x,
 				this.getHeight()/burningSprite.getRegionHeight()*drawScale.y
 				);
@@ -120,6 +125,12 @@ public class FlammableBlock extends BlockAbstract{
 	public float getBurnTime(){
 		return getMaterial().getBurnTime();
 	}
+	/**
+	 * @return the seconds until it starts to spread
+	 */
+	public float getSpreadTime(){
+		return getMaterial().getSpreadTime();
+	}
 	/**
 	 * @return the percentage of remaining frames until it gets burnt/destroyed
 	 */
@@ -70,7 +70,7 @@ public class FuelBlock extends FlammableBlock {
 			animeCoolDown=MAX_ANIME_TIME;
 			fm.setFrame((fm.getFrame()+1)% fm.getSize());
 		}
-		canvas.draw(fm, this.getX()*drawScale.x-25, this.getY()*drawScale.y-25);
+		canvas.draw(fm, this.getDrawX()*drawScale.x-25, this.getDrawY()*drawScale.y-25);
 	}
 
 	public boolean isCheckpoint() {
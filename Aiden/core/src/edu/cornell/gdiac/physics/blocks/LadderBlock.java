@@ -89,9 +89,9 @@ public class LadderBlock extends Platform {
 		System.out.println(getBottomEnd());
 		if (ropeRegion != null) {
 			canvas.draw(ropeRegion,Color.WHITE, 0,0,
-					(getX()-rwidth/2)*drawScale.x,
-					(getY()-rlength)*drawScale.y,
-					getAngle(), 1, 1);
+					(getDrawX()-rwidth/2)*drawScale.x,
+					(getDrawY()-rlength)*drawScale.y,
+					getDrawAngle(), 1, 1);
 		}	
 	}
 }
@@ -60,9 +60,9 @@ public class Platform extends StoneBlock {
 	public void draw(GameCanvas canvas){
 		if (region != null) {
 			canvas.draw(region,Color.WHITE,0,0,
-					(getX()-getWidth()/2)*drawScale.x,
-					(getY()-getHeight()/2)*drawScale.y,
-					getAngle(),1, 1);
+					(getDrawX()-getWidth()/2)*drawScale.x,
+					(getDrawY()-getHeight()/2)*drawScale.y,
+					getDrawAngle(),1, 1);
 		}
 	}
 
@@ -173,6 +173,7 @@ public class Rope extends ComplexObstacle {
 	public void deactivatePhysics(World world) {
 		super.deactivatePhysics(world);
 		if (start != null) {
+			start.deactivatePhysics(world);
 			start.markRemoved(true);
 		}
 	}
@@ -206,7 +207,7 @@ public class Rope extends ComplexObstacle {
 					isBurning = true;
 				}
 				if(temp.isBurnt() && temp.getBody()!=null){
-					world.destroyBody(bodies.get(i).getBody());
+					temp.deactivatePhysics(world);
 					bodies.removeIndex(i);
 					return false;
 				}
@@ -241,9 +242,8 @@ public class Rope extends ComplexObstacle {
 
 
 	@Override
-	public Rectangle getBoundingBox() {
-		// TODO Auto-generated method stub
-		return new Rectangle(this.getX()-this.getWidth()/2f, 
+	protected void computeBoundingBox(Rectangle out) {
+		out.set(this.getX()-this.getWidth()/2f, 
 				this.getY()-this.getHeight()/2f,
 				this.getWidth(),
 				this.getHeight());
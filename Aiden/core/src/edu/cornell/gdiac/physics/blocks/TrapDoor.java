@@ -102,12 +102,24 @@ public class TrapDoor extends ComplexObstacle{
 		return true;
 	}
 	
+	/** Also destroys the anchors made by createJoints */
+	@Override
+	public void deactivatePhysics(World world){
+		super.deactivatePhysics(world);
+		if (anchor!=null){
+			anchor.deactivatePhysics(world);
+		}
+		if (anchorRope!=null){
+			anchorRope.deactivatePhysics(world);
+		}
+	}
+	
 	public boolean updateParts(World world){
 		if (bodies.size == 1){
 			return false;
 		}
 		if(((FlammableBlock) bodies.get(1)).isBurnt()){
-			world.destroyBody(bodies.get(1).getBody());
+			bodies.get(1).deactivatePhysics(world);
 			bodies.removeIndex(1);
 			return false;
 		}
@@ -175,11 +187,10 @@ public class TrapDoor extends ComplexObstacle{
 
 
 	@Override
-	public Rectangle getBoundingBox() {
-		// TODO Auto-generated method stub
+	protected void computeBoundingBox(Rectangle out) {
 		Vector2 pos=((StoneBlock) bodies.get(0)).getPosition();
 		
-		return new Rectangle(pos.x-this.getWidth()/2f, 
+		out.set(pos.x-this.getWidth()/2f, 
 				pos.y-this.getHeight()/2f,
 				this.getWidth(),
 				this.getHeight());
@@ -8,7 +8,6 @@
  */
 package edu.cornell.gdiac.physics.character;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.*;
 import com.badlogic.gdx.graphics.g2d.ParticleEffect;
 import com.badlogic.gdx.math.Vector2;
@@ -18,6 +17,7 @@ import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.physics.box2d.World;
 
 import edu.cornell.gdiac.physics.*;
+import edu.cornell.gdiac.physics.scene.ParticleRegistry;
 import edu.cornell.gdiac.util.FilmStrip;
 
 /**
@@ -39,7 +39,6 @@ public class AidenModel extends CharacterModel {
 	private ParticleEffect trailStill;
 	private ParticleEffect fuelP;
 	protected static final float MAX_JUMP_TIME=0.05f;
-	private boolean smallSized = false;
 	private int jumpFrame = 0;
 	private int runFrame = 0;
 	private boolean drawJumping = false;
@@ -69,6 +68,19 @@ public class AidenModel extends CharacterModel {
 	private float iWidth;
 	/** aiden ratio */
 	private float ratio;
+	/** Smallest ratio; Aiden does not shrink past this */
+	private static final float MIN_RATIO = 0.8f;
+	/** Ratio between consecutive physics sizes */
+	private static final float SIZE_STEP = 0.05f;
+	/** Number of physics sizes, from MIN_RATIO up to full size */
+	private static final int SIZE_LEVELS = 5;
+	/** The current physics size, or -1 if the fixtures are not sized yet */
+	private int sizeLevel = -1;
+	/** Ground and top sensor shapes for each physics size, built once */
+	private PolygonShape[] sensorShapes;
+	private PolygonShape[] topShapes;
+	/** Reused to create the sensor fixtures */
+	private FixtureDef sensorDef;
 	private float cRatio;
 	/** Texture for fire trail */
 	private FilmStrip death;
@@ -81,8 +93,8 @@ public class AidenModel extends CharacterModel {
 	public boolean gotFuel = false;
 	
 	public void setFuelPPos(){
-		fuelP.setPosition(getX() * drawScale.x,
-				(getY()) * drawScale.y);
+		fuelP.setPosition(getDrawX() * drawScale.x,
+				(getDrawY()) * drawScale.y);
 	}
 	
 	public boolean canDrawFail(){
@@ -258,18 +270,11 @@ public class AidenModel extends CharacterModel {
 		setName("Aiden");
 		iWidth = width;
 		iHeight = height;
-		trailLeft = new ParticleEffect();
-		trailLeft.load(Gdx.files.internal("platform/left.p"),
-				Gdx.files.internal("platform"));
-		trailRight = new ParticleEffect();
-		trailRight.load(Gdx.files.internal("platform/right.p"),
-				Gdx.files.internal("platform"));
-		trailStill = new ParticleEffect();
-		trailStill.load(Gdx.files.internal("platform/still.p"),
-				Gdx.files.internal("platform"));
-		fuelP = new ParticleEffect();
-		fuelP.load(Gdx.files.internal("platform/fuelP.p"),
-				Gdx.files.internal("platform"));
+		ParticleRegistry particles = ParticleRegistry.getInstance();
+		trailLeft = particles.obtain(ParticleRegistry.TRAIL_LEFT);
+		trailRight = particles.obtain(ParticleRegistry.TRAIL_RIGHT);
+		trailStill = particles.obtain(ParticleRegistry.TRAIL_STILL);
+		fuelP = particles.obtain(ParticleRegistry.FUEL);
 		trailLeft.setPosition(getX() * drawScale.x,
 				(getY() - 0.5f) * drawScale.y);
 		trailRight.setPosition(getX() * drawScale.x,
@@ -280,6 +285,20 @@ public class AidenModel extends CharacterModel {
 				(getY() - 0.5f) * drawScale.y);
 	}
 
+	/**
+	 * Gives the particle effects back to the registry.
+	 *
+	 * Call this when the model is thrown away; it must not be drawn after.
+	 */
+	public void releaseEffects() {
+		ParticleRegistry particles = ParticleRegistry.getInstance();
+		particles.free(trailLeft);
+		particles.free(trailRight);
+		particles.free(trailStill);
+		particles.free(fuelP);
+		trailLeft = trailRight = trailStill = fuelP = null;
+	}
+
 
 	/**
 	 * Applies the force to the body of this dude
@@ -398,20 +417,12 @@ public class AidenModel extends CharacterModel {
 			spiritCount = Math.max(0, spiritCount - 1 / dt);
 		}
 		super.update(dt);
-		ratio = fuel / MAX_FUEL;
-		ratio = Math.max(0.8f, ratio);
-		ratio = Math.min(1.0f, ratio);
-		System.out.println(ratio);
-		this.setDimension(iWidth * ratio, iHeight * ratio);
-		this.resize(getWidth(), getHeight());
-		this.resizeFixture(ratio);
-		if(ratio <= 0.85 && !smallSized){
-			resizeSensor();
-			smallSized = true;
-		}
-		else if(ratio >= 0.95 && (smallSized || fuel-oldFuel >= 1)){
-			resizeSensor();
-			smallSized = false;
+		updateRatio();
+		// The sprite scales with ratio every frame, but the fixtures are only
+		// rebuilt when ratio crosses into another physics size
+		int level = getSizeLevel(ratio);
+		if (level != sizeLevel) {
+			setSizeLevel(level);
 		}
 		oldFuel = fuel;
 		cRatio = Math.max(.4f, Math.min(1f, fuel / CRITICAL_FUEL));
@@ -420,21 +431,85 @@ public class AidenModel extends CharacterModel {
 		trailRight.update(dt);
 		trailStill.update(dt);
 		fuelP.update(dt);
-		trailLeft.setPosition(getX() * drawScale.x,
-				(getY() - 0.5f) * drawScale.y);
-		trailRight.setPosition(getX() * drawScale.x,
-				(getY() - 0.5f) * drawScale.y);
-		trailStill.setPosition(getX() * drawScale.x,
-				(getY() - 0.5f) * drawScale.y);
+		trailLeft.setPosition(getDrawX() * drawScale.x,
+				(getDrawY() - 0.5f) * drawScale.y);
+		trailRight.setPosition(getDrawX() * drawScale.x,
+				(getDrawY() - 0.5f) * drawScale.y);
+		trailStill.setPosition(getDrawX() * drawScale.x,
+				(getDrawY() - 0.5f) * drawScale.y);
 	}
 	
 	@Override
 	public boolean activatePhysics(World world) {
-		// create the box from our superclass
+		// create the box and sensors from our superclass
 		if (!super.activatePhysics(world)) {
 			return false;
 		}
 
+		// Swap the superclass sensors for those of the current physics size
+		super.disposeSensorShapes();
+		updateRatio();
+		setSizeLevel(getSizeLevel(ratio));
+		return true;
+	}
+
+	/**
+	 * Frees the sensor shapes of every physics size.
+	 *
+	 * They are built again if the body is ever made again.
+	 */
+	@Override
+	protected void disposeSensorShapes() {
+		sensorShape = topShape = null;
+		if (sensorShapes == null) {
+			return;
+		}
+		for (int ii = 0; ii < SIZE_LEVELS; ii++) {
+			sensorShapes[ii].dispose();
+			topShapes[ii].dispose();
+		}
+		sensorShapes = topShapes = null;
+	}
+
+	/** Recomputes the draw ratio from the fuel */
+	private void updateRatio() {
+		ratio = Math.min(1.0f, Math.max(MIN_RATIO, fuel / MAX_FUEL));
+	}
+
+	/**
+	 * Returns the physics size closest to the given ratio
+	 *
+	 * @param ratio
+	 *            the fraction of full size
+	 *
+	 * @return the physics size closest to the given ratio
+	 */
+	private static int getSizeLevel(float ratio) {
+		int level = Math.round((ratio - MIN_RATIO) / SIZE_STEP);
+		return Math.max(0, Math.min(SIZE_LEVELS - 1, level));
+	}
+
+	/**
+	 * Changes the body and sensors to one of the pre-built physics sizes.
+	 *
+	 * The body is resized (and so rebuilt on the next update), and the old
+	 * sensors are destroyed before the new ones are made, so no fixtures are
+	 * left behind.
+	 *
+	 * @param level
+	 *            the physics size
+	 */
+	private void setSizeLevel(int level) {
+		sizeLevel = level;
+		float r = MIN_RATIO + level * SIZE_STEP;
+		setDimension(iWidth * r, iHeight * r);
+		if (body == null) {
+			return;
+		}
+		if (sensorShapes == null) {
+			buildSensorShapes();
+		}
+
 		// Ground Sensor
 		// -------------
 		// We only allow the dude to jump when he's on the ground.
@@ -443,59 +518,46 @@ public class AidenModel extends CharacterModel {
 		// To determine whether or not the dude is on the ground,
 		// we create a thin sensor under his feet, which reports
 		// collisions with the world but has no collision response.
-		Vector2 sensorCenter = new Vector2(0, -getHeight() / 1.9f);
-		FixtureDef sensorDef = new FixtureDef();
-		sensorDef.density = DUDE_DENSITY;
-		sensorDef.isSensor = true;
-		sensorShape = new PolygonShape();
-		sensorShape.setAsBox(DUDE_SSHRINK * getWidth() / 2.5f, SENSOR_HEIGHT,
-				sensorCenter, 0.0f);
+		if (sensorFixture != null) {
+			body.destroyFixture(sensorFixture);
+		}
+		sensorShape = sensorShapes[level];
 		sensorDef.shape = sensorShape;
-
 		sensorFixture = body.createFixture(sensorDef);
 		sensorFixture.setUserData(getSensorName());
-		
+
 		//top Sensor
-		sensorCenter.y = getHeight()/2;
-		FixtureDef topDef = new FixtureDef();
-		topDef.density = DUDE_DENSITY;
-		topDef.isSensor = true;
-		topShape = new PolygonShape();
-		topShape.setAsBox(DUDE_SSHRINK * getWidth() / 2.5f, SENSOR_HEIGHT,
-				sensorCenter, 0.0f);
-		topDef.shape = topShape;
-
-		top = body.createFixture(topDef);
+		if (top != null) {
+			body.destroyFixture(top);
+		}
+		topShape = topShapes[level];
+		sensorDef.shape = topShape;
+		top = body.createFixture(sensorDef);
 		top.setUserData(getTopName());
-		return true;
 	}
-	
 
-	public void resizeSensor(){
-		Vector2 sensorCenter = new Vector2(0, -getHeight() / 1.8f);
-		FixtureDef sensorDef = new FixtureDef();
+	/** Builds the sensor shapes of every physics size */
+	private void buildSensorShapes() {
+		sensorDef = new FixtureDef();
 		sensorDef.density = DUDE_DENSITY;
 		sensorDef.isSensor = true;
-		sensorShape = new PolygonShape();
-		sensorShape.setAsBox(DUDE_SSHRINK * getWidth() / 2.5f, SENSOR_HEIGHT,
-				sensorCenter, 0.0f);
-		sensorDef.shape = sensorShape;
-
-		sensorFixture = body.createFixture(sensorDef);
-		sensorFixture.setUserData(getSensorName());
-		
-		//top Sensor
-		sensorCenter.y = getHeight()/2;
-		FixtureDef topDef = new FixtureDef();
-		topDef.density = DUDE_DENSITY;
-		topDef.isSensor = true;
-		topShape = new PolygonShape();
-		topShape.setAsBox(DUDE_SSHRINK * getWidth() / 2.5f, SENSOR_HEIGHT,
-				sensorCenter, 0.0f);
-		topDef.shape = topShape;
-
-		top = body.createFixture(topDef);
-		top.setUserData(getTopName());
+		sensorShapes = new PolygonShape[SIZE_LEVELS];
+		topShapes = new PolygonShape[SIZE_LEVELS];
+		Vector2 sensorCenter = new Vector2();
+		for (int ii = 0; ii < SIZE_LEVELS; ii++) {
+			float r = MIN_RATIO + ii * SIZE_STEP;
+			float w = iWidth * r;
+			float h = iHeight * r;
+			// Full size keeps the ground sensor where it was first placed
+			sensorCenter.set(0, ii == SIZE_LEVELS - 1 ? -h / 1.9f : -h / 1.8f);
+			sensorShapes[ii] = new PolygonShape();
+			sensorShapes[ii].setAsBox(DUDE_SSHRINK * w / 2.5f, SENSOR_HEIGHT,
+					sensorCenter, 0.0f);
+			sensorCenter.set(0, h / 2);
+			topShapes[ii] = new PolygonShape();
+			topShapes[ii].setAsBox(DUDE_SSHRINK * w / 2.5f, SENSOR_HEIGHT,
+					sensorCenter, 0.0f);
+		}
 	}
 
 	public void simpleDraw(GameCanvas canvas) {
@@ -531,8 +593,8 @@ public class AidenModel extends CharacterModel {
 			if (texture == null)
 				return;
 			canvas.draw(texture, c, origin.x, origin.y,
-					getX() * drawScale.x,
-					getY() * drawScale.y, getAngle(), effect * ratio,
+					getDrawX() * drawScale.x,
+					getDrawY() * drawScale.y, getDrawAngle(), effect * ratio,
 					1.0f * ratio);
 			return;
 
@@ -577,8 +639,8 @@ public class AidenModel extends CharacterModel {
 		if (death.getFrame() <= 6) {
 			c = preColor;
 		}
-		canvas.draw(death, c, ox, oy, getX() * drawScale.x,
-				getY() * drawScale.y + 30*ratio, getAngle(), effect*ratio, ratio);
+		canvas.draw(death, c, ox, oy, getDrawX() * drawScale.x,
+				getDrawY() * drawScale.y + 30*ratio, getDrawAngle(), effect*ratio, ratio);
 		if(death.getFrame() == death.getSize()-1){
 			drawFail = true;
 		}
@@ -596,8 +658,8 @@ public class AidenModel extends CharacterModel {
 		float oy = 0.5f * characterSprite.getRegionHeight();
 
 		float effect = faceRight ? 1.0f : -1.0f;
-		canvas.draw(jump, preColor, ox, oy, getX() * drawScale.x,
-				getY() * drawScale.y + 30*ratio, getAngle(), -effect*ratio, ratio);
+		canvas.draw(jump, preColor, ox, oy, getDrawX() * drawScale.x,
+				getDrawY() * drawScale.y + 30*ratio, getDrawAngle(), -effect*ratio, ratio);
 		if (jumpFrame == jump.getSize()-1){
 			jumpFrame = 0;
 			drawJumping = false;
@@ -615,8 +677,8 @@ public class AidenModel extends CharacterModel {
 		float oy = 0.5f * characterSprite.getRegionHeight();
 
 		float effect = faceRight ? 1.0f : -1.0f;
-		canvas.draw(run, preColor, ox, oy, getX() * drawScale.x,
-				getY() * drawScale.y+30*ratio, getAngle(), -effect*ratio, ratio);
+		canvas.draw(run, preColor, ox, oy, getDrawX() * drawScale.x,
+				getDrawY() * drawScale.y+30*ratio, getDrawAngle(), -effect*ratio, ratio);
 	}
 	public void drawSpirit(GameCanvas canvas, float ratio, Color c){
 		if (this.animeCoolDown<=0) {
@@ -629,8 +691,8 @@ public class AidenModel extends CharacterModel {
 		float oy = 0.5f * characterSprite.getRegionHeight();
 
 		float effect = faceRight ? -1.0f : 1.0f;
-		canvas.draw(spirit, c, ox, oy, getX() * drawScale.x,
-				getY() * drawScale.y+30*ratio, getAngle(), -effect*ratio, ratio);
+		canvas.draw(spirit, c, ox, oy, getDrawX() * drawScale.x,
+				getDrawY() * drawScale.y+30*ratio, getDrawAngle(), -effect*ratio, ratio);
 	}
 	
 	public int cycles = 0;
@@ -645,8 +707,8 @@ public class AidenModel extends CharacterModel {
 		float oy = 0.5f * characterSprite.getRegionHeight();
 
 		float effect = faceRight ? -1.0f : 1.0f;
-		canvas.draw(expand, preColor, ox, oy, getX() * drawScale.x,
-				getY() * drawScale.y + 30*ratio, getAngle(), -effect*ratio, ratio);
+		canvas.draw(expand, preColor, ox, oy, getDrawX() * drawScale.x,
+				getDrawY() * drawScale.y + 30*ratio, getDrawAngle(), -effect*ratio, ratio);
 		if (expand.getFrame() == expand.getSize()-1){
 			cycles++;
 			if(cycles == 7){
@@ -64,6 +64,10 @@ public class CharacterModel extends CapsuleObstacle{
 	protected Fixture right;
 	protected PolygonShape sensorShape;
 	protected PolygonShape topShape;
+	/** Fixture user data for the sensors, and the name they were built from */
+	private String sensorName;
+	private String topName;
+	private String namedAs;
 
 	/** Cache for internal force calculations */
 	protected Vector2 forceCache = new Vector2();
@@ -309,11 +313,25 @@ public class CharacterModel extends CapsuleObstacle{
 	 * @return the name of the ground sensor
 	 */
 	public String getSensorName() {
-		return getName() + "GroundSensor";
+		cacheSensorNames();
+		return sensorName;
 	}
 
 	public String getTopName(){
-		return getName() + "TopSensor";
+		cacheSensorNames();
+		return topName;
+	}
+
+	/**
+	 * The sensor names are kept so that the fixture user data is the same
+	 * String instance, and contact handlers can compare by reference.
+	 */
+	private void cacheSensorNames() {
+		if (sensorName == null || namedAs != getName()) {
+			namedAs = getName();
+			sensorName = getName() + "GroundSensor";
+			topName = getName() + "TopSensor";
+		}
 	}
 
 	/**
@@ -430,6 +448,34 @@ public class CharacterModel extends CapsuleObstacle{
 		top.setUserData(getTopName());
 		return true;
 	}
+
+	/**
+	 * Destroys the physics Body(s) of this object, and frees the sensor shapes.
+	 *
+	 * @param world
+	 *            Box2D world that stores body
+	 */
+	@Override
+	public void deactivatePhysics(World world) {
+		super.deactivatePhysics(world);
+		disposeSensorShapes();
+	}
+
+	/**
+	 * Frees the native memory of the sensor shapes.
+	 *
+	 * The fixtures keep their own copies, so this is safe once they are made.
+	 */
+	protected void disposeSensorShapes() {
+		if (sensorShape != null) {
+			sensorShape.dispose();
+			sensorShape = null;
+		}
+		if (topShape != null) {
+			topShape.dispose();
+			topShape = null;
+		}
+	}
 	
 	public void resizeFixture(float ratio){
 //		Vector2 sensorCenter = new Vector2(0, -getHeight() / 2);
@@ -493,8 +539,8 @@ public class CharacterModel extends CapsuleObstacle{
 		if (characterSprite == null) {
 			if (texture==null) return;
 			canvas.draw(texture, Color.WHITE, origin.x, origin.y,
-					getX() * drawScale.x, 
-					getY() * drawScale.y, getAngle(), effect, 
+					getDrawX() * drawScale.x, 
+					getDrawY() * drawScale.y, getDrawAngle(), effect, 
 					1.0f);
 			return;
 		}
@@ -535,8 +581,8 @@ public class CharacterModel extends CapsuleObstacle{
 
 		float effect = faceRight ? 1.0f : -1.0f;
 		
-		canvas.draw(characterSprite, c, ox, oy, getX() * drawScale.x, 
-				getY() * drawScale.y + 30*sx, getAngle(), effect*sx, sy);
+		canvas.draw(characterSprite, c, ox, oy, getDrawX() * drawScale.x, 
+				getDrawY() * drawScale.y + 30*sx, getDrawAngle(), effect*sx, sy);
 	}
 	
 	public void animate(GameCanvas canvas, Color c, float ratio){
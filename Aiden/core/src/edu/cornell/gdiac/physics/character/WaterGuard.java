@@ -1,11 +1,11 @@
 package edu.cornell.gdiac.physics.character;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.ParticleEffect;
 
 import edu.cornell.gdiac.physics.GameCanvas;
 import edu.cornell.gdiac.physics.character.FSMNode.BasicFSMState;
+import edu.cornell.gdiac.physics.scene.ParticleRegistry;
 import edu.cornell.gdiac.util.FilmStrip;
 
 public class WaterGuard extends CharacterModel{
@@ -19,18 +19,24 @@ public class WaterGuard extends CharacterModel{
 	public WaterGuard(CharacterType t, String name, float x, float y, float width, float height, boolean fright) {
 		super(t, name, x, y, width, height, fright);
 		this.setDensity(1f);
-		putOutLeft = new ParticleEffect();
-		putOutLeft.load(Gdx.files.internal("platform/putout.p"),
-				Gdx.files.internal("platform"));
+		putOutLeft = ParticleRegistry.getInstance().obtain(ParticleRegistry.PUT_OUT_LEFT);
 		putOutLeft.setPosition(getX() * drawScale.x,
 					getY() * drawScale.y);
-		putOutRight = new ParticleEffect();
-		putOutRight.load(Gdx.files.internal("platform/putoutn.p"),
-				Gdx.files.internal("platform"));
+		putOutRight = ParticleRegistry.getInstance().obtain(ParticleRegistry.PUT_OUT_RIGHT);
 		putOutRight.setPosition(getX() * drawScale.x,
 					getY() * drawScale.y);
 	}
 	
+	/*
+	 * Gives the particle effects back to the registry, once the guard is
+	 * thrown away
+	 */
+	public void releaseEffects(){
+		ParticleRegistry.getInstance().free(putOutLeft);
+		ParticleRegistry.getInstance().free(putOutRight);
+		putOutLeft = putOutRight = null;
+	}
+	
 	public boolean finishDraw(){
 		return finishDraw;
 	}
@@ -61,11 +67,11 @@ public class WaterGuard extends CharacterModel{
 			this.markRemoved(true);
 		}
 		putOutLeft.update(dt);
-		putOutLeft.setPosition(getX() * drawScale.x,
-				getY() * drawScale.y);
+		putOutLeft.setPosition(getDrawX() * drawScale.x,
+				getDrawY() * drawScale.y);
 		putOutRight.update(dt);
-		putOutRight.setPosition(getX() * drawScale.x,
-				getY() * drawScale.y);
+		putOutRight.setPosition(getDrawX() * drawScale.x,
+				getDrawY() * drawScale.y);
 	}
 	
 	@Override
@@ -96,8 +102,8 @@ public class WaterGuard extends CharacterModel{
 
 		float effect = faceRight ? 1.0f : -1.0f;
 		
-		canvas.draw(characterSprite, c, ox, oy+0.5f, getX() * drawScale.x, 
-				getY() * drawScale.y + 15, getAngle(), effect*sx, sy);
+		canvas.draw(characterSprite, c, ox, oy+0.5f, getDrawX() * drawScale.x, 
+				getDrawY() * drawScale.y + 15, getDrawAngle(), effect*sx, sy);
 	}
 	
 	public void animateChase(GameCanvas canvas, Color c, float sx, float sy){
@@ -111,8 +117,8 @@ public class WaterGuard extends CharacterModel{
 
 		float effect = faceRight ? 1.0f : -1.0f;
 		
-		canvas.draw(chase, c, ox, oy, getX() * drawScale.x, 
-				getY() * drawScale.y + 15, getAngle(), effect*sx, sy);
+		canvas.draw(chase, c, ox, oy, getDrawX() * drawScale.x, 
+				getDrawY() * drawScale.y + 15, getDrawAngle(), effect*sx, sy);
 	}
 	
 	public void drawDead(GameCanvas canvas){
@@ -131,7 +137,7 @@ public class WaterGuard extends CharacterModel{
 
 		float effect = faceRight ? 1.0f : -1.0f;
 		Color c = Color.WHITE;
-		canvas.draw(death, c, ox, oy, getX() * drawScale.x,
-				getY() * drawScale.y + 18, getAngle(), effect, 1f);
+		canvas.draw(death, c, ox, oy, getDrawX() * drawScale.x,
+				getDrawY() * drawScale.y + 18, getDrawAngle(), effect, 1f);
 	}
 }
@@ -5,6 +5,7 @@ package edu.cornell.gdiac.physics.editor;
 import java.util.ArrayList;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Json;
 //import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.JsonWriter.OutputType;
@@ -38,6 +39,8 @@ import edu.cornell.gdiac.physics.obstacle.BoxObstacle;
 import edu.cornell.gdiac.physics.obstacle.Obstacle;
 //import edu.cornell.gdiac.physics.obstacle.Obstacle;
 import edu.cornell.gdiac.physics.scene.AssetFile;
+import edu.cornell.gdiac.physics.scene.LevelData;
+import edu.cornell.gdiac.physics.scene.LevelFormat;
 import edu.cornell.gdiac.physics.scene.Scene;
 
 public class LevelEditor extends WorldController {
@@ -831,6 +834,17 @@ public class LevelEditor extends WorldController {
 				.absolute(Gdx.files.getLocalStoragePath() + outputfile);
 
 		file.writeString(project_str, false);
+
+		FileHandle compiled = Gdx.files.absolute(Gdx.files.getLocalStoragePath()
+				+ LevelFormat.compiledPath(outputfile));
+		try {
+			LevelFormat.write(project.toLevelData(json, outputfile), compiled);
+		} catch (GdxRuntimeException e) {
+			// The JSON is saved; the game reads it when there is no compiled level
+			System.err.println("Could not compile " + outputfile + ": " + e.getMessage());
+			compiled.delete();
+		}
+		LevelData.invalidate(outputfile);
 	}
 
 	public void loadFromJson() {
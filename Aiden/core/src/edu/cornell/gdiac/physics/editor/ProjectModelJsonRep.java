@@ -3,6 +3,7 @@ package edu.cornell.gdiac.physics.editor;
 import java.util.ArrayList;
 
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
 
 import edu.cornell.gdiac.physics.blocks.BlockAbstract;
@@ -11,6 +12,7 @@ import edu.cornell.gdiac.physics.blocks.TrapDoor;
 import edu.cornell.gdiac.physics.character.AidenModel;
 import edu.cornell.gdiac.physics.character.CharacterModel;
 import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.physics.scene.LevelData;
 
 public class ProjectModelJsonRep implements Json.Serializable{
 	private int level = 1;
@@ -82,6 +84,14 @@ public class ProjectModelJsonRep implements Json.Serializable{
 		
 	}
 
+	/** 
+	 * The level as the game loads it, read back from what write() emits,
+	 * so the compiled level always matches the JSON one.
+	 */
+	public LevelData toLevelData(Json json, String path){
+		return LevelData.parse(path, new JsonReader().parse(json.toJson(this)));
+	}
+
 	@Override
 	public void read(Json json, JsonValue jsonData) {
 		// TODO Auto-generated method stub
@@ -42,6 +42,11 @@ public class Flammable extends GeneralMaterial implements FlammableInterface{
 		return burnTimer;
 	}
 
+	@Override
+	public float getSpreadTime() {
+		return spreadTimer;
+	}
+
 	@Override
 	public float getBurnRatio() {
 		return this.burnTimer/this.burnRate;
@@ -102,6 +107,16 @@ public class Flammable extends GeneralMaterial implements FlammableInterface{
 		checkBurnt();
 	}
 	
+	/**
+	 * Puts back a burning state read from the getters, e.g. to rewind a level
+	 */
+	public void setBurnState(boolean burning, boolean burnt, float burnTimer, float spreadTimer){
+		this.burning=burning;
+		this.burnt=burnt;
+		this.burnTimer=burnTimer;
+		this.spreadTimer=spreadTimer;
+	}
+	
 	public int getFuelPenalty(){
 		return fuelPenalty;
 	}
@@ -19,6 +19,10 @@ public interface FlammableInterface {
 	 * @return the seconds until it gets burnt/destroyed
 	 */
 	public float getBurnTime();
+	/**
+	 * @return the seconds until it starts to spread
+	 */
+	public float getSpreadTime();
 	/**
 	 * @return the percentage of remaining frames until it gets burnt/destroyed
 	 */
@@ -42,6 +42,11 @@ public class PermanentFlammable extends GeneralMaterial implements FlammableInte
 		return burnTimer;
 	}
 
+	@Override
+	public float getSpreadTime() {
+		return spreadTimer;
+	}
+
 	@Override
 	public float getBurnRatio() {
 		return this.burnTimer/this.burnRate;
@@ -209,9 +209,8 @@ public class BoxObstacle extends SimpleObstacle {
 	}
 
 	@Override
-	public Rectangle getBoundingBox() {
-		// TODO Auto-generated method stub
-		return new Rectangle(this.getX()-this.getWidth()/2f, this.getY()-this.getHeight()/2f,
+	protected void computeBoundingBox(Rectangle out) {
+		out.set(this.getX()-this.getWidth()/2f, this.getY()-this.getHeight()/2f,
 				this.getWidth(), this.getHeight());
 	}
 
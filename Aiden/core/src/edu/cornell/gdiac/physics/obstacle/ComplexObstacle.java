@@ -112,6 +112,8 @@ public abstract class ComplexObstacle extends Obstacle {
 	 * @param value  the current position for this physics body
 	 */
 	public void setPosition(Vector2 value) {
+		clearPreviousTransform();
+		invalidateBounds();
 		if (body != null) {
 			body.setTransform(value,body.getAngle());
 		} else {
@@ -138,6 +140,8 @@ public abstract class ComplexObstacle extends Obstacle {
 	 * @param y  the y-coordinate for this physics body
 	 */
 	public void setPosition(float x, float y) {
+		clearPreviousTransform();
+		invalidateBounds();
 		if (body != null) {
 			positionCache.set(x,y);
 			body.setTransform(positionCache,body.getAngle());
@@ -167,6 +171,8 @@ public abstract class ComplexObstacle extends Obstacle {
 	 * @param value  the x-coordinate for this physics body
 	 */
 	public void setX(float value) {
+		clearPreviousTransform();
+		invalidateBounds();
 		if (body != null) {
 			positionCache.set(value,body.getPosition().y);
 			body.setTransform(positionCache,body.getAngle());
@@ -196,6 +202,8 @@ public abstract class ComplexObstacle extends Obstacle {
 	 * @param value  the y-coordinate for this physics body
 	 */
 	public void setY(float value) {
+		clearPreviousTransform();
+		invalidateBounds();
 		if (body != null) {
 			positionCache.set(body.getPosition().x,value);
 			body.setTransform(positionCache,body.getAngle());
@@ -227,6 +235,7 @@ public abstract class ComplexObstacle extends Obstacle {
 	 * @param value  the angle of rotation for this body (in radians)
 	 */
 	public void setAngle(float value) {
+		clearPreviousTransform();
 		if (body != null) {
 			body.setTransform(body.getPosition(),value);
 		} else {
@@ -925,6 +934,21 @@ public abstract class ComplexObstacle extends Obstacle {
 	 	return bodies;
 	 }
 
+	/**
+	 * Replaces the component physics objects with a saved collection.
+	 *
+	 * This puts back components that were removed while the object was in use.
+	 * It should only be called while the object is not active, as the joints
+	 * are made when it is next activated.
+	 *
+	 * @param saved the component physics objects, in order
+	 */
+	public void restoreBodies(Array<Obstacle> saved) {
+		assert !bodyinfo.active : "Cannot restore the components of an active object";
+		bodies.clear();
+		bodies.addAll(saved);
+	}
+
 	/** 
 	 * Returns the collection of joints for this object (may be empty).
 	 *
@@ -1036,6 +1060,30 @@ public abstract class ComplexObstacle extends Obstacle {
 			obj.update(delta);
 		}
 	}
+
+	/**
+	 * Records the current transform as the state before the next physics step.
+	 *
+	 * The components are drawn independently, so each records its own transform.
+	 */
+	public void savePreviousTransform() {
+		super.savePreviousTransform();
+		for(Obstacle obj : bodies) {
+			obj.savePreviousTransform();
+		}
+	}
+
+	/**
+	 * Forgets the previous transform, so that the object is drawn where it is.
+	 *
+	 * This also clears the transforms of all of the components.
+	 */
+	public void clearPreviousTransform() {
+		super.clearPreviousTransform();
+		for(Obstacle obj : bodies) {
+			obj.clearPreviousTransform();
+		}
+	}
 	
 	/**
      * Sets the drawing scale for this physics object
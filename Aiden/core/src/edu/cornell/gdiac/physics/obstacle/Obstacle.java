@@ -68,6 +68,24 @@ public abstract class Obstacle {
 	/** A cache value for when the user wants to access the drawing scale */
 	protected Vector2 scaleCache = new Vector2();
 
+	/// Render interpolation
+	/** Fraction of a physics step elapsed since the last step (shared by all objects) */
+	private static float interpolation = 1.0f;
+	/** The position before the most recent physics step */
+	protected Vector2 previousPosition = new Vector2();
+	/** The angle before the most recent physics step */
+	protected float previousAngle;
+	/** Whether previousPosition and previousAngle hold a valid snapshot */
+	protected boolean hasPrevious = false;
+
+	/// Bounding box cache
+	/** Number of physics steps taken so far (shared by all objects) */
+	private static int stepCount = 0;
+	/** The bounding box as of boundsStep */
+	private Rectangle boundsCache = new Rectangle();
+	/** The step boundsCache was computed in, or -1 if it must be recomputed */
+	private int boundsStep = -1;
+
 
 	/// BodyDef Methods
 	/**
@@ -118,6 +136,7 @@ public abstract class Obstacle {
 	 */
 	public void setPosition(Vector2 value) {
 		bodyinfo.position.set(value);
+		invalidateBounds();
 	}
 
 	/**
@@ -128,6 +147,7 @@ public abstract class Obstacle {
 	 */
 	public void setPosition(float x, float y) {
 		bodyinfo.position.set(x, y);
+		invalidateBounds();
 	}
 
 	/**
@@ -146,6 +166,7 @@ public abstract class Obstacle {
 	 */
 	public void setX(float value) {
 		bodyinfo.position.x = value;
+		invalidateBounds();
 	}
 	
 	/**
@@ -164,6 +185,7 @@ public abstract class Obstacle {
 	 */
 	public void setY(float value) {
 		bodyinfo.position.y = value;
+		invalidateBounds();
 	}
 	
 	/**
@@ -678,6 +700,19 @@ public abstract class Obstacle {
 		}
 	}
 
+	/**
+	 * Returns the collision category of this object
+	 *
+	 * This is the category bit of the filter data.  It is read on every contact
+	 * callback to pick the handlers for a pair of objects, so it is a field
+	 * read and never touches the fixtures.
+	 *
+	 * @return the collision category of this object
+	 */
+	public short getCategory() {
+		return fixture.filter.categoryBits;
+	}
+
 	/// MassData Methods
 	/**
 	 * Returns the center of mass of this body
@@ -820,6 +855,9 @@ public abstract class Obstacle {
 	 */
 	public void markDirty(boolean value) {
 		isDirty = value;
+		if (value) {
+			invalidateBounds();
+		}
 	}
 		
 	/**
@@ -888,6 +926,94 @@ public abstract class Obstacle {
     	drawScale.set(x,y);
     }
     	
+	/// INTERPOLATION METHODS
+	/**
+	 * Returns the fraction of a physics step to interpolate drawing by.
+	 *
+	 * The world steps at a fixed rate, which is rarely the frame rate.  When
+	 * drawing, objects are placed this fraction of the way from their state 
+	 * before the last step to their current state.
+	 *
+	 * @return the fraction of a physics step to interpolate drawing by.
+	 */
+	public static float getInterpolation() {
+		return interpolation;
+	}
+
+	/**
+	 * Sets the fraction of a physics step to interpolate drawing by.
+	 *
+	 * This is set by the controller after the physics steps of each frame.
+	 *
+	 * @param value  the fraction of a physics step, between 0 and 1
+	 */
+	public static void setInterpolation(float value) {
+		interpolation = Math.max(0, Math.min(1, value));
+	}
+
+	/**
+	 * Records the current transform as the state before the next physics step.
+	 *
+	 * The controller calls this right before the last physics step of a frame.
+	 */
+	public void savePreviousTransform() {
+		previousPosition.set(getX(),getY());
+		previousAngle = getAngle();
+		hasPrevious = true;
+	}
+
+	/**
+	 * Forgets the previous transform, so that the object is drawn where it is.
+	 *
+	 * This should be called whenever the object is teleported.
+	 */
+	public void clearPreviousTransform() {
+		hasPrevious = false;
+	}
+
+	/**
+	 * Returns the interpolated x-coordinate to draw this object at.
+	 *
+	 * @return the interpolated x-coordinate to draw this object at.
+	 */
+	public float getDrawX() {
+		if (!hasPrevious) {
+			return getX();
+		}
+		return previousPosition.x+(getX()-previousPosition.x)*interpolation;
+	}
+
+	/**
+	 * Returns the interpolated y-coordinate to draw this object at.
+	 *
+	 * @return the interpolated y-coordinate to draw this object at.
+	 */
+	public float getDrawY() {
+		if (!hasPrevious) {
+			return getY();
+		}
+		return previousPosition.y+(getY()-previousPosition.y)*interpolation;
+	}
+
+	/**
+	 * Returns the interpolated angle to draw this object at.
+	 *
+	 * @return the interpolated angle to draw this object at (in radians)
+	 */
+	public float getDrawAngle() {
+		if (!hasPrevious) {
+			return getAngle();
+		}
+		// Turn the short way round when the angle wraps across +/- pi
+		float delta = (getAngle()-previousAngle) % MathUtils.PI2;
+		if (delta > MathUtils.PI) {
+			delta -= MathUtils.PI2;
+		} else if (delta < -MathUtils.PI) {
+			delta += MathUtils.PI2;
+		}
+		return previousAngle+delta*interpolation;
+	}
+    	
 	/// DEBUG METHODS
 	/**
      * Returns the physics object tag.
@@ -1000,10 +1126,60 @@ public abstract class Obstacle {
 	 */
 	public abstract void drawDebug(GameCanvas canvas);
 	public abstract void drawDebug(GameCanvas canvas, Color c);
+
 	/**
-	 * Return the bounding box that describes the obstacle;
-	 * Currently only used by level editor
-	 * @return
+	 * Returns the axis-aligned bounding box of the obstacle.
+	 *
+	 * The box is cached, and only recomputed once per physics step (or when the
+	 * obstacle is moved or resized by hand). This method returns the same
+	 * rectangle each time it is called, so it should be treated as read-only,
+	 * and copied if it must be kept past the next step.
+	 *
+	 * @return the axis-aligned bounding box of the obstacle
 	 */
-	public abstract Rectangle getBoundingBox();
+	public Rectangle getBoundingBox() {
+		if (boundsStep != stepCount) {
+			computeBoundingBox(boundsCache);
+			boundsStep = stepCount;
+		}
+		return boundsCache;
+	}
+
+	/**
+	 * Copies the axis-aligned bounding box of the obstacle into a rectangle.
+	 *
+	 * @param out  the rectangle to store the box in
+	 *
+	 * @return the given rectangle, for chaining
+	 */
+	public Rectangle getBoundingBox(Rectangle out) {
+		return out.set(getBoundingBox());
+	}
+
+	/**
+	 * Forces the bounding box to be recomputed the next time it is asked for.
+	 *
+	 * The position and dimension setters call this already. Subclasses should
+	 * call it whenever their geometry changes some other way.
+	 */
+	public void invalidateBounds() {
+		boundsStep = -1;
+	}
+
+	/**
+	 * Computes the axis-aligned bounding box of the obstacle from scratch.
+	 *
+	 * @param out  the rectangle to store the box in
+	 */
+	protected abstract void computeBoundingBox(Rectangle out);
+
+	/**
+	 * Marks the end of a physics step.
+	 *
+	 * Bounding boxes computed before this call are stale, and are recomputed
+	 * the next time they are asked for. Call this once after every world step.
+	 */
+	public static void nextStep() {
+		stepCount++;
+	}
 }
\ No newline at end of file
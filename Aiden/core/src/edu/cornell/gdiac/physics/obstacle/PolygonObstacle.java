@@ -54,6 +54,22 @@ public class PolygonObstacle extends SimpleObstacle {
 	private Vector2 sizeCache;
 	/** Cache of the polygon vertices (for resizing) */
 	private float[] vertices;
+
+	/// Prepared geometry, for bounds and point queries without allocation
+	/** The polygon outline (before triangulation), for point queries */
+	private float[] outline;
+	/** The box around the outline, relative to the polygon origin */
+	private Rectangle localBounds = new Rectangle();
+	/** The lower y-coordinate of each non-horizontal outline edge */
+	private float[] edgeLow;
+	/** The upper y-coordinate of each non-horizontal outline edge */
+	private float[] edgeHigh;
+	/** The x-coordinate of each edge at its lower end */
+	private float[] edgeX;
+	/** The change in x per unit of y along each edge */
+	private float[] edgeSlope;
+	/** The number of entries in the edge table */
+	private int edgeCount;
 	
 	/** 
 	 * Returns the dimensions of this box
@@ -230,6 +246,54 @@ public class PolygonObstacle extends SimpleObstacle {
 			region = new PolygonRegion(texture,scaled,tridx);
 		}
 
+		outline = new float[points.length];
+		System.arraycopy(points, 0, outline, 0, points.length);
+		int edges = points.length / 2;
+		edgeLow   = new float[edges];
+		edgeHigh  = new float[edges];
+		edgeX     = new float[edges];
+		edgeSlope = new float[edges];
+		initPrepared();
+	}
+
+	/**
+	 * Prepares the outline bounds and edge table, relative to the polygon origin
+	 *
+	 * This is only done when the outline changes, so that the bounding box
+	 * and point queries do not have to rescan (or copy) the vertices each time.
+	 * Horizontal edges are dropped, as no scanline ever crosses them.
+	 */
+	private void initPrepared() {
+		float minx = outline[0];
+		float maxx = outline[0];
+		float miny = outline[1];
+		float maxy = outline[1];
+		for(int ii = 2; ii < outline.length; ii += 2) {
+			minx = Math.min(minx, outline[ii]);
+			maxx = Math.max(maxx, outline[ii]);
+			miny = Math.min(miny, outline[ii+1]);
+			maxy = Math.max(maxy, outline[ii+1]);
+		}
+		localBounds.set(minx, miny, maxx-minx, maxy-miny);
+
+		edgeCount = 0;
+		for(int ii = 0; ii < outline.length; ii += 2) {
+			int jj = (ii+2) % outline.length;
+			float x0 = outline[ii],   y0 = outline[ii+1];
+			float x1 = outline[jj],   y1 = outline[jj+1];
+			if (y0 == y1) {
+				continue;
+			}
+			if (y0 > y1) {
+				float t = x0; x0 = x1; x1 = t;
+				t = y0; y0 = y1; y1 = t;
+			}
+			edgeLow[edgeCount]   = y0;
+			edgeHigh[edgeCount]  = y1;
+			edgeX[edgeCount]     = x0;
+			edgeSlope[edgeCount] = (x1-x0)/(y1-y0);
+			edgeCount++;
+		}
 	}
 	
 	/**
@@ -281,6 +345,11 @@ public class PolygonObstacle extends SimpleObstacle {
 			scaled[ii  ] *= scalex;
 			scaled[ii+1] *= scaley;
 		}
+		for(int ii = 0; ii < outline.length; ii+= 2) {
+			outline[ii  ] *= scalex;
+			outline[ii+1] *= scaley;
+		}
+		initPrepared();
 
 		dimension.set(width,height);
 	}
@@ -366,7 +435,7 @@ public class PolygonObstacle extends SimpleObstacle {
 	 */
 	public void draw(GameCanvas canvas) {
 		if (region != null) {
-			canvas.draw(region,Color.WHITE,0,0,getX()*drawScale.x,getY()*drawScale.y,getAngle(),1,1);
+			canvas.draw(region,Color.WHITE,0,0,getDrawX()*drawScale.x,getDrawY()*drawScale.y,getDrawAngle(),1,1);
 		}
 	}
 
@@ -389,26 +458,62 @@ public class PolygonObstacle extends SimpleObstacle {
 		}
 	}
 	
-	public boolean contains(Vector2 p){	
-		Polygon polygon=new Polygon();
-		polygon.setVertices(this.vertices);
-		return polygon.contains(p);
+	/**
+	 * Returns true if the polygon contains the given point (in world space)
+	 *
+	 * This uses the prepared bounds and edge table (even-odd rule), and so
+	 * does not allocate.
+	 *
+	 * @param p  the point to test
+	 *
+	 * @return true if the polygon contains the given point
+	 */
+	public boolean contains(Vector2 p) {
+		float px = p.x-getX();
+		float py = p.y-getY();
+		if (px < localBounds.x || px > localBounds.x+localBounds.width ||
+			py < localBounds.y || py > localBounds.y+localBounds.height) {
+			return false;
+		}
+		boolean inside = false;
+		for(int ii = 0; ii < edgeCount; ii++) {
+			if (py >= edgeLow[ii] && py < edgeHigh[ii] &&
+				edgeX[ii]+(py-edgeLow[ii])*edgeSlope[ii] > px) {
+				inside = !inside;
+			}
+		}
+		return inside;
+	}
+
+	/**
+	 * Stores where a horizontal line crosses the outline, sorted left to right
+	 *
+	 * Both the line and the crossings are in world space.  Under the even-odd
+	 * rule, consecutive pairs of crossings bound the spans inside the polygon,
+	 * which is what a scanline fill needs.
+	 *
+	 * @param y    the y-coordinate of the line
+	 * @param out  the array to store the crossings in (it is cleared first)
+	 */
+	public void getCrossings(float y, FloatArray out) {
+		out.clear();
+		float py = y-getY();
+		for(int ii = 0; ii < edgeCount; ii++) {
+			if (py >= edgeLow[ii] && py < edgeHigh[ii]) {
+				out.add(getX()+edgeX[ii]+(py-edgeLow[ii])*edgeSlope[ii]);
+			}
+		}
+		out.sort();
 	}
 	
 	public Vector2 getPointMustInside(){
-		return new Vector2(this.vertices[0],this.vertices[1]) ;
+		return new Vector2(getX()+this.vertices[0],getY()+this.vertices[1]) ;
 	}
 
 	@Override
-	public Rectangle getBoundingBox() {
-		float minX=Float.MAX_VALUE, maxX=0, minY=Float.MAX_VALUE, maxY=0;
-		for (int i=0; i<vertices.length; i+=2){
-			if (vertices[i]<minX) minX=vertices[i];
-			if (vertices[i]>maxX) maxX=vertices[i];			
-			if (vertices[i+1]<minY) minY=vertices[i+1];
-			if (vertices[i+1]>maxY) maxY=vertices[i+1];
-		}
-		return new Rectangle(minX, minY, maxX-minX, maxY-minY);
+	protected void computeBoundingBox(Rectangle out) {
+		out.set(getX()+localBounds.x, getY()+localBounds.y,
+				localBounds.width, localBounds.height);
 	}
 	
 }
\ No newline at end of file
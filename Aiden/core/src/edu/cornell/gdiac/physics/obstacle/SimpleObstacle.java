@@ -94,6 +94,8 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @param value  the current position for this physics body
 	 */
 	public void setPosition(Vector2 value) {
+		clearPreviousTransform();
+		invalidateBounds();
 		if (body != null) {
 			body.setTransform(value,body.getAngle());
 		} else {
@@ -108,6 +110,8 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @param y  the y-coordinate for this physics body
 	 */
 	public void setPosition(float x, float y) {
+		clearPreviousTransform();
+		invalidateBounds();
 		if (body != null) {
 			positionCache.set(x,y);
 			body.setTransform(positionCache,body.getAngle());
@@ -131,6 +135,8 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @param value  the x-coordinate for this physics body
 	 */
 	public void setX(float value) {
+		clearPreviousTransform();
+		invalidateBounds();
 		if (body != null) {
 			positionCache.set(value,body.getPosition().y);
 			body.setTransform(positionCache,body.getAngle());
@@ -154,6 +160,8 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @param value  the y-coordinate for this physics body
 	 */
 	public void setY(float value) {
+		clearPreviousTransform();
+		invalidateBounds();
 		if (body != null) {
 			positionCache.set(body.getPosition().x,value);
 			body.setTransform(positionCache,body.getAngle());
@@ -179,6 +187,7 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @param value  the angle of rotation for this body (in radians)
 	 */
 	public void setAngle(float value) {
+		clearPreviousTransform();
 		if (body != null) {
 			body.setTransform(body.getPosition(),value);
 		} else {
@@ -776,7 +785,7 @@ public abstract class SimpleObstacle extends Obstacle {
 	 */
 	public void draw(GameCanvas canvas) {
 		if (texture != null) {
-			canvas.draw(texture,Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.x,getAngle(),1,1);
+			canvas.draw(texture,Color.WHITE,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.x,getDrawAngle(),1,1);
 		}
 	}
 	
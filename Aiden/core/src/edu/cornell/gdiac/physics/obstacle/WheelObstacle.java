@@ -122,9 +122,8 @@ public class WheelObstacle extends SimpleObstacle {
 	}
 
 	@Override
-	public Rectangle getBoundingBox() {
-		// TODO Auto-generated method stub
-		return new Rectangle(this.getX()-this.getRadius(), 
+	protected void computeBoundingBox(Rectangle out) {
+		out.set(this.getX()-this.getRadius(), 
 				this.getY()-this.getRadius(),
 				this.getRadius()*2, this.getRadius()*2);
 	}
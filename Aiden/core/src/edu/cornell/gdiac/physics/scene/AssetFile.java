@@ -8,6 +8,7 @@ import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 
@@ -16,8 +17,48 @@ import edu.cornell.gdiac.util.SoundController;
 
 public class AssetFile {
 
+	/** Key prefix of the tutorial instruction images */
+	public static final String INSTRUCTION = "TUTORIAL_INST";
+	/** Number of tutorial instruction images */
+	private static final int INSTRUCTIONS = 20;
+
+	/**
+	 * Textures packed into the sprite atlas: blocks, characters and their
+	 * animations. Textures drawn repeated (tiles, ropes, water) cannot share
+	 * a page, and stay textures of their own.
+	 */
+	public static final String[] SPRITE_KEYS = { "DUDE_FILE", "WATER_FILE",
+			"BARRIER_FILE", "BULLET_FILE", "WOOD_FILE", "FUEL_FILE",
+			"STONE_FILE", "NAIL_FILE", "LONG_ROPE", "TRAP_DOOR",
+			"ROPE_LONG_FILE", "TRAPDOOR_FILE", "CHECKPOINT_FLAG",
+			"AIDEN_ANIME_FILE", "AIDEN_DIE_FILE", "AIDEN_JUMP_FILE",
+			"AIDEN_RUN", "AIDEN_IDLE", "AIDEN_GLOW", "AIDEN_SPIRIT",
+			"WATER_WALK", "WATER_CHASE", "WATER_DIE_FILE", "BURNING_FILE",
+			"FIRE_BALL" };
+	/**
+	 * Textures packed into the UI atlas: the fuel bar, buttons, menus and
+	 * level numbers. Full screen images stay textures of their own.
+	 */
+	public static final String[] UI_KEYS = { "MENU_BACK", "HOME_BUTTON",
+			"RESUME_BUTTON", "RESTART_BUTTON", "BAR_OUTTER", "BAR_INNER",
+			"BAR_LOW", "BAR_BACK", "BAR_ICON", "BAR_YELLOW", "BAR_GRAY",
+			"BAR_DIE", "PAUSED", "MUSIC", "SOUND", "MUSIC_NO", "SOUND_NO",
+			"YOU_LOSE", "GOOD_JOB", "RETRY", "REPLAY", "SKIP", "NEXT_LEVEL",
+			"LEVEL_S", "RESTART_ICON", "CIRCLE", "1", "2", "3", "4", "5", "6",
+			"7", "8", "9", "10", "11", "12", "13", "14", "15", "16", "17",
+			"18", "19", "20" };
+
+	/** Whether the packed atlases exist, so the keys above come from them */
+	private boolean atlased;
+	private TextureAtlas spriteAtlas;
+	private TextureAtlas uiAtlas;
+
 	/** A HashMap of asset files and their identifiers */
 	private HashMap<String, String> files;
+	/** Regions of the streamed assets that are loaded now, by key */
+	private HashMap<String, TextureRegion> streamed;
+	/** Keys of the tutorial instruction images, by message */
+	private String[] instructionKeys;
 	private static int FONT_SIZE = 64;
 	public Array<String> assets;
 
@@ -75,26 +116,6 @@ public class AssetFile {
 	/** Texture for background */
 	public TextureRegion backGround;
 	public TextureRegion backGround0;
-	public TextureRegion levelBack1;
-	public TextureRegion levelBack2;
-	public TextureRegion levelBack3;
-	public TextureRegion levelBack4;
-	public TextureRegion levelBack5;
-	public TextureRegion levelBack6;
-	public TextureRegion levelBack7;
-	public TextureRegion levelBack8;
-	public TextureRegion levelBack9;
-	public TextureRegion levelBack10;
-	public TextureRegion levelBack11;
-	public TextureRegion levelBack12;
-	public TextureRegion levelBack13;
-	public TextureRegion levelBack14;
-	public TextureRegion levelBack15;
-	public TextureRegion levelBack16;
-	public TextureRegion levelBack17;
-	public TextureRegion levelBack18;
-	public TextureRegion levelBack19;
-	public TextureRegion levelBack20;
 	public TextureRegion homeButton;
 	public TextureRegion resumeButton;
 	public TextureRegion restartButton;
@@ -137,7 +158,6 @@ public class AssetFile {
 	public FilmStrip[] WaterWalkTextures;
 	public TextureRegion checkpointTexture;
 	
-	public TextureRegion[] tutorialInstructions;
 	public TextureRegion level_background;
 	public TextureRegion[] numberTextures;
 
@@ -220,7 +240,7 @@ public class AssetFile {
 		files.put("RETRY", "shared/retry.png");
 		files.put("REPLAY", "shared/replay.png");
 		files.put("SKIP", "shared/skip.png");
-		files.put("YOU_LOSE", "shared/you lose.png");
+		files.put("YOU_LOSE", "shared/You lose.png");
 		files.put("NEXT_LEVEL", "shared/nextlevel.png");
 		files.put("TUT4_BACK", "background/tutorial4.png");
 		files.put("TUT1_BACK", "background/tutorial1.png");
@@ -256,11 +276,15 @@ public class AssetFile {
 		files.put("AIDEN_SPIRIT", "platform/spirit-s64.png");
 		files.put("WATER", "shared/water.png");
 		files.put("CHECKPOINT_FLAG", "shared/flag.png");
+		files.put("SPRITE_ATLAS", "atlas/sprites.atlas");
+		files.put("UI_ATLAS", "atlas/ui.atlas");
 		
-		tutorialInstructions=new TextureRegion[20];
 		numberTextures=new TextureRegion[20];
-		for (int i=0; i<tutorialInstructions.length; i++){
-			files.put("TUTORIAL_INST"+i, "platform/tutorial/instruction_"+i+".png");
+		streamed = new HashMap<String, TextureRegion>();
+		instructionKeys = new String[INSTRUCTIONS];
+		for (int i=0; i<INSTRUCTIONS; i++){
+			instructionKeys[i] = INSTRUCTION+i;
+			files.put(instructionKeys[i], "platform/tutorial/instruction_"+i+".png");
 		}
 		for (int i=1; i<=20; i++){
 			files.put(String.valueOf(i), "shared/numbers/"+String.valueOf(i)+".png");
@@ -277,6 +301,150 @@ public class AssetFile {
 		return FONT_SIZE;
 	}
 
+	/**
+	 * Queues the texture atlases, if they were packed.
+	 *
+	 * Call this before queueing textures, so that textures in an atlas are
+	 * not loaded on their own as well. Without the atlases (the packAtlases
+	 * task was not run) every texture is loaded by itself, as before.
+	 *
+	 * @param manager
+	 *            Reference to global asset manager.
+	 */
+	public void loadAtlases(AssetManager manager) {
+		atlased = Gdx.files.internal(files.get("SPRITE_ATLAS")).exists()
+				&& Gdx.files.internal(files.get("UI_ATLAS")).exists();
+		if (atlased) {
+			manager.load(files.get("SPRITE_ATLAS"), TextureAtlas.class);
+			manager.load(files.get("UI_ATLAS"), TextureAtlas.class);
+		}
+	}
+
+	/**
+	 * Returns true if the packed atlases were found by loadAtlases().
+	 *
+	 * @return true if the packed atlases were found.
+	 */
+	public boolean isAtlased() {
+		return atlased;
+	}
+
+	/**
+	 * Returns true if the texture with this key comes from an atlas.
+	 *
+	 * @param key
+	 *            The asset key
+	 *
+	 * @return true if the texture with this key comes from an atlas.
+	 */
+	public boolean inAtlas(String key) {
+		return atlased && (contains(SPRITE_KEYS, key) || contains(UI_KEYS, key));
+	}
+
+	private static boolean contains(String[] keys, String key) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i].equals(key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the region for a texture key, from an atlas if it was packed.
+	 *
+	 * @param manager
+	 *            Reference to global asset manager.
+	 * @param key
+	 *            The texture key
+	 * @param repeat
+	 *            Whether the texture should be repeated (never atlased)
+	 *
+	 * @return the region for the key, or null if it is not loaded.
+	 */
+	protected TextureRegion region(AssetManager manager, String key,
+			boolean repeat) {
+		if (inAtlas(key)) {
+			TextureAtlas atlas = contains(SPRITE_KEYS, key) ? spriteAtlas : uiAtlas;
+			TextureRegion region = atlas.findRegion(key);
+			return region == null ? null : new TextureRegion(region);
+		}
+		return createTexture(manager, files.get(key), repeat);
+	}
+
+	/**
+	 * Returns a filmstrip for a texture key, from an atlas if it was packed.
+	 *
+	 * @param manager
+	 *            Reference to global asset manager.
+	 * @param key
+	 *            The texture key
+	 * @param rows
+	 *            The number of rows in the filmstrip
+	 * @param cols
+	 *            The number of columns in the filmstrip
+	 * @param size
+	 *            The number of frames in the filmstrip
+	 *
+	 * @return the filmstrip for the key, or null if it is not loaded.
+	 */
+	protected FilmStrip filmStrip(AssetManager manager, String key, int rows,
+			int cols, int size) {
+		if (inAtlas(key)) {
+			TextureRegion region = region(manager, key, false);
+			return region == null ? null : new FilmStrip(region, rows, cols, size);
+		}
+		return createFilmStrip(manager, files.get(key), rows, cols, size);
+	}
+
+	/**
+	 * Returns the background of a level.
+	 *
+	 * Level backgrounds are streamed, so this is null unless the level's
+	 * assets were loaded (see AssetStreamer).
+	 */
+	public TextureRegion getBackground(int level) {
+		if (LevelManifest.hasOwnBackground(level)) {
+			return streamed.get(LevelManifest.background(level));
+		}
+		return backGround;
+	}
+
+	/**
+	 * Returns the instruction image for a tutorial message, or null if the
+	 * level showing it has not loaded it.
+	 */
+	public TextureRegion getInstruction(int msg) {
+		return streamed.get(instructionKeys[msg]);
+	}
+
+	/**
+	 * Makes the region for a streamed asset that has finished loading.
+	 *
+	 * @param manager
+	 *            Reference to global asset manager.
+	 * @param key
+	 *            The asset key
+	 */
+	public void bind(AssetManager manager, String key) {
+		if (!streamed.containsKey(key)) {
+			TextureRegion region = createTexture(manager, files.get(key), false);
+			if (region != null) {
+				streamed.put(key, region);
+			}
+		}
+	}
+
+	/**
+	 * Forgets the region for a streamed asset that is about to be unloaded.
+	 *
+	 * @param key
+	 *            The asset key
+	 */
+	public void unbind(String key) {
+		streamed.remove(key);
+	}
+
 	/**
 	 * Returns a newly loaded texture region for the given file.
 	 *
@@ -340,62 +508,45 @@ public class AssetFile {
 	}
 
 	public void loadContent(AssetManager manager) {
+		if (atlased) {
+			spriteAtlas = manager.get(files.get("SPRITE_ATLAS"), TextureAtlas.class);
+			uiAtlas = manager.get(files.get("UI_ATLAS"), TextureAtlas.class);
+		}
 
 		// files.get("")
 		// Allocate the tiles
-		earthTile = createTexture(manager, files.get("EARTH_FILE"), true);
-		goalTile = createTexture(manager, files.get("GOAL_FILE"), true);
-		burnablePlatform = createTexture(manager, files.get("BURNP_FILE"), true);
-		MenuBack = createTexture(manager, files.get("MENU_BACK"), false);
-		black = createTexture(manager, files.get("BLACK"), false);
-		homeButton = createTexture(manager, files.get("HOME_BUTTON"), false);
-		resumeButton = createTexture(manager, files.get("RESUME_BUTTON"), false);
-		restartButton = createTexture(manager, files.get("RESTART_BUTTON"), false);
-		youLose = createTexture(manager, files.get("YOU_LOSE"), false);
-		youWin = createTexture(manager, files.get("GOOD_JOB"), false);
-		retry = createTexture(manager, files.get("RETRY"), false);
-		replay = createTexture(manager, files.get("REPLAY"), false);
-		skip = createTexture(manager, files.get("SKIP"), false);
-		nextLevel = createTexture(manager, files.get("NEXT_LEVEL"), false);
-		levelSelect = createTexture(manager, files.get("LEVEL_S"), false);
-		restartIcon = createTexture(manager, files.get("RESTART_ICON"), false);
-		
-		longRope = createTexture(manager, files.get("LONG_ROPE"), false);
-		trapDoor = createTexture(manager, files.get("TRAP_DOOR"), false);
-		barOutter = createTexture(manager, files.get("BAR_OUTTER"),false);
-		barInner = createTexture(manager, files.get("BAR_INNER"), false);
-		paused = createTexture(manager, files.get("PAUSED"), false);
-		music = createTexture(manager, files.get("MUSIC"), false);
-		music_no = createTexture(manager, files.get("MUSIC_NO"), false);
-		sound = createTexture(manager, files.get("SOUND"), false);
-		sound_no = createTexture(manager, files.get("SOUND_NO"), false);
-		barLow = createTexture(manager, files.get("BAR_LOW"), false);
-		barBack = createTexture(manager, files.get("BAR_BACK"), false);
-		barIcon = createTexture(manager, files.get("BAR_ICON"), false);
-		barYellow = createTexture(manager, files.get("BAR_YELLOW"),false);
-		barGray = createTexture(manager, files.get("BAR_GRAY"),false);
-		barDie = createTexture(manager, files.get("BAR_DIE"), false);
+		earthTile = region(manager, "EARTH_FILE", true);
+		goalTile = region(manager, "GOAL_FILE", true);
+		burnablePlatform = region(manager, "BURNP_FILE", true);
+		MenuBack = region(manager, "MENU_BACK", false);
+		black = region(manager, "BLACK", false);
+		homeButton = region(manager, "HOME_BUTTON", false);
+		resumeButton = region(manager, "RESUME_BUTTON", false);
+		restartButton = region(manager, "RESTART_BUTTON", false);
+		youLose = region(manager, "YOU_LOSE", false);
+		youWin = region(manager, "GOOD_JOB", false);
+		retry = region(manager, "RETRY", false);
+		replay = region(manager, "REPLAY", false);
+		skip = region(manager, "SKIP", false);
+		nextLevel = region(manager, "NEXT_LEVEL", false);
+		levelSelect = region(manager, "LEVEL_S", false);
+		restartIcon = region(manager, "RESTART_ICON", false);
 		
-		levelBack1 = createTexture(manager, files.get("LEVEL_BACK1"), false);
-		levelBack2 = createTexture(manager, files.get("LEVEL_BACK2"), false);
-		levelBack3 = createTexture(manager, files.get("LEVEL_BACK3"), false);
-		levelBack4 = createTexture(manager, files.get("LEVEL_BACK4"), false);
-		levelBack5 = createTexture(manager, files.get("LEVEL_BACK5"), false);
-		levelBack6 = createTexture(manager, files.get("LEVEL_BACK6"), false);
-		levelBack7 = createTexture(manager, files.get("LEVEL_BACK7"), false);
-		levelBack8 = createTexture(manager, files.get("LEVEL_BACK8"), false);
-		levelBack9 = createTexture(manager, files.get("LEVEL_BACK9"), false);
-		levelBack10 = createTexture(manager, files.get("LEVEL_BACK10"), false);
-		levelBack11 = createTexture(manager, files.get("LEVEL_BACK11"), false);
-		levelBack12 = createTexture(manager, files.get("LEVEL_BACK12"), false);
-		levelBack13 = createTexture(manager, files.get("LEVEL_BACK13"), false);
-		levelBack14 = createTexture(manager, files.get("LEVEL_BACK14"), false);
-		levelBack15 = createTexture(manager, files.get("LEVEL_BACK15"), false);
-		levelBack16 = createTexture(manager, files.get("LEVEL_BACK16"), false);
-		levelBack17 = createTexture(manager, files.get("LEVEL_BACK17"), false);
-		levelBack18 = createTexture(manager, files.get("LEVEL_BACK18"), false);
-		levelBack19 = createTexture(manager, files.get("LEVEL_BACK19"), false);
-		levelBack20 = createTexture(manager, files.get("LEVEL_BACK20"), false);
+		longRope = region(manager, "LONG_ROPE", false);
+		trapDoor = region(manager, "TRAP_DOOR", false);
+		barOutter = region(manager, "BAR_OUTTER",false);
+		barInner = region(manager, "BAR_INNER", false);
+		paused = region(manager, "PAUSED", false);
+		music = region(manager, "MUSIC", false);
+		music_no = region(manager, "MUSIC_NO", false);
+		sound = region(manager, "SOUND", false);
+		sound_no = region(manager, "SOUND_NO", false);
+		barLow = region(manager, "BAR_LOW", false);
+		barBack = region(manager, "BAR_BACK", false);
+		barIcon = region(manager, "BAR_ICON", false);
+		barYellow = region(manager, "BAR_YELLOW",false);
+		barGray = region(manager, "BAR_GRAY",false);
+		barDie = region(manager, "BAR_DIE", false);
 		
 		// Allocate the font
 		if (manager.isLoaded(files.get("FONT_FILE"))) {
@@ -408,71 +559,62 @@ public class AssetFile {
 		} else {
 			displayFont = null;
 		}
-		editorPanelTexture=createTexture(manager, files.get("EDITOR_PANEL_FILE"), false);
-		woodTexture = createTexture(manager, files.get("WOOD_FILE"), false);
-		avatarTexture = createTexture(manager, files.get("DUDE_FILE"), false);
-		fuelTexture = createTexture(manager, files.get("FUEL_FILE"), false);
-		ropeTexture = createTexture(manager, files.get("ROPE_FILE"), true);
-		backGround = createTexture(manager, files.get("BACKGROUND"), false);
-		backGround0 = createTexture(manager, files.get("BACKGROUND0"),false);
-		waterTexture = createTexture(manager, files.get("WATER_FILE"), false);
-		stoneTexture = createTexture(manager, files.get("STONE_FILE"), false);
-		ropeLongTexture = createTexture(manager, files.get("ROPE_LONG_FILE"), false);
-		trapdoorTexture = createTexture(manager, files.get("TRAPDOOR_FILE"), false);
-		nailTexture = createTexture(manager, files.get("NAIL_FILE"), false);
-		checkpointTexture=createTexture(manager, files.get("CHECKPOINT_FLAG"), false);
-		castle=createTexture(manager, files.get("CASTLE"), false);
-		light=createTexture(manager, files.get("LIGHT"), false);
-		circle=createTexture(manager, files.get("CIRCLE"), false);
-		level_background = createTexture(manager, files.get("LEVEL_BACKGROUND"), false);
+		editorPanelTexture=region(manager, "EDITOR_PANEL_FILE", false);
+		woodTexture = region(manager, "WOOD_FILE", false);
+		avatarTexture = region(manager, "DUDE_FILE", false);
+		fuelTexture = region(manager, "FUEL_FILE", false);
+		ropeTexture = region(manager, "ROPE_FILE", true);
+		backGround = region(manager, "BACKGROUND", false);
+		backGround0 = region(manager, "BACKGROUND0",false);
+		waterTexture = region(manager, "WATER_FILE", false);
+		stoneTexture = region(manager, "STONE_FILE", false);
+		ropeLongTexture = region(manager, "ROPE_LONG_FILE", false);
+		trapdoorTexture = region(manager, "TRAPDOOR_FILE", false);
+		nailTexture = region(manager, "NAIL_FILE", false);
+		checkpointTexture=region(manager, "CHECKPOINT_FLAG", false);
+		castle=region(manager, "CASTLE", false);
+		light=region(manager, "LIGHT", false);
+		circle=region(manager, "CIRCLE", false);
+		level_background = region(manager, "LEVEL_BACKGROUND", false);
 		
 		
-		AidenSpiritTexture = createFilmStrip(manager, files.get("AIDEN_SPIRIT"), 5, 1, 5);
+		AidenSpiritTexture = filmStrip(manager, "AIDEN_SPIRIT", 5, 1, 5);
 //		WaterWalkTexture = createFilmStrip(manager, files.get("WATER_WALK"), 4,
 //				1,
 //				4);
 		WaterWalkTextures=new FilmStrip[10];
 		for (int i = 0; i < 10; i++){
-			WaterWalkTextures[i] = createFilmStrip(manager, files.get("WATER_WALK"), 4,
+			WaterWalkTextures[i] = filmStrip(manager, "WATER_WALK", 4,
 					1,
 					4);
 		}
-		AidenDieTexture = createFilmStrip(manager, files.get("AIDEN_DIE_FILE"),
+		AidenDieTexture = filmStrip(manager, "AIDEN_DIE_FILE",
 				12,
 				1, 12);
-		AidenAnimeTexture = createFilmStrip(manager,
-				files.get("AIDEN_ANIME_FILE"),
+		AidenAnimeTexture = filmStrip(manager, "AIDEN_ANIME_FILE",
 				12, 1,
 				12);
-		AidenJumpTexture = createFilmStrip(manager,
-				files.get("AIDEN_JUMP_FILE"), 12, 1, 12);
-		AidenGlow = createFilmStrip(manager,
-				files.get("AIDEN_GLOW"), 6, 1, 6);
-		WaterDieTexture = createFilmStrip(manager,
-				files.get("WATER_DIE_FILE"),
+		AidenJumpTexture = filmStrip(manager, "AIDEN_JUMP_FILE", 12, 1, 12);
+		AidenGlow = filmStrip(manager, "AIDEN_GLOW", 6, 1, 6);
+		WaterDieTexture = filmStrip(manager, "WATER_DIE_FILE",
 				12, 1,
 				12);
-		AidenRunTexture = createFilmStrip(manager, files.get("AIDEN_RUN"), 12, 1, 12);
-		AidenIdleTexture = createFilmStrip(manager, files.get("AIDEN_IDLE"), 12, 1, 12);
-		WaterChaseTexture = createFilmStrip(manager, files.get("WATER_CHASE"), 4, 1, 4);
+		AidenRunTexture = filmStrip(manager, "AIDEN_RUN", 12, 1, 12);
+		AidenIdleTexture = filmStrip(manager, "AIDEN_IDLE", 12, 1, 12);
+		WaterChaseTexture = filmStrip(manager, "WATER_CHASE", 4, 1, 4);
 
 		burningTexture = new FilmStrip[20];
 		for (int i = 0; i < 20; i++) {
-			burningTexture[i] = createFilmStrip(manager,
-					files.get("BURNING_FILE"),
+			burningTexture[i] = filmStrip(manager, "BURNING_FILE",
 					7, 1, 7);
 		}
 		fireBall = new FilmStrip[10];
 		for (int i = 0; i < 10; i++){
-			fireBall[i] = createFilmStrip(manager, files.get("FIRE_BALL"), 4, 1, 4);
-		}
-		
-		for (int i=0; i<this.tutorialInstructions.length; i++){
-			tutorialInstructions[i]=createTexture(manager, files.get("TUTORIAL_INST"+i), false);
+			fireBall[i] = filmStrip(manager, "FIRE_BALL", 4, 1, 4);
 		}
 		
 		for (int i=0; i<this.numberTextures.length; i++){
-			numberTextures[i]=createTexture(manager, files.get(String.valueOf(i+1)), false);
+			numberTextures[i]=region(manager, String.valueOf(i+1), false);
 		}
 		
 		bgm = Gdx.audio.newMusic(Gdx.files.internal("music/bgm.mp3"));
@@ -508,7 +650,7 @@ public class AssetFile {
 		sounds.allocate(manager, files.get("SPIRITING_FILE"));
 		sounds.allocate(manager, files.get("MADWATER_FILE"));
 		// water platform
-		water=createTexture(manager, files.get("WATER"), true);
+		water=region(manager, "WATER", true);
 	}
 
 }
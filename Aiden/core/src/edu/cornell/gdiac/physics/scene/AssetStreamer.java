@@ -0,0 +1,134 @@
+package edu.cornell.gdiac.physics.scene;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Loads the assets only some levels need while the game runs.
+ *
+ * The shared assets are loaded at boot. The assets in a level's manifest
+ * (LevelManifest.assets) are loaded when the level is entered, and the next
+ * level's are queued so the AssetManager can read them in the background
+ * while the current level plays. Streamed assets of any other level are
+ * unloaded, so only two levels' backgrounds are in memory at a time.
+ */
+public class AssetStreamer {
+	/** Default milliseconds spent loading each frame while a level plays */
+	public static final int DEFAULT_BUDGET = 2;
+
+	private AssetManager manager;
+	private AssetFile af;
+	/** Keys of the streamed assets that are queued or loaded */
+	private ObjectSet<String> queued = new ObjectSet<String>();
+	/** Keys of the streamed assets that are loaded but have no region yet */
+	private Array<String> pending = new Array<String>();
+	/** Keys to keep while releasing */
+	private ObjectSet<String> keep = new ObjectSet<String>();
+	private Array<String> drop = new Array<String>();
+
+	/**
+	 * Creates a streamer for the given assets.
+	 *
+	 * @param manager
+	 *            Reference to global asset manager.
+	 * @param af
+	 *            The asset file whose streamed regions are kept up to date
+	 */
+	public AssetStreamer(AssetManager manager, AssetFile af) {
+		this.manager = manager;
+		this.af = af;
+	}
+
+	/**
+	 * Loads a level's assets now, blocking until they are ready.
+	 *
+	 * Call this before resetting the level. Assets that were prefetched are
+	 * usually done already, so this costs nothing.
+	 *
+	 * @param level
+	 *            the level index
+	 */
+	public void require(int level) {
+		Array<String> keys = LevelManifest.assets(level);
+		for (int i = 0; i < keys.size; i++) {
+			String key = keys.get(i);
+			queue(key);
+			manager.finishLoadingAsset(af.get(key));
+			af.bind(manager, key);
+			pending.removeValue(key, false);
+		}
+	}
+
+	/**
+	 * Queues a level's assets, to be loaded a little every frame by update().
+	 *
+	 * @param level
+	 *            the level index
+	 */
+	public void prefetch(int level) {
+		Array<String> keys = LevelManifest.assets(level);
+		for (int i = 0; i < keys.size; i++) {
+			queue(keys.get(i));
+		}
+	}
+
+	/**
+	 * Unloads the streamed assets of every level other than the given two.
+	 *
+	 * @param current
+	 *            the level being played
+	 * @param next
+	 *            the level likely to be played next
+	 */
+	public void retain(int current, int next) {
+		keep.clear();
+		keep.addAll(LevelManifest.assets(current));
+		keep.addAll(LevelManifest.assets(next));
+		drop.clear();
+		for (String key : queued) {
+			if (!keep.contains(key)) {
+				drop.add(key);
+			}
+		}
+		for (int i = 0; i < drop.size; i++) {
+			String key = drop.get(i);
+			af.unbind(key);
+			pending.removeValue(key, false);
+			queued.remove(key);
+			// Cancels the load if it is still queued
+			manager.unload(af.get(key));
+		}
+	}
+
+	/**
+	 * Gives the AssetManager some time to load queued assets.
+	 *
+	 * Files are read on the AssetManager's own thread; this only uploads the
+	 * finished ones to the GPU and makes their regions.
+	 *
+	 * @param millis
+	 *            the most milliseconds to spend
+	 */
+	public void update(int millis) {
+		if (pending.size == 0) {
+			return;
+		}
+		manager.update(millis);
+		for (int i = pending.size - 1; i >= 0; i--) {
+			String key = pending.get(i);
+			if (manager.isLoaded(af.get(key))) {
+				af.bind(manager, key);
+				pending.removeIndex(i);
+			}
+		}
+	}
+
+	private void queue(String key) {
+		if (queued.add(key)) {
+			manager.load(af.get(key), Texture.class);
+			pending.add(key);
+		}
+	}
+}
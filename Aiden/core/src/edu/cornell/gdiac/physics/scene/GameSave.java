@@ -1,7 +1,6 @@
 package edu.cornell.gdiac.physics.scene;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.JsonWriter.OutputType;
@@ -27,9 +26,22 @@ public class GameSave {
 
 	private String filename;
 
+	/** Whether exportToJson writes anything (transient, so not serialized) */
+	private transient boolean persistent = true;
+
+	/** Writes every save off the render thread (static, so not serialized) */
+	private static final SaveWriter writer = new SaveWriter();
+
 	public GameSave(String s) {
 
+		// Read what was last saved, not what is on disk right now
+		flush();
 		filename = s;
+		// A save caught between delete and rename is only in the temp file
+		if (!Gdx.files.internal(s).exists()
+				&& Gdx.files.internal(s + SaveWriter.TEMP_SUFFIX).exists()) {
+			s = s + SaveWriter.TEMP_SUFFIX;
+		}
 		JSONParser jp = new JSONParser(s);
 		JsonValue jv = jp.getJsonValue();
 		level = jv.getInt("level");
@@ -78,16 +90,31 @@ public class GameSave {
 		filename = s;
 	}
 
-	/** Saves game to json */
+	/** Setter for persistent; a save that is not persistent is never written */
+	public void setPersistent(boolean value) {
+		persistent = value;
+	}
+
+	/**
+	 * Saves game to json.
+	 *
+	 * Only the json is made here; the file is written on a background thread
+	 * (see SaveWriter), so touching a checkpoint does not wait on the disk.
+	 */
 	public void exportToJson() {
+		if (!persistent) {
+			return;
+		}
 		Json json = new Json();
 
 		String save_str = json.prettyPrint(this);
 
-		FileHandle file = Gdx.files
-				.absolute(Gdx.files.getLocalStoragePath() + filename);
+		writer.submit(Gdx.files.getLocalStoragePath() + filename, save_str);
+	}
 
-		file.writeString(save_str, false);
+	/** Blocks until every save has been written; call before exiting */
+	public static void flush() {
+		writer.flush();
 	}
 
 }
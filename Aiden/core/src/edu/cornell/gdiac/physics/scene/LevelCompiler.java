@@ -0,0 +1,55 @@
+package edu.cornell.gdiac.physics.scene;
+
+import java.io.File;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+/**
+ * Compiles JSON levels to the binary LevelFormat, next to the JSON files.
+ *
+ * Run by the compileLevels task of the core project, with the directories to
+ * compile as arguments. JSON files that are not levels (messages, saves, the
+ * schema) are skipped. A level whose guard names do not fit the compiled
+ * format fails the compile. This runs without a libGDX application.
+ */
+public class LevelCompiler {
+
+	/** Whether a parsed JSON file is a level, rather than some other data */
+	public static boolean isLevel(JsonValue jv) {
+		return jv != null && jv.isObject() && jv.has("blocks");
+	}
+
+	public static void main(String[] args) {
+		JsonReader reader = new JsonReader();
+		int compiled = 0;
+		for (String dir : args) {
+			File[] files = new File(dir).listFiles();
+			if (files == null) {
+				System.err.println("Not a directory: " + dir);
+				continue;
+			}
+			for (File f : files) {
+				if (!f.getName().endsWith(".json")) {
+					continue;
+				}
+				JsonValue jv;
+				try {
+					jv = reader.parse(new FileHandle(f));
+				} catch (RuntimeException e) {
+					System.err.println("Skipping " + f + ": " + e.getMessage());
+					continue;
+				}
+				if (!isLevel(jv)) {
+					continue;
+				}
+				LevelData data = LevelData.parse(f.getPath(), jv);
+				File out = new File(LevelFormat.compiledPath(f.getPath()));
+				LevelFormat.write(data, new FileHandle(out));
+				compiled++;
+			}
+		}
+		System.out.println("Compiled " + compiled + " levels");
+	}
+}
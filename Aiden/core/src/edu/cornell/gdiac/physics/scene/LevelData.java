@@ -0,0 +1,255 @@
+package edu.cornell.gdiac.physics.scene;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * A level file, parsed once into flat arrays.
+ *
+ * Scene builds its obstacles from one of these, so resetting a level does not
+ * read or parse anything again. Levels are cached by path, and reparsed only
+ * when the file's modification time or length changes (e.g. after it is saved
+ * from the level editor).
+ *
+ * If a compiled level (see LevelFormat) sits next to the JSON file and is not
+ * older than it, the compiled one is read instead.
+ *
+ * Instances are never modified after they are parsed.
+ */
+public class LevelData {
+	/** Block types, in the order Scene used to test the material strings */
+	public static final byte WOOD = 0;
+	public static final byte STONE = 1;
+	public static final byte FUEL = 2;
+	public static final byte PLATFORM = 3;
+	public static final byte ROPE = 4;
+	public static final byte TRAPDOOR = 5;
+	public static final byte BURNABLE_PLATFORM = 6;
+
+	/** Floats kept for each block: x, y, scale_x, scale_y, burn_spread, burn_time */
+	public static final int BLOCK_STRIDE = 6;
+	public static final int X = 0, Y = 1, SCALE_X = 2, SCALE_Y = 3,
+			BURN_SPREAD = 4, BURN_TIME = 5;
+	/** Floats kept for Aiden: x, y, scale_x, scale_y */
+	public static final int AIDEN_STRIDE = 4;
+
+	/** Parsed levels by path */
+	private static ObjectMap<String, LevelData> cache = new ObjectMap<String, LevelData>();
+
+	public final String path;
+	public final String background;
+	public final int width;
+	public final int height;
+
+	public final boolean hasAiden;
+	public final float[] aiden;
+	public final boolean aidenFright;
+	public final int aidenFuel;
+
+	public final int blockCount;
+	public final byte[] blockTypes;
+	public final float[] blocks;
+	public final int[] blockFuels;
+	/** isCheckpoint for fuel blocks, isLeft for trap doors */
+	public final boolean[] blockFlags;
+
+	public final int guardCount;
+	public final String[] guardNames;
+	/** x, y for each guard */
+	public final float[] guards;
+	public final boolean[] guardFright;
+
+	public final boolean hasGoal;
+	public final float goalX;
+	public final float goalY;
+
+	/** File stamp this was parsed from */
+	private final long modified;
+	private final long length;
+
+	/**
+	 * Returns the parsed level at the given internal path, parsing it only
+	 * if it is not cached or the file changed since.
+	 */
+	public static LevelData get(String path) {
+		FileHandle fh = Gdx.files.internal(path);
+		FileHandle compiled = Gdx.files.internal(LevelFormat.compiledPath(path));
+		boolean binary = compiled.exists()
+				&& compiled.lastModified() >= fh.lastModified();
+		if (binary) {
+			fh = compiled;
+		}
+		long modified = fh.lastModified();
+		long length = fh.length();
+		LevelData data = cache.get(path);
+		if (data == null || data.modified != modified || data.length != length) {
+			if (binary) {
+				data = LevelFormat.read(path, fh, modified, length);
+			} else {
+				data = new LevelData(path, new JSONParser(path).getJsonValue(),
+						modified, length);
+			}
+			cache.put(path, data);
+		}
+		return data;
+	}
+
+	/**
+	 * Parses a level from its JSON tree, without caching it.
+	 *
+	 * This does not need a running application, so the level compiler can
+	 * use it.
+	 */
+	public static LevelData parse(String path, JsonValue jv) {
+		return new LevelData(path, jv, 0, 0);
+	}
+
+	/** Forget a cached level, so it is parsed again when next used */
+	public static void invalidate(String path) {
+		cache.remove(path);
+	}
+
+	/** Forget every cached level */
+	public static void clearCache() {
+		cache.clear();
+	}
+
+	LevelData(String path, String background, int width, int height,
+			boolean hasAiden, float[] aiden, boolean aidenFright, int aidenFuel,
+			int blockCount, byte[] blockTypes, float[] blocks, int[] blockFuels,
+			boolean[] blockFlags, int guardCount, String[] guardNames,
+			float[] guards, boolean[] guardFright, boolean hasGoal, float goalX,
+			float goalY, long modified, long length) {
+		this.path = path;
+		this.background = background;
+		this.width = width;
+		this.height = height;
+		this.hasAiden = hasAiden;
+		this.aiden = aiden;
+		this.aidenFright = aidenFright;
+		this.aidenFuel = aidenFuel;
+		this.blockCount = blockCount;
+		this.blockTypes = blockTypes;
+		this.blocks = blocks;
+		this.blockFuels = blockFuels;
+		this.blockFlags = blockFlags;
+		this.guardCount = guardCount;
+		this.guardNames = guardNames;
+		this.guards = guards;
+		this.guardFright = guardFright;
+		this.hasGoal = hasGoal;
+		this.goalX = goalX;
+		this.goalY = goalY;
+		this.modified = modified;
+		this.length = length;
+	}
+
+	private LevelData(String path, JsonValue jv, long modified, long length) {
+		this.path = path;
+		this.modified = modified;
+		this.length = length;
+		background = jv.getString("background", null);
+		if (jv.has("width")) {
+			width = jv.getInt("width");
+			height = jv.getInt("height");
+		} else {
+			width = 32;
+			height = 18;
+		}
+
+		// Aiden
+		JsonValue jaiden = jv.get("aiden");
+		JsonValue start = jaiden == null ? null : jaiden.get("start_pos");
+		hasAiden = start != null && start.size > 0;
+		aiden = new float[AIDEN_STRIDE];
+		if (hasAiden) {
+			aiden[X] = start.get(0).getFloat("x");
+			aiden[Y] = start.get(0).getFloat("y");
+			aiden[SCALE_X] = jaiden.getFloat("scale_x");
+			aiden[SCALE_Y] = jaiden.getFloat("scale_y");
+			aidenFright = jaiden.getBoolean("fright");
+			aidenFuel = jaiden.getInt("start_fuel");
+		} else {
+			aidenFright = false;
+			aidenFuel = 0;
+		}
+
+		// Blocks
+		JsonValue objects = jv.get("blocks");
+		int n = objects == null ? 0 : objects.size;
+		byte[] types = new byte[n];
+		float[] values = new float[n * BLOCK_STRIDE];
+		int[] fuels = new int[n];
+		boolean[] flags = new boolean[n];
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			JsonValue obj = objects.get(i);
+			String material = obj.getString("blockType");
+			byte type = typeOf(material);
+			if (type < 0) {
+				System.err.println("new material : " + material);
+				continue;
+			}
+			types[count] = type;
+			JsonValue position = obj.get("pos");
+			int k = count * BLOCK_STRIDE;
+			values[k + X] = position.getFloat("x");
+			values[k + Y] = position.getFloat("y");
+			values[k + SCALE_X] = obj.getFloat("scale_x");
+			values[k + SCALE_Y] = obj.getFloat("scale_y");
+			values[k + BURN_SPREAD] = obj.getInt("burn_spread");
+			values[k + BURN_TIME] = obj.getInt("burn_time");
+			fuels[count] = obj.getInt("fuels");
+			if (type == FUEL) {
+				flags[count] = obj.getBoolean("isCheckpoint", false);
+			} else if (type == TRAPDOOR) {
+				flags[count] = obj.getBoolean("isLeft", false);
+			}
+			count++;
+		}
+		blockCount = count;
+		blockTypes = types;
+		blocks = values;
+		blockFuels = fuels;
+		blockFlags = flags;
+
+		// Water guards
+		JsonValue jguards = jv.get("waters");
+		guardCount = jguards == null ? 0 : jguards.size;
+		guardNames = new String[guardCount];
+		guards = new float[guardCount * 2];
+		guardFright = new boolean[guardCount];
+		for (int i = 0; i < guardCount; i++) {
+			JsonValue guard = jguards.get(i);
+			guardNames[i] = guard.getString("name");
+			JsonValue pos = guard.get("pos");
+			guards[2 * i] = pos.getFloat("x");
+			guards[2 * i + 1] = pos.getFloat("y");
+			guardFright[i] = guard.getBoolean("fright");
+		}
+
+		// Exit
+		JsonValue exit = jv.get("goal");
+		hasGoal = exit != null;
+		if (hasGoal) {
+			goalX = exit.get("pos").getFloat("x");
+			goalY = exit.get("pos").getFloat("y");
+		} else {
+			goalX = 0;
+			goalY = 0;
+		}
+	}
+
+	private static byte typeOf(String material) {
+		if (material.equals("wood")) return WOOD;
+		if (material.equals("stone")) return STONE;
+		if (material.equals("fuel")) return FUEL;
+		if (material.equals("platform")) return PLATFORM;
+		if (material.equals("rope")) return ROPE;
+		if (material.equals("trapdoor")) return TRAPDOOR;
+		if (material.equals("burnable_platform")) return BURNABLE_PLATFORM;
+		return -1;
+	}
+}
@@ -0,0 +1,393 @@
+package edu.cornell.gdiac.physics.scene;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Compiled (binary) levels.
+ *
+ * A compiled level holds the same data as LevelData, in a header followed by
+ * typed sections of fixed-width records:
+ *
+ *   header   magic "AIDL", version (short), width, height (int),
+ *            background (short length + UTF-8 bytes), section count (int)
+ *   section  tag (int), record count (int), record size (int), records
+ *
+ *   AIDN  x, y, scale_x, scale_y (float), fright (byte), start_fuel (int)
+ *   BLOK  type, flag (byte), x, y, scale_x, scale_y, burn_spread,
+ *         burn_time (float), fuels (int); wood, stone, fuel, burnable platforms
+ *   PLAT  x, y, scale_x, scale_y (float)
+ *   ROPE  x, y, scale_x, scale_y (float)
+ *   TRAP  x, y, scale_x, scale_y (float), isLeft (byte)
+ *   WATR  x, y (float), fright (byte), name (UTF-8, NAME_BYTES bytes at
+ *         most, zero padded; longer names are refused when writing)
+ *   GOAL  x, y (float)
+ *
+ * All values are big endian. A reader skips sections it does not know by
+ * their record size, so sections can be added without breaking old levels.
+ *
+ * Files are read through a read-only memory map where the file system allows
+ * it, and otherwise from a byte array.
+ */
+public class LevelFormat {
+	/** File extension of compiled levels, replacing .json */
+	public static final String EXTENSION = ".lvl";
+
+	public static final int MAGIC = 0x4149444C; // "AIDL"
+	public static final short VERSION = 1;
+
+	public static final int AIDN = 0x4149444E;
+	public static final int BLOK = 0x424C4F4B;
+	public static final int PLAT = 0x504C4154;
+	public static final int ROPE = 0x524F5045;
+	public static final int TRAP = 0x54524150;
+	public static final int WATR = 0x57415452;
+	public static final int GOAL = 0x474F414C;
+
+	/** Bytes kept for a guard name */
+	public static final int NAME_BYTES = 16;
+
+	private static final int AIDN_SIZE = 4 * 4 + 1 + 4;
+	private static final int BLOK_SIZE = 2 + 6 * 4 + 4;
+	private static final int PLAT_SIZE = 4 * 4;
+	private static final int ROPE_SIZE = 4 * 4;
+	private static final int TRAP_SIZE = 4 * 4 + 1;
+	private static final int WATR_SIZE = 2 * 4 + 1 + NAME_BYTES;
+	private static final int GOAL_SIZE = 2 * 4;
+
+	/** Returns the path of the compiled level for a JSON level path */
+	public static String compiledPath(String path) {
+		if (path.endsWith(".json")) {
+			path = path.substring(0, path.length() - ".json".length());
+		}
+		return path + EXTENSION;
+	}
+
+	/**
+	 * Writes a level in the compiled format. The stream is not closed.
+	 *
+	 * @throws GdxRuntimeException if a guard name does not fit in NAME_BYTES
+	 */
+	public static void write(LevelData data, OutputStream stream)
+			throws IOException {
+		checkNames(data);
+		DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeInt(data.width);
+		out.writeInt(data.height);
+		byte[] bg = data.background == null ? new byte[0]
+				: data.background.getBytes("UTF-8");
+		out.writeShort(bg.length);
+		out.write(bg);
+
+		int sections = 5 + (data.hasAiden ? 1 : 0) + (data.hasGoal ? 1 : 0);
+		out.writeInt(sections);
+
+		if (data.hasAiden) {
+			header(out, AIDN, 1, AIDN_SIZE);
+			for (int j = 0; j < LevelData.AIDEN_STRIDE; j++) {
+				out.writeFloat(data.aiden[j]);
+			}
+			out.writeByte(data.aidenFright ? 1 : 0);
+			out.writeInt(data.aidenFuel);
+		}
+
+		header(out, BLOK, count(data, LevelData.WOOD, LevelData.STONE,
+				LevelData.FUEL, LevelData.BURNABLE_PLATFORM), BLOK_SIZE);
+		for (int i = 0; i < data.blockCount; i++) {
+			byte type = data.blockTypes[i];
+			if (type == LevelData.WOOD || type == LevelData.STONE
+					|| type == LevelData.FUEL
+					|| type == LevelData.BURNABLE_PLATFORM) {
+				out.writeByte(type);
+				out.writeByte(data.blockFlags[i] ? 1 : 0);
+				for (int j = 0; j < LevelData.BLOCK_STRIDE; j++) {
+					out.writeFloat(data.blocks[i * LevelData.BLOCK_STRIDE + j]);
+				}
+				out.writeInt(data.blockFuels[i]);
+			}
+		}
+
+		writeBoxes(out, data, PLAT, LevelData.PLATFORM, PLAT_SIZE);
+		writeBoxes(out, data, ROPE, LevelData.ROPE, ROPE_SIZE);
+		writeBoxes(out, data, TRAP, LevelData.TRAPDOOR, TRAP_SIZE);
+
+		header(out, WATR, data.guardCount, WATR_SIZE);
+		for (int i = 0; i < data.guardCount; i++) {
+			out.writeFloat(data.guards[2 * i]);
+			out.writeFloat(data.guards[2 * i + 1]);
+			out.writeByte(data.guardFright[i] ? 1 : 0);
+			byte[] name = data.guardNames[i].getBytes("UTF-8");
+			byte[] padded = new byte[NAME_BYTES];
+			System.arraycopy(name, 0, padded, 0, name.length);
+			out.write(padded);
+		}
+
+		if (data.hasGoal) {
+			header(out, GOAL, 1, GOAL_SIZE);
+			out.writeFloat(data.goalX);
+			out.writeFloat(data.goalY);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Writes a level in the compiled format to a file.
+	 *
+	 * @throws GdxRuntimeException if a guard name does not fit in NAME_BYTES
+	 *                             (the file is then left alone)
+	 */
+	public static void write(LevelData data, FileHandle file) {
+		checkNames(data);
+		OutputStream out = file.write(false);
+		try {
+			write(data, out);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Cannot write level " + file, e);
+		} finally {
+			try {
+				out.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/** Refuses guard names that would be cut to fit their record */
+	private static void checkNames(LevelData data) {
+		for (int i = 0; i < data.guardCount; i++) {
+			int length;
+			try {
+				length = data.guardNames[i].getBytes("UTF-8").length;
+			} catch (IOException e) {
+				throw new GdxRuntimeException(e);
+			}
+			if (length > NAME_BYTES) {
+				throw new GdxRuntimeException("Guard name \"" + data.guardNames[i]
+						+ "\" in " + data.path + " is " + length
+						+ " bytes, longer than " + NAME_BYTES);
+			}
+		}
+	}
+
+	private static void header(DataOutputStream out, int tag, int count,
+			int size) throws IOException {
+		out.writeInt(tag);
+		out.writeInt(count);
+		out.writeInt(size);
+	}
+
+	private static int count(LevelData data, byte t1, byte t2, byte t3, byte t4) {
+		int n = 0;
+		for (int i = 0; i < data.blockCount; i++) {
+			byte type = data.blockTypes[i];
+			if (type == t1 || type == t2 || type == t3 || type == t4) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	/** Writes the blocks of one type as x, y, scale_x, scale_y records */
+	private static void writeBoxes(DataOutputStream out, LevelData data,
+			int tag, byte type, int size) throws IOException {
+		header(out, tag, count(data, type, type, type, type), size);
+		for (int i = 0; i < data.blockCount; i++) {
+			if (data.blockTypes[i] == type) {
+				int k = i * LevelData.BLOCK_STRIDE;
+				out.writeFloat(data.blocks[k + LevelData.X]);
+				out.writeFloat(data.blocks[k + LevelData.Y]);
+				out.writeFloat(data.blocks[k + LevelData.SCALE_X]);
+				out.writeFloat(data.blocks[k + LevelData.SCALE_Y]);
+				if (type == LevelData.TRAPDOOR) {
+					out.writeByte(data.blockFlags[i] ? 1 : 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Maps a compiled level file into memory, read only.
+	 */
+	public static ByteBuffer map(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			// The mapping stays valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Reads a compiled level, mapping the file when it is on disk.
+	 *
+	 * @param path the path of the level, as it is cached
+	 * @param file the compiled file
+	 */
+	public static LevelData read(String path, FileHandle file, long modified,
+			long length) {
+		ByteBuffer buffer = null;
+		File f = file.file();
+		if (f.isFile()) {
+			try {
+				buffer = map(f);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		if (buffer == null) {
+			// Packed in a jar or an apk
+			buffer = ByteBuffer.wrap(file.readBytes());
+		}
+		return read(path, buffer, modified, length);
+	}
+
+	/**
+	 * Reads a compiled level from a buffer, from its current position.
+	 */
+	public static LevelData read(String path, ByteBuffer in, long modified,
+			long length) {
+		if (in.getInt() != MAGIC) {
+			throw new GdxRuntimeException("Not a compiled level: " + path);
+		}
+		short version = in.getShort();
+		if (version > VERSION) {
+			throw new GdxRuntimeException("Level " + path + " has version "
+					+ version + ", expected " + VERSION);
+		}
+		int width = in.getInt();
+		int height = in.getInt();
+		byte[] bg = new byte[in.getShort() & 0xFFFF];
+		in.get(bg);
+		String background = bg.length == 0 ? null : utf8(bg, bg.length);
+
+		boolean hasAiden = false;
+		float[] aiden = new float[LevelData.AIDEN_STRIDE];
+		boolean aidenFright = false;
+		int aidenFuel = 0;
+		byte[] types = new byte[0];
+		float[] blocks = new float[0];
+		int[] fuels = new int[0];
+		boolean[] flags = new boolean[0];
+		int blockCount = 0;
+		String[] guardNames = new String[0];
+		float[] guards = new float[0];
+		boolean[] guardFright = new boolean[0];
+		boolean hasGoal = false;
+		float goalX = 0, goalY = 0;
+
+		int sections = in.getInt();
+		for (int s = 0; s < sections; s++) {
+			int tag = in.getInt();
+			int count = in.getInt();
+			int size = in.getInt();
+			int end = in.position() + count * size;
+			if (tag == AIDN && count > 0) {
+				hasAiden = true;
+				for (int j = 0; j < LevelData.AIDEN_STRIDE; j++) {
+					aiden[j] = in.getFloat();
+				}
+				aidenFright = in.get() != 0;
+				aidenFuel = in.getInt();
+			} else if (tag == BLOK || tag == PLAT || tag == ROPE || tag == TRAP) {
+				types = grow(types, blockCount + count);
+				blocks = grow(blocks, (blockCount + count) * LevelData.BLOCK_STRIDE);
+				fuels = grow(fuels, blockCount + count);
+				flags = grow(flags, blockCount + count);
+				for (int i = 0; i < count; i++) {
+					in.position(end - (count - i) * size);
+					int k = blockCount * LevelData.BLOCK_STRIDE;
+					if (tag == BLOK) {
+						types[blockCount] = in.get();
+						flags[blockCount] = in.get() != 0;
+						for (int j = 0; j < LevelData.BLOCK_STRIDE; j++) {
+							blocks[k + j] = in.getFloat();
+						}
+						fuels[blockCount] = in.getInt();
+					} else {
+						types[blockCount] = tag == PLAT ? LevelData.PLATFORM
+								: tag == ROPE ? LevelData.ROPE : LevelData.TRAPDOOR;
+						blocks[k + LevelData.X] = in.getFloat();
+						blocks[k + LevelData.Y] = in.getFloat();
+						blocks[k + LevelData.SCALE_X] = in.getFloat();
+						blocks[k + LevelData.SCALE_Y] = in.getFloat();
+						if (tag == TRAP) {
+							flags[blockCount] = in.get() != 0;
+						}
+					}
+					blockCount++;
+				}
+			} else if (tag == WATR) {
+				guardNames = new String[count];
+				guards = new float[2 * count];
+				guardFright = new boolean[count];
+				byte[] name = new byte[NAME_BYTES];
+				for (int i = 0; i < count; i++) {
+					in.position(end - (count - i) * size);
+					guards[2 * i] = in.getFloat();
+					guards[2 * i + 1] = in.getFloat();
+					guardFright[i] = in.get() != 0;
+					in.get(name);
+					int n = 0;
+					while (n < NAME_BYTES && name[n] != 0) {
+						n++;
+					}
+					guardNames[i] = utf8(name, n);
+				}
+			} else if (tag == GOAL && count > 0) {
+				hasGoal = true;
+				goalX = in.getFloat();
+				goalY = in.getFloat();
+			}
+			in.position(end);
+		}
+
+		return new LevelData(path, background, width, height, hasAiden, aiden,
+				aidenFright, aidenFuel, blockCount, types, blocks, fuels, flags,
+				guardNames.length, guardNames, guards, guardFright, hasGoal,
+				goalX, goalY, modified, length);
+	}
+
+	private static String utf8(byte[] bytes, int length) {
+		try {
+			return new String(bytes, 0, length, "UTF-8");
+		} catch (IOException e) {
+			throw new GdxRuntimeException(e);
+		}
+	}
+
+	private static byte[] grow(byte[] a, int size) {
+		byte[] b = new byte[size];
+		System.arraycopy(a, 0, b, 0, Math.min(a.length, size));
+		return b;
+	}
+
+	private static float[] grow(float[] a, int size) {
+		float[] b = new float[size];
+		System.arraycopy(a, 0, b, 0, Math.min(a.length, size));
+		return b;
+	}
+
+	private static int[] grow(int[] a, int size) {
+		int[] b = new int[size];
+		System.arraycopy(a, 0, b, 0, Math.min(a.length, size));
+		return b;
+	}
+
+	private static boolean[] grow(boolean[] a, int size) {
+		boolean[] b = new boolean[size];
+		System.arraycopy(a, 0, b, 0, Math.min(a.length, size));
+		return b;
+	}
+}
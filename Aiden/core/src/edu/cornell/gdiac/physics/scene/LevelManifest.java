@@ -0,0 +1,139 @@
+package edu.cornell.gdiac.physics.scene;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonValue;
+
+/**
+ * What each level is made of: its level file, its background, its tutorial
+ * messages, and the assets only it needs.
+ *
+ * Block, character and menu textures are used by every level (and by the
+ * editor), so they stay in the shared set that is loaded at boot. What a level
+ * alone needs is its background and the instruction images its tutorial
+ * messages show; those are streamed in by AssetStreamer.
+ */
+public class LevelManifest {
+	/** Level files, by level index */
+	private static final String[] LEVELS = {
+		// ======================Tutorials========================//
+		"json/Tut1.json", // super easy tutorial
+		"json/Tut2.json", // spirit mode to the top
+		"json/Tut3.json", // spirit mode to the top
+		"json/Tut4.json", // spirit mode to the top
+		"json/Level01.json", // spirit mode going down
+		"json/Med2.json", // stonesss // pretty easy
+		"json/Tutorial2.json", // Save the block
+		"json/Tut5.json", // spirit boost changed
+		// ======================Easy========================//
+		"json/Easy3.json", // spirit boost with rope and water
+		"json/Tut6.json", // Introduce ropes
+		"json/Med4.json", // wooden boxessssssssssssssssssss
+		"json/Tut7.json", // Introduce wooden platforms
+		"json/Tut8.json", // Introduce wooden trapdoor
+		// ======================Medium========================//
+		"json/Med1.json", // boxes line on the bottom
+		"json/Easy4.json",
+		// ======================Hard========================//
+		"json/level2.json",
+		"json/level3.json",
+		"json/Med3.json",
+		"json/Hard1.json", // square
+		"json/Hard2b.json",
+		"json/Hard2b.json",
+	};
+	/** Used for any level past the end of LEVELS */
+	private static final String DEFAULT_LEVEL = "json/Hard1.json";
+
+	/** AssetFile keys of the backgrounds, by level index */
+	private static final String[] BACKGROUNDS = {
+		"LEVEL_BACK1", "LEVEL_BACK2", "LEVEL_BACK3", "LEVEL_BACK4",
+		"LEVEL_BACK5", "LEVEL_BACK6", "LEVEL_BACK7", "LEVEL_BACK8",
+		"LEVEL_BACK9", "LEVEL_BACK10", "LEVEL_BACK11", "LEVEL_BACK12",
+		"LEVEL_BACK13", "LEVEL_BACK14", "LEVEL_BACK15", "LEVEL_BACK16",
+		"LEVEL_BACK17", "LEVEL_BACK18", "LEVEL_BACK19", "LEVEL_BACK20",
+		"BACKGROUND",
+	};
+	/** The shared background, for any level past the end of BACKGROUNDS */
+	private static final String DEFAULT_BACKGROUND = "BACKGROUND";
+
+	/** Tutorial message files, by level index (null if not a tutorial) */
+	private static final String[] MESSAGES = {
+		"json/tutorial1message.json",
+		"json/tutorial2message.json",
+		"json/tutorial3message.json",
+		"json/tutorial4message.json",
+		"json/tutorial9message.json",
+		null,
+		null,
+		"json/tutorial5message.json",
+		null,
+		"json/tutorial6message.json",
+		null,
+		"json/tutorial7message.json",
+		"json/tutorial8message.json",
+	};
+	private static final String DEFAULT_MESSAGES = "json/tutorial1message.json";
+
+	/** Streamed asset keys of each level, worked out when first asked for */
+	private static Array<String>[] streamed;
+
+	/** The level file of a level */
+	public static String levelFile(int level) {
+		return level < LEVELS.length ? LEVELS[level] : DEFAULT_LEVEL;
+	}
+
+	/** The AssetFile key of a level's background */
+	public static String background(int level) {
+		return level < BACKGROUNDS.length ? BACKGROUNDS[level] : DEFAULT_BACKGROUND;
+	}
+
+	/** The tutorial message file of a level, for a TutorialController */
+	public static String messageFile(int level) {
+		String s = level < MESSAGES.length ? MESSAGES[level] : null;
+		return s == null ? DEFAULT_MESSAGES : s;
+	}
+
+	/** Whether a level has a background of its own, streamed with it */
+	public static boolean hasOwnBackground(int level) {
+		return !background(level).equals(DEFAULT_BACKGROUND);
+	}
+
+	/**
+	 * Returns the AssetFile keys of the assets only this level needs.
+	 *
+	 * These are its background, unless it uses the shared one, and the
+	 * instruction image of every message in its tutorial.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static Array<String> assets(int level) {
+		if (streamed == null) {
+			streamed = new Array[Math.max(LEVELS.length, level + 1)];
+		} else if (level >= streamed.length) {
+			Array<String>[] grown = new Array[level + 1];
+			System.arraycopy(streamed, 0, grown, 0, streamed.length);
+			streamed = grown;
+		}
+		if (streamed[level] == null) {
+			Array<String> keys = new Array<String>();
+			if (hasOwnBackground(level)) {
+				keys.add(background(level));
+			}
+			String messages = level < MESSAGES.length ? MESSAGES[level] : null;
+			if (messages != null) {
+				JsonValue jv = new JSONParser(messages).getJsonValue().get("messages");
+				for (int i = 0; i < jv.size; i++) {
+					addInstruction(keys, jv.get(i).getInt("message"));
+					addInstruction(keys, jv.get(i).getInt("end_message"));
+				}
+			}
+			streamed[level] = keys;
+		}
+		return streamed[level];
+	}
+
+	private static void addInstruction(Array<String> keys, int msg) {
+		if (msg >= 0 && !keys.contains(AssetFile.INSTRUCTION + msg, false)) {
+			keys.add(AssetFile.INSTRUCTION + msg);
+		}
+	}
+}
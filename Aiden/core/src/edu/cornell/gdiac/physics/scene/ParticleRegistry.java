@@ -0,0 +1,175 @@
+package edu.cornell.gdiac.physics.scene;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * The particle effects of the game, each parsed once and handed out from a
+ * pool.
+ *
+ * Effect files (and the images they use) are loaded by the AssetManager with
+ * the rest of the shared assets. Models borrow an effect with obtain() when
+ * they are made and give it back with free() when they are thrown away, so
+ * restarting or switching levels does not read any effect files again.
+ *
+ * Like the SoundController, this is a singleton; use getInstance().
+ */
+public class ParticleRegistry {
+	/** Confetti shown when a level is won */
+	public static final String CONFETTI = "platform/confetti.p";
+	/** Aiden's fire trail when moving left */
+	public static final String TRAIL_LEFT = "platform/left.p";
+	/** Aiden's fire trail when moving right */
+	public static final String TRAIL_RIGHT = "platform/right.p";
+	/** Aiden's fire trail when standing still */
+	public static final String TRAIL_STILL = "platform/still.p";
+	/** Burst when Aiden picks up fuel */
+	public static final String FUEL = "platform/fuelP.p";
+	/** Water guard spray, facing left */
+	public static final String PUT_OUT_LEFT = "platform/putout.p";
+	/** Water guard spray, facing right */
+	public static final String PUT_OUT_RIGHT = "platform/putoutn.p";
+
+	/** Every effect the registry loads */
+	public static final String[] EFFECTS = {
+		CONFETTI, TRAIL_LEFT, TRAIL_RIGHT, TRAIL_STILL, FUEL,
+		PUT_OUT_LEFT, PUT_OUT_RIGHT,
+	};
+
+	/** Effects kept in each pool once they are freed */
+	private static final int POOL_MAX = 16;
+
+	/** The singleton registry */
+	private static ParticleRegistry registry;
+
+	/** A pool for each effect file */
+	private ObjectMap<String, ParticleEffectPool> pools;
+	/** Effects read by obtain() rather than the asset manager, by file */
+	private ObjectMap<String, ParticleEffect> loose;
+	/** Loose effects replaced by allocate(), whose copies may still be drawn */
+	private Array<ParticleEffect> retired;
+
+	/**
+	 * Creates an empty registry.
+	 *
+	 * This constructor is private; use getInstance() instead.
+	 */
+	private ParticleRegistry() {
+		pools = new ObjectMap<String, ParticleEffectPool>();
+		loose = new ObjectMap<String, ParticleEffect>();
+		retired = new Array<ParticleEffect>();
+	}
+
+	/**
+	 * Returns the single instance of the ParticleRegistry
+	 *
+	 * The first time this is called, it will construct the registry.
+	 *
+	 * @return the single instance of the ParticleRegistry
+	 */
+	public static ParticleRegistry getInstance() {
+		if (registry == null) {
+			registry = new ParticleRegistry();
+		}
+		return registry;
+	}
+
+	/**
+	 * Queues every effect file with the asset manager.
+	 *
+	 * The images of an effect are read from the directory of its file.
+	 *
+	 * @param manager
+	 *            Reference to global asset manager.
+	 */
+	public void preLoad(AssetManager manager) {
+		for (String file : EFFECTS) {
+			manager.load(file, ParticleEffect.class);
+		}
+	}
+
+	/**
+	 * Makes a pool for each effect the asset manager has finished loading.
+	 *
+	 * An effect obtain() had to read directly is replaced by the asset
+	 * manager's, so every effect is then loaded only once.
+	 *
+	 * @param manager
+	 *            Reference to global asset manager.
+	 */
+	public void allocate(AssetManager manager) {
+		for (String file : EFFECTS) {
+			if ((!pools.containsKey(file) || loose.containsKey(file))
+					&& manager.isLoaded(file)) {
+				ParticleEffect old = loose.remove(file);
+				if (old != null) {
+					// Effects handed out from it still use its images
+					retired.add(old);
+				}
+				ParticleEffect effect = manager.get(file, ParticleEffect.class);
+				pools.put(file, new ParticleEffectPool(effect, 1, POOL_MAX));
+			}
+		}
+	}
+
+	/**
+	 * Drops every pool.
+	 *
+	 * The effects loaded by the asset manager are unloaded by it; the ones
+	 * obtain() read directly are disposed here.
+	 */
+	public void clear() {
+		pools.clear();
+		for (ParticleEffect effect : loose.values()) {
+			effect.dispose();
+		}
+		loose.clear();
+		for (ParticleEffect effect : retired) {
+			effect.dispose();
+		}
+		retired.clear();
+	}
+
+	/**
+	 * Returns an effect from the pool for the given file.
+	 *
+	 * If the file was not loaded by the asset manager (e.g. an effect is
+	 * needed before the loading screen is done), it is read directly, once,
+	 * and pooled like the others until allocate() replaces it.
+	 *
+	 * @param file
+	 *            the effect file
+	 *
+	 * @return a reset effect, to be given back with free()
+	 */
+	public PooledEffect obtain(String file) {
+		ParticleEffectPool pool = pools.get(file);
+		if (pool == null) {
+			ParticleEffect effect = new ParticleEffect();
+			effect.load(Gdx.files.internal(file), Gdx.files.internal(file).parent());
+			loose.put(file, effect);
+			pool = new ParticleEffectPool(effect, 1, POOL_MAX);
+			pools.put(file, pool);
+		}
+		return pool.obtain();
+	}
+
+	/**
+	 * Gives an effect back to its pool.
+	 *
+	 * Effects that did not come from the registry are ignored.
+	 *
+	 * @param effect
+	 *            the effect to give back (may be null)
+	 */
+	public void free(ParticleEffect effect) {
+		if (effect instanceof PooledEffect) {
+			((PooledEffect) effect).free();
+		}
+	}
+}
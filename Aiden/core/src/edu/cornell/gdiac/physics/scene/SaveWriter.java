@@ -0,0 +1,132 @@
+package edu.cornell.gdiac.physics.scene;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes save files on a background thread.
+ *
+ * Writes are coalesced: if a file is submitted again before the last version
+ * reached the disk, only the newest contents are written. Each file is written
+ * to a temporary file next to it, synced, and then renamed over the old one,
+ * so a crash mid-write leaves either the old save or the new one, never half
+ * of each.
+ *
+ * The thread is started on the first submit, and is a daemon, so call flush()
+ * before the application exits.
+ */
+public class SaveWriter implements Runnable {
+	/**
+	 * Suffix of the temporary file written before the rename. If the save
+	 * itself is missing, this file holds the newest one (see write()).
+	 */
+	static final String TEMP_SUFFIX = ".tmp";
+
+	/** Guards pending and busy */
+	private final Object lock = new Object();
+	/** Newest contents not yet written, by absolute path, oldest first */
+	private LinkedHashMap<String, String> pending = new LinkedHashMap<String, String>();
+	/** Whether the thread is writing a file right now */
+	private boolean busy;
+	private Thread thread;
+
+	/**
+	 * Queues contents to be written to a file.
+	 *
+	 * This returns right away. Any contents queued earlier for the same file,
+	 * and not yet written, are dropped.
+	 *
+	 * @param path
+	 *            the absolute path of the file
+	 * @param contents
+	 *            the new contents of the file
+	 */
+	public void submit(String path, String contents) {
+		synchronized (lock) {
+			pending.remove(path);
+			pending.put(path, contents);
+			if (thread == null) {
+				thread = new Thread(this, "SaveWriter");
+				thread.setDaemon(true);
+				thread.start();
+			}
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Blocks until every queued file has been written.
+	 */
+	public void flush() {
+		synchronized (lock) {
+			while (!pending.isEmpty() || busy) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	public void run() {
+		while (true) {
+			String path;
+			String contents;
+			synchronized (lock) {
+				while (pending.isEmpty()) {
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				Iterator<Map.Entry<String, String>> it = pending.entrySet().iterator();
+				Map.Entry<String, String> next = it.next();
+				path = next.getKey();
+				contents = next.getValue();
+				it.remove();
+				busy = true;
+			}
+			try {
+				write(path, contents);
+			} catch (IOException e) {
+				System.err.println("Could not save " + path + ": " + e.getMessage());
+			} catch (RuntimeException e) {
+				System.err.println("Could not save " + path + ": " + e);
+			} finally {
+				// Even an Error must not leave flush() waiting forever
+				synchronized (lock) {
+					busy = false;
+					lock.notifyAll();
+				}
+			}
+		}
+	}
+
+	/** Writes a file through a synced temporary file and a rename */
+	private static void write(String path, String contents) throws IOException {
+		File target = new File(path);
+		File temp = new File(path + TEMP_SUFFIX);
+		FileOutputStream out = new FileOutputStream(temp);
+		try {
+			out.write(contents.getBytes("UTF-8"));
+			out.getFD().sync();
+		} finally {
+			out.close();
+		}
+		if (!temp.renameTo(target)) {
+			// Windows will not rename over an existing file. Until the second
+			// rename, only the temporary file exists, and GameSave reads that
+			target.delete();
+			if (!temp.renameTo(target)) {
+				throw new IOException("rename failed");
+			}
+		}
+	}
+}
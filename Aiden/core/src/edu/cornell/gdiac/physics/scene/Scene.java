@@ -6,7 +6,6 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.World;
-import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.JsonWriter.OutputType;
 
 import edu.cornell.gdiac.physics.blocks.BlockAbstract;
@@ -29,6 +28,8 @@ import edu.cornell.gdiac.physics.obstacle.PolygonObstacle;
 public class Scene implements SceneInterface {
 
 	private AssetFile af;
+	/** The parsed level this was built from */
+	private LevelData data;
 
 	private int width = 32;
 	private int height = 18;
@@ -52,152 +53,67 @@ public class Scene implements SceneInterface {
 	}
 
 	public Scene(String s) {
-		JSONParser jp = new JSONParser(s);
-		JsonValue jv = jp.getJsonValue();
-		String background = jv.getString("background");
-		JsonValue aiden = jv.get("aiden");
-		JsonValue objects = jv.get("blocks");
-		JsonValue jguards = jv.get("waters");
-		JsonValue exit = jv.get("goal");
-		if (jv.has("width")){
-			width = jv.getInt("width");
-			height = jv.getInt("height");
-		}
-
-		
-		// Aiden
-
-		if (aiden != null) {
-			JsonValue start_pos_array = aiden.get("start_pos");
-			if (start_pos_array != null && start_pos_array.size > 0) {
-				JsonValue start_pos = start_pos_array.get(0);
-				float start_pos_x = start_pos.getFloat("x");
-				float start_pos_y = start_pos.getFloat("y");
-				float density = aiden.getFloat("density");
-				float scale_x = aiden.getFloat("scale_x");
-				float scale_y = aiden.getFloat("scale_y");
-				boolean fright = aiden.getBoolean("fright");
-				int max_walk_speed = aiden.getInt("max_walk");
-				int jump_height = aiden.getInt("jump_height");
-				int start_fuel = aiden.getInt("start_fuel");
-				aidenModel = new AidenModel(start_pos_x, start_pos_y,
-						scale_x, scale_y, fright, start_fuel);
-				
-			}
+		this(LevelData.get(s));
+	}
 
-		}
+	/** Builds the level's obstacles from an already parsed level */
+	public Scene(LevelData data) {
+		this.data = data;
+		width = data.width;
+		height = data.height;
+		createCharacters();
 
 		// Blocks
-		if (objects != null) {
-			int n = objects.size;
-			for (int i = 0; i < n; i++) {
-				JsonValue obj = objects.get(i);
-				int id = obj.getInt("id");
-				String material = obj.getString("blockType");
-				boolean fixed = obj.getBoolean("fixed");
-				int burn_spread = obj.getInt("burn_spread");
-				int burn_time = obj.getInt("burn_time");
-				JsonValue position = obj.get("pos");
-				float x = position.getFloat("x");
-				float y = position.getFloat("y");
-				String texture = obj.getString("texture");
-				float b_scale_x = obj.getFloat("scale_x");
-				float b_scale_y = obj.getFloat("scale_y");
-				float b_density = obj.getFloat("density");
-				JsonValue link_pos = obj.get("link_pos");
-				float link_x = link_pos.getFloat("x");
-				float link_y = link_pos.getFloat("y");
-				int fuels = obj.getInt("fuels");
-				if (material.equals("wood")) {
-					woodBlocks
-					.add(new FlammableBlock(x, y, b_scale_x, b_scale_y,
-							burn_spread, burn_time));
-				} else {
-					if (material.equals("stone")) {
-						stoneBlocks.add(
-								new StoneBlock(x, y, 1.95f, 1.99f));
-					} else {
-						if (material.equals("fuel")) {
-							boolean icp = false;
-							if(obj.has("isCheckpoint")){
-								icp=obj.getBoolean("isCheckpoint");
-							}
-							fuelBlocks.add(
-									new FuelBlock(x, y, 1/*b_scale_x*/,1/*b_scale_y*/,
-											burn_spread, 0.5f, fuels,
-											icp));
-						} else {
-							if (material.equals("platform")) {
-								if (y<0){
-									platforms.add(new WaterPlatform(
-											new Rectangle(x - b_scale_x / 2f,
-													y - b_scale_y / 2f, b_scale_x,
-													b_scale_y),
-											1));
-								}
-								else{
-									platforms.add(new Platform(
-											new Rectangle(x - b_scale_x / 2f,
-													y - b_scale_y / 2f, b_scale_x,
-													b_scale_y),
-											1));
-								}
-							} else {
-								if(material.equals("rope")){
-									ropes.add(new Rope(x,y,0.25f,0.25f));
-								}else{
-									boolean is_left = obj.getBoolean("isLeft");
-									if(material.equals("trapdoor")){
-										trapdoors.add(new TrapDoor(x,y,4f, 0.5f, is_left));
-									}else{
-										if(material.equals("burnable_platform")){
-											bplatforms.add(new BurnablePlatform(
-													new Rectangle(x - b_scale_x / 2f,
-															y - b_scale_y / 2f, b_scale_x,
-															b_scale_y),1, null));
-										}else{
-											System.err
-											.println("new material : " + material);
-										}
-									}
-								}
-
-							}
-						}
-					}
+		float[] b = data.blocks;
+		for (int i = 0; i < data.blockCount; i++) {
+			int k = i * LevelData.BLOCK_STRIDE;
+			float x = b[k + LevelData.X];
+			float y = b[k + LevelData.Y];
+			float b_scale_x = b[k + LevelData.SCALE_X];
+			float b_scale_y = b[k + LevelData.SCALE_Y];
+			int burn_spread = (int) b[k + LevelData.BURN_SPREAD];
+			int burn_time = (int) b[k + LevelData.BURN_TIME];
+			switch (data.blockTypes[i]) {
+			case LevelData.WOOD:
+				woodBlocks.add(new FlammableBlock(x, y, b_scale_x, b_scale_y,
+						burn_spread, burn_time));
+				break;
+			case LevelData.STONE:
+				stoneBlocks.add(new StoneBlock(x, y, 1.95f, 1.99f));
+				break;
+			case LevelData.FUEL:
+				fuelBlocks.add(new FuelBlock(x, y, 1/*b_scale_x*/,1/*b_scale_y*/,
+						burn_spread, 0.5f, data.blockFuels[i],
+						data.blockFlags[i]));
+				break;
+			case LevelData.PLATFORM:
+				Rectangle r = new Rectangle(x - b_scale_x / 2f,
+						y - b_scale_y / 2f, b_scale_x, b_scale_y);
+				if (y<0){
+					platforms.add(new WaterPlatform(r, 1));
 				}
-
-			}
-		}
-
-		// Water guards
-		if (jguards != null) {
-			int guard_n = jguards.size;
-			for (int i = 0; i < guard_n; i++) {
-				JsonValue guard = jguards.get(i);
-				String guard_name = guard.getString("name");
-				JsonValue g_start_pos = guard.get("pos");
-				float g_x = g_start_pos.getFloat("x");
-				float g_y = g_start_pos.getFloat("y");
-				float g_scale_x = guard.getFloat("scale_x");
-				float g_scale_y = guard.getFloat("scale_y");
-				boolean g_fright = guard.getBoolean("fright");
-				WaterGuard water = new WaterGuard(
-						CharacterType.WATER_GUARD,
-						guard_name, g_x, g_y, 1.8f, 1.4f, g_fright);
-				guards.add(water);
+				else{
+					platforms.add(new Platform(r, 1));
+				}
+				break;
+			case LevelData.ROPE:
+				ropes.add(new Rope(x,y,0.25f,0.25f));
+				break;
+			case LevelData.TRAPDOOR:
+				trapdoors.add(new TrapDoor(x,y,4f, 0.5f, data.blockFlags[i]));
+				break;
+			case LevelData.BURNABLE_PLATFORM:
+				bplatforms.add(new BurnablePlatform(
+						new Rectangle(x - b_scale_x / 2f,
+								y - b_scale_y / 2f, b_scale_x,
+								b_scale_y),1, null));
+				break;
 			}
 		}
 
 		// Exit
-		if (exit != null) {
-			String ex_texture = exit.getString("texture");
-			JsonValue exit_pos = exit.get("pos");
-			float exit_x = exit_pos.getFloat("x");
-			float exit_y = exit_pos.getFloat("y");
-			float e_scale_x = exit.getFloat("scale_x");
-			float e_scale_y = exit.getFloat("scale_y");
-			goalDoor = new GoalDoor(exit_x, exit_y, 3, 3);
+		if (data.hasGoal) {
+			goalDoor = new GoalDoor(data.goalX, data.goalY, 3, 3);
 			goalDoor.setBodyType(BodyDef.BodyType.StaticBody);
 			goalDoor.setDensity(0.0f);
 			goalDoor.setFriction(0.0f);
@@ -209,6 +125,47 @@ public class Scene implements SceneInterface {
 
 	}
 
+	/**
+	 * Replaces Aiden and the water guards with new ones at their start
+	 * positions, leaving the blocks as they are. Used to restart a level
+	 * without building the blocks again.
+	 */
+	public void resetCharacters() {
+		releaseCharacters();
+		createCharacters();
+	}
+
+	/** Gives the old characters' particle effects back to the registry */
+	public void releaseCharacters() {
+		if (aidenModel != null) {
+			aidenModel.releaseEffects();
+			aidenModel = null;
+		}
+		for (WaterGuard water : guards) {
+			water.releaseEffects();
+		}
+		guards.clear();
+	}
+
+	private void createCharacters() {
+		// Aiden
+		if (data.hasAiden) {
+			float[] a = data.aiden;
+			aidenModel = new AidenModel(a[LevelData.X], a[LevelData.Y],
+					a[LevelData.SCALE_X], a[LevelData.SCALE_Y], data.aidenFright,
+					data.aidenFuel);
+		}
+
+		// Water guards
+		for (int i = 0; i < data.guardCount; i++) {
+			WaterGuard water = new WaterGuard(
+					CharacterType.WATER_GUARD, data.guardNames[i],
+					data.guards[2 * i], data.guards[2 * i + 1], 1.8f, 1.4f,
+					data.guardFright[i]);
+			guards.add(water);
+		}
+	}
+
 	public AidenModel getAidenModel() {
 		return aidenModel;
 	}
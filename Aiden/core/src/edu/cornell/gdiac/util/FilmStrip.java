@@ -47,6 +47,10 @@ public class FilmStrip extends TextureRegion {
 	/** The number of frames in this filmstrip */
 	private int size;
 	
+	/** The top-left corner of the first frame in the texture */
+	private int x0;
+	private int y0;
+	
 	/** The active animation frame */
 	private int frame;
 	
@@ -86,6 +90,32 @@ public class FilmStrip extends TextureRegion {
 		setFrame(0);
 	}
 	
+	/**
+	 * Creates a new filmstrip from part of a texture, such as an atlas region.
+	 * 
+	 * The frames are laid out in the region exactly as they would be in a
+	 * texture of their own.  The region must not be rotated or trimmed.
+	 * 
+	 * @param region The texture region to use
+	 * @param rows The number of rows in the filmstrip
+	 * @param cols The number of columns in the filmstrip
+	 * @param size The number of frames in the filmstrip
+	 */
+	public FilmStrip(TextureRegion region, int rows, int cols, int size) {
+		super(region);
+		if (size > rows*cols) {
+			Gdx.app.error("FilmStrip", "Invalid strip size", new IllegalArgumentException());
+			return;
+		}
+		this.cols = cols;
+		this.size = size;
+		x0 = region.getRegionX();
+		y0 = region.getRegionY();
+		rwidth  = region.getRegionWidth()/cols;
+		rheight = region.getRegionHeight()/rows;
+		setFrame(0);
+	}
+	
 	/**
 	 * Returns the number of frames in this filmstrip.
 	 * 
@@ -119,7 +149,7 @@ public class FilmStrip extends TextureRegion {
 		this.frame = frame;
 		int x = (frame % cols)*rwidth;
 		int y = (frame / cols)*rheight;
-		setRegion(x,y,rwidth,rheight);
+		setRegion(x0+x,y0+y,rwidth,rheight);
 	}
 
 }
\ No newline at end of file
@@ -19,10 +19,54 @@ import java.util.Random;
 
 /**
  * Static class for producing random numbers.
+ *
+ * There are two generators. The gameplay one decides anything that changes
+ * the world (guard patrols and state changes) and is restarted from a fixed
+ * seed whenever a level is reset, so the same level and input always play out
+ * the same way. The cosmetic one is for effects that are only drawn; drawing
+ * a different number of frames must not change the game, so it never touches
+ * the gameplay generator.
  */
 public class RandomController {
-	/** Pseudo-random number generator */
-	private static Random generator = new Random(0); // Make it deterministic
+	/** Seed the gameplay generator starts from, unless told otherwise */
+	public static final long DEFAULT_SEED = 0;
+
+	/** Seed of the gameplay generator */
+	private static long seed = DEFAULT_SEED;
+	/** Pseudo-random number generator for gameplay */
+	private static Random generator = new Random(seed); // Make it deterministic
+	/** Pseudo-random number generator for drawing */
+	private static Random cosmetic = new Random();
+
+	/**
+	 * Returns the seed the gameplay generator restarts from
+	 *
+	 * @return the seed the gameplay generator restarts from
+	 */
+	public static long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Sets the seed of the gameplay generator, and restarts it.
+	 *
+	 * An input log is replayed with the seed it was recorded with.
+	 *
+	 * @param value the new seed
+	 */
+	public static void setSeed(long value) {
+		seed = value;
+		reseed();
+	}
+
+	/**
+	 * Restarts the gameplay generator from its seed.
+	 *
+	 * Levels call this when they are reset.
+	 */
+	public static void reseed() {
+		generator.setSeed(seed);
+	}
 
 	/**
 	 * Returns a random int between min and max (inclusive).
@@ -47,4 +91,16 @@ public class RandomController {
 	public static float rollFloat(float min, float max) {
 		return generator.nextFloat() * (max - min) + min;
 	}
+
+	/**
+	 * Returns a random float between min and max (inclusive), for drawing only.
+	 *
+	 * @param min Minimum value in random range
+	 * @param max Maximum value in random range
+	 *
+	 * @return a random float between min and max (inclusive).
+	 */
+	public static float rollCosmeticFloat(float min, float max) {
+		return cosmetic.nextFloat() * (max - min) + min;
+	}
 }
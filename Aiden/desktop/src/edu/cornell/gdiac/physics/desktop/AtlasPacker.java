@@ -0,0 +1,122 @@
+/*
+ * AtlasPacker.java
+ *
+ * Packs the sprite and UI textures listed in AssetFile into texture atlases.
+ * Run with the packAtlases task; the game uses the atlases when they exist.
+ */
+package edu.cornell.gdiac.physics.desktop;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+
+import edu.cornell.gdiac.physics.scene.AssetFile;
+
+/**
+ * Texture atlas packer.
+ *
+ * Each texture is copied into a staging directory under its AssetFile key, so
+ * the atlas regions are named by key. Frames of a FilmStrip are laid out on a
+ * grid, so regions are never rotated or trimmed.
+ *
+ * Every texture used to be its own batch when drawn next to a different one;
+ * the report lists how many textures each atlas replaces with how many pages.
+ *
+ * Every listed texture must exist and be an image ImageIO can read. If one is
+ * not, nothing is packed and the packer exits with status 1, since the game
+ * would look for the missing region in the atlas and find nothing.
+ */
+public class AtlasPacker {
+	/** Largest atlas page */
+	private static final int PAGE_SIZE = 2048;
+
+	/**
+	 * Packs the atlases.
+	 *
+	 * @param arg the asset directory (. by default) and the output directory
+	 *            (atlas by default)
+	 */
+	public static void main(String[] arg) {
+		File assets = new File(arg.length > 0 ? arg[0] : ".");
+		File out = new File(arg.length > 1 ? arg[1] : "atlas");
+		AssetFile af = new AssetFile();
+		int bad = check(af, assets, AssetFile.SPRITE_KEYS)
+				+ check(af, assets, AssetFile.UI_KEYS);
+		if (bad > 0) {
+			System.err.println(bad + " texture(s) cannot be packed; no atlas written");
+			System.exit(1);
+		}
+		pack(af, assets, out, "sprites", AssetFile.SPRITE_KEYS);
+		pack(af, assets, out, "ui", AssetFile.UI_KEYS);
+	}
+
+	/**
+	 * Reports every texture of an atlas that is missing or unreadable.
+	 *
+	 * @return the number of textures reported
+	 */
+	private static int check(AssetFile af, File assets, String[] keys) {
+		int bad = 0;
+		for (String key : keys) {
+			File source = new File(assets, af.get(key));
+			String problem = null;
+			if (!source.isFile()) {
+				problem = "missing";
+			} else {
+				try {
+					if (ImageIO.read(source) == null) {
+						problem = "not an image ImageIO can read";
+					}
+				} catch (IOException e) {
+					problem = "unreadable (" + e.getMessage() + ")";
+				}
+			}
+			if (problem != null) {
+				System.err.println(key + ": " + source.getPath() + " is " + problem);
+				bad++;
+			}
+		}
+		return bad;
+	}
+
+	private static void pack(AssetFile af, File assets, File out, String name,
+			String[] keys) {
+		FileHandle staging = new FileHandle(new File(out, name + "-staging"));
+		staging.deleteDirectory();
+		staging.mkdirs();
+		int textures = 0;
+		for (String key : keys) {
+			FileHandle source = new FileHandle(new File(assets, af.get(key)));
+			source.copyTo(staging.child(key + ".png"));
+			textures++;
+		}
+
+		TexturePacker.Settings settings = new TexturePacker.Settings();
+		settings.maxWidth = PAGE_SIZE;
+		settings.maxHeight = PAGE_SIZE;
+		settings.paddingX = 2;
+		settings.paddingY = 2;
+		settings.duplicatePadding = true;
+		settings.rotation = false;
+		settings.stripWhitespaceX = false;
+		settings.stripWhitespaceY = false;
+		settings.useIndexes = false;
+		settings.filterMin = Texture.TextureFilter.Linear;
+		settings.filterMag = Texture.TextureFilter.Linear;
+		TexturePacker.process(settings, staging.path(), out.getPath(), name);
+		staging.deleteDirectory();
+
+		FileHandle atlas = new FileHandle(new File(out, name + ".atlas"));
+		TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(
+				atlas, atlas.parent(), false);
+		System.out.println(name + ": " + textures + " textures -> "
+				+ data.getPages().size + " page(s), "
+				+ data.getRegions().size + " regions");
+	}
+}
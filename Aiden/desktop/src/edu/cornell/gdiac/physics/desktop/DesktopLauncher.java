@@ -29,6 +29,9 @@ public class DesktopLauncher {
 	 * 
 	 * This method simply exists to start a new LwjglApplication.  For desktop games,
 	 * LibGDX is built on top of LWJGL (this is not the case for Android).
+	 *
+	 * "-record FILE" records the input of the first level played to FILE, and
+	 * "-replay FILE" plays such a recording back.
 	 * 
 	 * @param arg Command line arguments
 	 */
@@ -37,6 +40,14 @@ public class DesktopLauncher {
 		config.width  = 1600;
 		config.height = 900;
 		config.resizable = true;
-		new LwjglApplication(new GDXRoot(), config);
+		GDXRoot game = new GDXRoot();
+		for (int ii = 0; ii + 1 < arg.length; ii += 2) {
+			if (arg[ii].equals("-record")) {
+				game.setRecordFile(arg[ii + 1]);
+			} else if (arg[ii].equals("-replay")) {
+				game.setReplayFile(arg[ii + 1]);
+			}
+		}
+		new LwjglApplication(game, config);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+/*
+ * LevelLoadBenchmark.java
+ *
+ * Times loading every shipped level from JSON against loading its compiled
+ * binary form.  Run with the benchmarkLevels task, after compileLevels.
+ */
+package edu.cornell.gdiac.physics.desktop;
+
+import java.io.File;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import edu.cornell.gdiac.physics.scene.LevelCompiler;
+import edu.cornell.gdiac.physics.scene.LevelData;
+import edu.cornell.gdiac.physics.scene.LevelFormat;
+
+/**
+ * Level load time benchmark.
+ *
+ * Both paths end in a LevelData, so they do the same work as Scene would
+ * ask of them. Neither needs a running application.
+ */
+public class LevelLoadBenchmark {
+	/** Untimed loads of each level, so the JIT has compiled both paths */
+	private static final int WARMUP = 200;
+	/** Timed loads of each level */
+	private static final int ROUNDS = 1000;
+
+	/**
+	 * Benchmarks every level in the given directory (json by default).
+	 *
+	 * @param arg Command line arguments
+	 */
+	public static void main(String[] arg) {
+		File dir = new File(arg.length > 0 ? arg[0] : "json");
+		File[] files = dir.listFiles();
+		if (files == null) {
+			System.err.println("Not a directory: " + dir);
+			return;
+		}
+		JsonReader reader = new JsonReader();
+		long jsonTotal = 0;
+		long binaryTotal = 0;
+		System.out.println("level, json us, binary us, speedup");
+		for (File f : files) {
+			if (!f.getName().endsWith(".json")) {
+				continue;
+			}
+			FileHandle json = new FileHandle(f);
+			FileHandle binary = new FileHandle(LevelFormat.compiledPath(f.getPath()));
+			if (!binary.exists() || !LevelCompiler.isLevel(reader.parse(json))) {
+				continue;
+			}
+			for (int ii = 0; ii < WARMUP; ii++) {
+				loadJson(reader, json);
+				loadBinary(binary);
+			}
+			long start = System.nanoTime();
+			for (int ii = 0; ii < ROUNDS; ii++) {
+				loadJson(reader, json);
+			}
+			long jsonTime = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int ii = 0; ii < ROUNDS; ii++) {
+				loadBinary(binary);
+			}
+			long binaryTime = System.nanoTime() - start;
+			jsonTotal += jsonTime;
+			binaryTotal += binaryTime;
+			System.out.println(f.getName() + ", " + micros(jsonTime) + ", "
+					+ micros(binaryTime) + ", " + ratio(jsonTime, binaryTime));
+		}
+		System.out.println("all, " + micros(jsonTotal) + ", "
+				+ micros(binaryTotal) + ", " + ratio(jsonTotal, binaryTotal));
+	}
+
+	private static LevelData loadJson(JsonReader reader, FileHandle file) {
+		JsonValue jv = reader.parse(file);
+		return LevelData.parse(file.path(), jv);
+	}
+
+	private static LevelData loadBinary(FileHandle file) {
+		return LevelFormat.read(file.path(), file, 0, 0);
+	}
+
+	/** Average microseconds per load */
+	private static float micros(long nanos) {
+		return nanos / 1000.0f / ROUNDS;
+	}
+
+	private static float ratio(long a, long b) {
+		return b == 0 ? 0 : (float) a / b;
+	}
+}
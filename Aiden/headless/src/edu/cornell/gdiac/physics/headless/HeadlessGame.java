@@ -0,0 +1,165 @@
+/*
+ * HeadlessGame.java
+ *
+ * Boots the game's assets with no window, so levels can be built and played
+ * by tools.
+ */
+package edu.cornell.gdiac.physics.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
+
+import edu.cornell.gdiac.physics.AidenController;
+import edu.cornell.gdiac.physics.GDXRoot;
+import edu.cornell.gdiac.physics.GameCanvas;
+import edu.cornell.gdiac.physics.InputController;
+import edu.cornell.gdiac.physics.WorldController;
+import edu.cornell.gdiac.physics.scene.AssetFile;
+import edu.cornell.gdiac.physics.scene.AssetStreamer;
+import edu.cornell.gdiac.physics.scene.GameSave;
+import edu.cornell.gdiac.util.ScreenListener;
+
+/**
+ * The shared assets of the game, loaded with no window.
+ *
+ * This does what the loading screen does (GDXRoot.preLoadContent and
+ * loadContent), with GL replaced by HeadlessGL. Levels are then started the
+ * way GDXRoot enters them, and stepped the way WorldController.render steps
+ * them, minus the drawing.
+ *
+ * Paths are relative to the working directory, which must hold the game
+ * assets.
+ */
+public class HeadlessGame {
+	/** Seconds per step, as at 60 frames per second */
+	public static final float STEP = 1 / 60.0f;
+
+	private AssetManager manager;
+	private GDXRoot root;
+	private AssetStreamer streamer;
+	private GameCanvas canvas;
+
+	/**
+	 * Sets up the headless backend, if no application is running yet.
+	 *
+	 * Inside a HeadlessApplication (as in SimulationRunner) only GL is
+	 * replaced. Elsewhere (as under a benchmark harness) a backend is made
+	 * just for its files, audio and natives, and its loop is stopped at once.
+	 */
+	public static void init() {
+		if (Gdx.app == null) {
+			new HeadlessApplication(new ApplicationAdapter() {},
+					new HeadlessApplicationConfiguration());
+			Gdx.app.exit();
+		}
+		Gdx.gl = Gdx.gl20 = HeadlessGL.create();
+	}
+
+	/**
+	 * Loads every shared asset, blocking until done.
+	 *
+	 * Call init() first.
+	 */
+	public HeadlessGame() {
+		manager = new AssetManager();
+		FileHandleResolver resolver = new InternalFileHandleResolver();
+		manager.setLoader(FreeTypeFontGenerator.class,
+				new FreeTypeFontGeneratorLoader(resolver));
+		manager.setLoader(BitmapFont.class, ".ttf",
+				new FreetypeFontLoader(resolver));
+		root = new GDXRoot();
+		root.preLoadContent(manager);
+		manager.finishLoading();
+		root.loadContent(manager);
+		streamer = new AssetStreamer(manager, root.getAssetFile());
+		canvas = new GameCanvas();
+	}
+
+	/**
+	 * Returns the shared assets
+	 *
+	 * @return the shared assets
+	 */
+	public AssetFile getAssetFile() {
+		return root.getAssetFile();
+	}
+
+	/**
+	 * Builds a level and makes it the active screen.
+	 *
+	 * The level gets a save that starts from no checkpoint and is never
+	 * written, so runs do not depend on (or change) the player's progress.
+	 *
+	 * @param controller
+	 *            the level, not yet reset
+	 * @param listener
+	 *            told when the level asks to exit (must be muted)
+	 */
+	public void start(AidenController controller, ScreenListener listener) {
+		start(controller, listener, -1);
+	}
+
+	/**
+	 * Builds a level and makes it the active screen, starting at a checkpoint.
+	 *
+	 * This is how an input log is replayed from where it was recorded.
+	 *
+	 * @param controller
+	 *            the level, not yet reset
+	 * @param listener
+	 *            told when the level asks to exit (must be muted)
+	 * @param checkpoint
+	 *            the checkpoint to start from, or -1 for the level's start
+	 */
+	public void start(AidenController controller, ScreenListener listener,
+			int checkpoint) {
+		streamer.require(controller.level);
+
+		GameSave save = new GameSave("savedGame.json");
+		save.setPersistent(false);
+		save.setLevel(checkpoint == -1 ? -1 : controller.level);
+		save.setCheckpoint(checkpoint);
+
+		controller.setScreenListener(listener);
+		controller.setCanvas(canvas);
+		controller.setAssetFile(root.getAssetFile());
+		controller.setGameSave(save);
+		controller.reset();
+		controller.show();
+	}
+
+	/**
+	 * Advances a level by one fixed step, without drawing it.
+	 *
+	 * While an input log is replayed, the step is the recorded one instead.
+	 *
+	 * @param controller
+	 *            the level
+	 */
+	public static void step(WorldController controller) {
+		InputController input = InputController.getInstance();
+		float dt = input.beginFrame(STEP);
+		if (controller.preUpdate(dt)) {
+			controller.update(dt);
+			controller.postUpdate(dt);
+		}
+		input.endFrame();
+	}
+
+	/**
+	 * Unloads every asset.
+	 */
+	public void dispose() {
+		root.unloadContent(manager);
+		manager.dispose();
+	}
+}
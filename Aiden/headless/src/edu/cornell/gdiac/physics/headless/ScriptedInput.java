@@ -0,0 +1,134 @@
+/*
+ * ScriptedInput.java
+ *
+ * Keyboard input read from a script instead of a keyboard, for the headless
+ * runner.
+ */
+package edu.cornell.gdiac.physics.headless;
+
+import java.util.ArrayList;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Input that holds down the keys a script says to, step by step.
+ *
+ * A script is a text file. Each line is a step number followed by the names
+ * of the keys (as in Input.Keys, e.g. RIGHT or SPACE) held from that step on,
+ * until the next line. A line with only a step number releases every key.
+ * Blank lines and lines starting with # are skipped; lines must be in step
+ * order.
+ *
+ * <pre>
+ * # walk right, jump, stop
+ * 0 RIGHT
+ * 90 RIGHT UP
+ * 100 RIGHT
+ * 240
+ * </pre>
+ *
+ * InputController reads this through Gdx.input like any keyboard, so the
+ * game code runs unchanged. The mouse never moves or clicks.
+ */
+public class ScriptedInput extends MockInput {
+	/** The step each line starts at */
+	private int[] starts;
+	/** The keys held from each line on */
+	private boolean[][] held;
+	/** The current line, or -1 before the first */
+	private int line = -1;
+	/** The line before the last step, for isKeyJustPressed */
+	private int previous = -1;
+
+	/**
+	 * Creates input with no keys held.
+	 */
+	public ScriptedInput() {
+		starts = new int[0];
+		held = new boolean[0][];
+	}
+
+	/**
+	 * Creates input from a script file.
+	 *
+	 * @param file
+	 *            the script
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a line is out of order or names an unknown key
+	 */
+	public ScriptedInput(FileHandle file) {
+		IntArray stepList = new IntArray();
+		ArrayList<boolean[]> keyList = new ArrayList<boolean[]>();
+		String[] lines = file.readString().split("\n");
+		for (int ii = 0; ii < lines.length; ii++) {
+			String text = lines[ii].trim();
+			if (text.length() == 0 || text.startsWith("#")) {
+				continue;
+			}
+			String[] words = text.split("\\s+");
+			int step = Integer.parseInt(words[0]);
+			if (stepList.size > 0 && step < stepList.peek()) {
+				throw new IllegalArgumentException(file.name() + ":" + (ii + 1)
+						+ ": step " + step + " is out of order");
+			}
+			boolean[] keys = new boolean[256];
+			for (int jj = 1; jj < words.length; jj++) {
+				int key = Input.Keys.valueOf(words[jj]);
+				if (key < 0 || key >= keys.length) {
+					throw new IllegalArgumentException(file.name() + ":" + (ii + 1)
+							+ ": unknown key " + words[jj]);
+				}
+				keys[key] = true;
+			}
+			stepList.add(step);
+			keyList.add(keys);
+		}
+		starts = stepList.toArray();
+		held = keyList.toArray(new boolean[keyList.size()][]);
+	}
+
+	/**
+	 * Moves the script to the given step.
+	 *
+	 * Call this once before each step, with steps in order.
+	 *
+	 * @param step
+	 *            the step about to run
+	 */
+	public void setStep(int step) {
+		previous = line;
+		while (line + 1 < starts.length && starts[line + 1] <= step) {
+			line++;
+		}
+	}
+
+	@Override
+	public boolean isKeyPressed(int key) {
+		return isHeld(line, key);
+	}
+
+	@Override
+	public boolean isKeyJustPressed(int key) {
+		return isHeld(line, key) && !isHeld(previous, key);
+	}
+
+	private boolean isHeld(int at, int key) {
+		if (at < 0) {
+			return false;
+		}
+		boolean[] keys = held[at];
+		if (key == Input.Keys.ANY_KEY) {
+			for (int ii = 0; ii < keys.length; ii++) {
+				if (keys[ii]) {
+					return true;
+				}
+			}
+			return false;
+		}
+		return key >= 0 && key < keys.length && keys[key];
+	}
+}
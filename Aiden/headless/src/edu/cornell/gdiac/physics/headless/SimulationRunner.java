@@ -0,0 +1,296 @@
+/*
+ * SimulationRunner.java
+ *
+ * Plays a level for a fixed number of steps with no window, and reports how
+ * fast it ran and where the world ended up.  Run with the simulate task.
+ */
+package edu.cornell.gdiac.physics.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import edu.cornell.gdiac.physics.AidenController;
+import edu.cornell.gdiac.physics.InputController;
+import edu.cornell.gdiac.physics.InputReplayer;
+import edu.cornell.gdiac.physics.Profiler;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.util.ScreenListener;
+
+/**
+ * Headless, deterministic simulation of one level.
+ *
+ * The level is built exactly as the game builds it, and then stepped with a
+ * fixed time step through preUpdate, update and postUpdate, the same calls
+ * WorldController.render makes. Nothing is drawn unless asked. Input comes
+ * from a ScriptedInput, or from an input log recorded in the game. Gameplay
+ * random numbers come from RandomController, which the level restarts from a
+ * fixed seed when it is reset, so two runs with the same level, input and
+ * step count must end in the same world; the hash printed at the end checks
+ * that.
+ *
+ * Usage: SimulationRunner [options] level
+ *
+ * where level is a level index or the path of a Scene JSON file, and the
+ * options are
+ *
+ * <pre>
+ * -steps N     steps to run (default 3600, one minute of play)
+ * -input FILE  input script (see ScriptedInput; default no input)
+ * -replay FILE input log to replay (see InputReplayer); the level and
+ *              checkpoint default to the log's, the gameplay seed is the
+ *              log's, and the run ends with the log
+ * -record FILE record the run to an input log
+ * -hash N      also print the world hash every N steps
+ * -draw        also draw every step, and report the draw calls per step
+ *              (run once with desktop/atlas and once without to compare)
+ * -expect HEX  exit with status 1 unless the final hash is HEX
+ * </pre>
+ *
+ * Paths are relative to the working directory, which must hold the game
+ * assets. The save file is read but never written.
+ */
+public class SimulationRunner extends ApplicationAdapter implements ScreenListener {
+	/** Steps to run if none are given */
+	private static final int DEFAULT_STEPS = 3600;
+	/** Exit status when the level or arguments cannot be used */
+	private static final int EXIT_USAGE = 2;
+	/** Exit status when the final hash is not the expected one */
+	private static final int EXIT_MISMATCH = 1;
+
+	/** FNV-1a offset basis */
+	private static final long FNV_BASIS = 0xcbf29ce484222325L;
+	/** FNV-1a prime */
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private int level = 0;
+	private String levelFile;
+	private String inputFile;
+	private String replayFile;
+	private String recordFile;
+	private int steps = -1;
+	private int hashEvery = 0;
+	private String expected;
+	private boolean draw;
+
+	/** Status for System.exit once the application is disposed */
+	private int status = 0;
+	/** Last exit code asked for by the level, or -1 if none */
+	private int exitCode = -1;
+
+	/**
+	 * Runs a level headless.
+	 *
+	 * @param arg Command line arguments
+	 */
+	public static void main(String[] arg) {
+		SimulationRunner runner = new SimulationRunner();
+		if (!runner.parse(arg)) {
+			System.err.println("Usage: SimulationRunner [-steps N] [-input FILE]"
+					+ " [-replay FILE] [-record FILE] [-hash N] [-expect HEX] [-draw] level");
+			System.exit(EXIT_USAGE);
+		}
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		// Everything happens in create(), so never wait between frames
+		config.renderInterval = 0;
+		new HeadlessApplication(runner, config);
+	}
+
+	/** Reads the command line, returning false if it makes no sense */
+	private boolean parse(String[] arg) {
+		String target = null;
+		try {
+			for (int ii = 0; ii < arg.length; ii++) {
+				if (arg[ii].equals("-steps") && ii + 1 < arg.length) {
+					steps = Integer.parseInt(arg[++ii]);
+				} else if (arg[ii].equals("-input") && ii + 1 < arg.length) {
+					inputFile = arg[++ii];
+				} else if (arg[ii].equals("-replay") && ii + 1 < arg.length) {
+					replayFile = arg[++ii];
+				} else if (arg[ii].equals("-record") && ii + 1 < arg.length) {
+					recordFile = arg[++ii];
+				} else if (arg[ii].equals("-hash") && ii + 1 < arg.length) {
+					hashEvery = Integer.parseInt(arg[++ii]);
+				} else if (arg[ii].equals("-expect") && ii + 1 < arg.length) {
+					expected = arg[++ii].toLowerCase();
+				} else if (arg[ii].equals("-draw")) {
+					draw = true;
+				} else if (target == null && !arg[ii].startsWith("-")) {
+					target = arg[ii];
+				} else {
+					return false;
+				}
+			}
+		} catch (NumberFormatException e) {
+			return false;
+		}
+		if (steps == -1) {
+			// A replay runs until its log ends
+			steps = replayFile != null ? Integer.MAX_VALUE : DEFAULT_STEPS;
+		}
+		if (steps <= 0 || (target == null && replayFile == null)) {
+			return false;
+		}
+		if (target == null) {
+			level = -1;
+			return true;
+		}
+		try {
+			level = Integer.parseInt(target);
+		} catch (NumberFormatException e) {
+			levelFile = target;
+			level = 0;
+		}
+		return true;
+	}
+
+	@Override
+	public void create() {
+		try {
+			status = simulate();
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			status = EXIT_USAGE;
+		}
+		Gdx.app.exit();
+	}
+
+	@Override
+	public void dispose() {
+		System.exit(status);
+	}
+
+	/** Builds the level, runs it and prints the report */
+	private int simulate() {
+		HeadlessGame.init();
+		ScriptedInput input = inputFile == null ? new ScriptedInput()
+				: new ScriptedInput(Gdx.files.internal(inputFile));
+		Gdx.input = input;
+
+		InputController logs = InputController.getInstance();
+		int checkpoint = -1;
+		if (replayFile != null) {
+			InputReplayer log = logs.startReplay(Gdx.files.local(replayFile));
+			if (level == -1) {
+				level = log.getLevel();
+				checkpoint = log.getCheckpoint();
+			}
+		}
+
+		HeadlessGame game = new HeadlessGame();
+		AidenController controller = new AidenController(level);
+		controller.setLevelFile(levelFile);
+		game.start(controller, this, checkpoint);
+		if (recordFile != null) {
+			logs.startRecording(Gdx.files.local(recordFile), level, checkpoint);
+		}
+
+		Profiler profiler = Profiler.getInstance();
+		profiler.setEnabled(true);
+
+		int step = 0;
+		long start = System.nanoTime();
+		while (step < steps && exitCode < 0
+				&& (replayFile == null || logs.isReplaying())) {
+			input.setStep(step);
+			profiler.beginFrame();
+			HeadlessGame.step(controller);
+			if (draw) {
+				profiler.begin(Profiler.DRAW);
+				controller.draw(HeadlessGame.STEP);
+				profiler.end(Profiler.DRAW);
+			}
+			profiler.endFrame();
+			step++;
+			if (hashEvery > 0 && step % hashEvery == 0) {
+				System.out.println("step " + step + " hash " + hex(hash(controller)));
+			}
+		}
+		long time = System.nanoTime() - start;
+		String hash = hex(hash(controller));
+		logs.stopRecording();
+		logs.stopReplay();
+
+		System.out.println("level " + (levelFile != null ? levelFile : String.valueOf(level))
+				+ ", " + step + " steps" + (exitCode >= 0 ? " (level exited with " + exitCode + ")" : ""));
+		System.out.println("steps/s " + Math.round(step / (time / 1e9)));
+		long frames = Math.max(1, profiler.getFrames());
+		for (int ii = 0; ii < Profiler.STAGES; ii++) {
+			if (ii == Profiler.DRAW && !draw) {
+				continue;
+			}
+			System.out.println(Profiler.getName(ii) + " ms/step "
+					+ String.format("%.4f", profiler.getTotal(ii) / frames));
+		}
+		if (draw) {
+			System.out.println("draw calls/step " + String.format("%.2f",
+					profiler.getDrawTotal() / (double) frames));
+		}
+		System.out.println("hash " + hash);
+
+		controller.dispose();
+		game.dispose();
+
+		if (expected != null && !expected.equals(hash)) {
+			System.err.println("Expected hash " + expected + ", got " + hash);
+			return EXIT_MISMATCH;
+		}
+		return 0;
+	}
+
+	/**
+	 * Hashes the state of every obstacle in the world.
+	 *
+	 * The exact bits of each position, angle and velocity are hashed, in the
+	 * order the world keeps its obstacles, so any change at all shows.
+	 */
+	private static long hash(AidenController controller) {
+		long h = FNV_BASIS;
+		for (Obstacle obj : controller.getObjects()) {
+			h = mix(h, Float.floatToIntBits(obj.getX()));
+			h = mix(h, Float.floatToIntBits(obj.getY()));
+			h = mix(h, Float.floatToIntBits(obj.getAngle()));
+			h = mix(h, Float.floatToIntBits(obj.getVX()));
+			h = mix(h, Float.floatToIntBits(obj.getVY()));
+			h = mix(h, obj.isRemoved() ? 1 : 0);
+		}
+		return h;
+	}
+
+	/** Folds the four bytes of a value into an FNV-1a hash */
+	private static long mix(long h, int value) {
+		for (int ii = 0; ii < 4; ii++) {
+			h ^= (value >>> (ii * 8)) & 0xff;
+			h *= FNV_PRIME;
+		}
+		return h;
+	}
+
+	private static String hex(long h) {
+		String s = Long.toHexString(h);
+		while (s.length() < 16) {
+			s = "0" + s;
+		}
+		return s;
+	}
+
+	public void exitScreen(Screen screen, int exitCode) {
+		this.exitCode = exitCode;
+	}
+
+	public void setMuted() {
+	}
+
+	public void setSound() {
+	}
+
+	public boolean getMuted() {
+		return true;
+	}
+
+	public boolean getSound() {
+		return true;
+	}
+}